@@ -0,0 +1,86 @@
+package dev.riddle.microstore.inventory.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import dev.riddle.microstore.inventory.shared.persistence.ReadYourWritesFilter;
+import dev.riddle.microstore.inventory.shared.persistence.ReplicaLagMonitor;
+import dev.riddle.microstore.inventory.shared.persistence.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read replica routing, enabled by setting {@code inventory.datasource.replica.url}.
+ * <p>
+ * The primary pool is still configured under {@code spring.datasource}, the replica pool under
+ * {@code inventory.datasource.replica}. The {@link DataSource} everything else uses hands out
+ * connections from the replica for read-only transactions and from the primary otherwise, see
+ * {@link ReplicaRoutingDataSource}. Flyway always migrates the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.datasource.replica", name = "url")
+public class ReadReplicaConfig {
+	@Bean
+	@FlywayDataSource
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("inventory-primary");
+		return dataSource;
+	}
+
+	@Bean(defaultCandidate = false)
+	@Qualifier("replica")
+	@ConfigurationProperties("inventory.datasource.replica")
+	public DataSourceProperties replicaDataSourceProperties() {
+		return new DataSourceProperties();
+	}
+
+	@Bean
+	@ConfigurationProperties("inventory.datasource.replica.hikari")
+	public HikariDataSource replicaDataSource(@Qualifier("replica") DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("inventory-replica");
+		dataSource.setReadOnly(true);
+		return dataSource;
+	}
+
+	@Bean
+	public ReplicaLagMonitor replicaLagMonitor(
+		@Qualifier("replicaDataSource") DataSource replicaDataSource,
+		@Value("${inventory.datasource.replica.max-lag:PT5S}") Duration maxLag,
+		@Value("${inventory.datasource.replica.lag-check-timeout:PT2S}") Duration checkTimeout,
+		MeterRegistry meterRegistry
+	) {
+		JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+		replica.setQueryTimeout((int) Math.max(1, checkTimeout.toSeconds()));
+		return new ReplicaLagMonitor(replica, maxLag, meterRegistry);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(
+		@Qualifier("primaryDataSource") DataSource primaryDataSource,
+		@Qualifier("replicaDataSource") DataSource replicaDataSource,
+		ReplicaLagMonitor replicaLagMonitor
+	) {
+		return new LazyConnectionDataSourceProxy(
+			new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor));
+	}
+
+	@Bean
+	public ReadYourWritesFilter readYourWritesFilter() {
+		return new ReadYourWritesFilter();
+	}
+}
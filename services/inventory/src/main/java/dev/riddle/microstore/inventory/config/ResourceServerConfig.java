@@ -1,5 +1,15 @@
 package dev.riddle.microstore.inventory.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import dev.riddle.microstore.inventory.shared.security.CachingJwtDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.JwkSetUriJwtDecoderBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -7,29 +17,66 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.net.URL;
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class ResourceServerConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            JwtDecoder jwtDecoder,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.security.jwt.cache-size:10000}") long cacheSize) throws Exception {
+
+        JwtDecoder cachingJwtDecoder = new CachingJwtDecoder(jwtDecoder, cacheSize, meterRegistry);
         http
             .authorizeHttpRequests(authorize -> authorize
-                .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/actuator/**").permitAll()
+                .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/actuator/health/**", "/actuator/info").permitAll()
+                // Metrics name endpoints, tables and queue depths, only for callers with a token
+                .requestMatchers("/actuator/**").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/inventory/**").hasAuthority("SCOPE_inventory.read")
                 .requestMatchers(HttpMethod.POST, "/api/inventory/**").hasAuthority("SCOPE_inventory.write")
+                .requestMatchers(HttpMethod.PUT, "/api/inventory/**").hasAuthority("SCOPE_inventory.write")
                 .requestMatchers(HttpMethod.PATCH, "/api/inventory/**").hasAuthority("SCOPE_inventory.write")
                 .requestMatchers(HttpMethod.DELETE, "/api/inventory/**").hasAuthority("SCOPE_inventory.write")
                 .anyRequest().authenticated()
             )
-            .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> {}))
+            .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.decoder(cachingJwtDecoder)))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .csrf(csrf -> csrf.disable());
 
         return http.build();
     }
-}
 
+    /**
+     * Verifies signatures against a local copy of the authorization server's JWKS. The copy is
+     * refreshed in the background before it expires; a token signed with an unknown {@code kid}
+     * triggers one refetch that concurrent requests wait on, at most once per rate limit interval.
+     */
+    @Bean
+    @ConditionalOnProperty("spring.security.oauth2.resourceserver.jwt.jwk-set-uri")
+    public JWKSource<SecurityContext> jwkSource(
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") URL jwkSetUri,
+            @Value("${inventory.security.jwks.ttl:PT15M}") Duration ttl,
+            @Value("${inventory.security.jwks.refresh-ahead:PT1M}") Duration refreshAhead) {
+
+        return JWKSourceBuilder.<SecurityContext>create(jwkSetUri)
+                .cache(ttl.toMillis(), JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT)
+                .refreshAheadCache(refreshAhead.toMillis(), true)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty("spring.security.oauth2.resourceserver.jwt.jwk-set-uri")
+    public JwkSetUriJwtDecoderBuilderCustomizer localJwkSet(JWKSource<SecurityContext> jwkSource) {
+        return builder -> builder.jwtProcessorCustomizer(processor ->
+                processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource)));
+    }
+}
@@ -0,0 +1,32 @@
+package dev.riddle.microstore.inventory.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Makes Postgres full-text search usable from criteria queries, e.g.
+ * {@code builder.function(SearchFunctionContributor.MATCHES, Boolean.class, vector, term)}.
+ * Registered through {@code META-INF/services}.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+	public static final String MATCHES = "fts_matches";
+	public static final String RANK = "fts_rank";
+
+	@Override
+	public void contributeFunctions(FunctionContributions functionContributions) {
+		BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+		functionContributions.getFunctionRegistry().registerPattern(
+			MATCHES,
+			"(?1 @@ websearch_to_tsquery('english', ?2))",
+			types.resolve(StandardBasicTypes.BOOLEAN)
+		);
+		functionContributions.getFunctionRegistry().registerPattern(
+			RANK,
+			"ts_rank(?1, websearch_to_tsquery('english', ?2))",
+			types.resolve(StandardBasicTypes.DOUBLE)
+		);
+	}
+}
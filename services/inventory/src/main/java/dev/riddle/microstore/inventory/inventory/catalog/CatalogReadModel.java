@@ -0,0 +1,148 @@
+package dev.riddle.microstore.inventory.inventory.catalog;
+
+import dev.riddle.microstore.inventory.inventory.event.ItemEventOffset;
+import dev.riddle.microstore.inventory.inventory.event.ItemEventRepository;
+import dev.riddle.microstore.inventory.inventory.item.CountMode;
+import dev.riddle.microstore.inventory.inventory.item.HotSkuStock;
+import dev.riddle.microstore.inventory.inventory.item.InventoryItem;
+import dev.riddle.microstore.inventory.inventory.item.InventoryItemRepository;
+import dev.riddle.microstore.inventory.inventory.item.ItemMapper;
+import dev.riddle.microstore.inventory.inventory.item.ItemSpecificationFilter;
+import dev.riddle.microstore.inventory.inventory.item.dto.ItemResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Serves item listings from an in-memory {@link CatalogSnapshot} instead of Postgres.
+ * <p>
+ * The snapshot is rebuilt when the outbox has a new visible item event, and at least every
+ * {@code max-age}. Events count as visible by the rule the outbox stream reads them with, so an
+ * event that commits late behind a newer one is not passed over. The items are streamed through
+ * a cursor and detached as they are read, a rebuild never holds the catalog as managed entities.
+ * Each rebuild replaces the snapshot reference, so readers never wait and never see a
+ * half-built catalog. Listings can lag behind writes by up to the refresh interval.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.catalog.snapshot-enabled", havingValue = "true")
+public class CatalogReadModel {
+	private static final Logger log = LoggerFactory.getLogger(CatalogReadModel.class);
+	private static final CatalogSnapshot EMPTY = CatalogSnapshot.empty();
+	private static final Specification<InventoryItem> EVERY_ITEM = (root, query, builder) -> null;
+	private static final int FETCH_SIZE = 1000;
+
+	private final InventoryItemRepository inventoryItemRepository;
+	private final ItemEventRepository itemEventRepository;
+	private final ItemMapper mapper;
+	private final HotSkuStock hotSkuStock;
+	private final Duration maxAge;
+	private final Clock clock;
+
+	private volatile CatalogSnapshot snapshot;
+
+	public CatalogReadModel(
+		InventoryItemRepository inventoryItemRepository,
+		ItemEventRepository itemEventRepository,
+		ItemMapper mapper,
+		HotSkuStock hotSkuStock,
+		MeterRegistry meterRegistry,
+		@Value("${inventory.catalog.max-age:PT5M}") Duration maxAge
+	) {
+		this(inventoryItemRepository, itemEventRepository, mapper, hotSkuStock, meterRegistry, maxAge, Clock.systemUTC());
+	}
+
+	CatalogReadModel(
+		InventoryItemRepository inventoryItemRepository,
+		ItemEventRepository itemEventRepository,
+		ItemMapper mapper,
+		HotSkuStock hotSkuStock,
+		MeterRegistry meterRegistry,
+		Duration maxAge,
+		Clock clock
+	) {
+		this.inventoryItemRepository = inventoryItemRepository;
+		this.itemEventRepository = itemEventRepository;
+		this.mapper = mapper;
+		this.hotSkuStock = hotSkuStock;
+		this.maxAge = maxAge;
+		this.clock = clock;
+
+		Gauge.builder("inventory.catalog.snapshot.items", this, model -> model.current().size())
+			.description("Items held in the catalog snapshot")
+			.register(meterRegistry);
+		Gauge.builder("inventory.catalog.snapshot.size", this, model -> model.current().estimatedBytes())
+			.description("Estimated heap used by the catalog snapshot")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+		Gauge.builder("inventory.catalog.snapshot.age", this, CatalogReadModel::ageSeconds)
+			.description("Time since the catalog snapshot was built")
+			.baseUnit("seconds")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Empty until the first snapshot is built, or when the snapshot cannot answer the query.
+	 */
+	public Optional<Slice<ItemResponse>> query(ItemSpecificationFilter filter, Pageable pageable, CountMode countMode) {
+		CatalogSnapshot current = snapshot;
+		if (current == null || !current.supports(filter, pageable))
+			return Optional.empty();
+
+		return Optional.of(current.query(filter, pageable, countMode));
+	}
+
+	@Transactional(readOnly = true)
+	@Scheduled(fixedDelayString = "${inventory.catalog.refresh-interval:PT5S}")
+	public void refresh() {
+		CatalogSnapshot current = snapshot;
+		// Read before the items, so anything committed while they are loaded shows up as a newer event next time
+		ItemEventOffset latestEvent = itemEventRepository.findLatestVisible()
+			.map(ItemEventOffset::after)
+			.orElse(ItemEventOffset.START);
+		Instant now = clock.instant();
+
+		if (current != null
+			&& current.eventOffset().equals(latestEvent)
+			&& current.builtAt().plus(maxAge).isAfter(now))
+			return;
+
+		// Hot SKUs' stripes are folded in here, so filters and sorts on quantity see their whole stock
+		UnaryOperator<ItemResponse> withStripes = hotSkuStock.stripeTotals();
+		List<ItemResponse> items;
+		try (Stream<InventoryItem> all = inventoryItemRepository.streamAll(EVERY_ITEM, FETCH_SIZE)) {
+			items = all.map(mapper::toResponse).map(withStripes).toList();
+		}
+		snapshot = CatalogSnapshot.of(items, latestEvent, now);
+		log.debug("Rebuilt catalog snapshot with {} items up to event {}", items.size(), latestEvent);
+	}
+
+	private CatalogSnapshot current() {
+		CatalogSnapshot current = snapshot;
+		return current != null ? current : EMPTY;
+	}
+
+	private double ageSeconds() {
+		CatalogSnapshot current = snapshot;
+		if (current == null)
+			return Double.NaN;
+
+		return Duration.between(current.builtAt(), clock.instant()).toMillis() / 1000.0;
+	}
+}
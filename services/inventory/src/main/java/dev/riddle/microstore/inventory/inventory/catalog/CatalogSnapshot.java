@@ -0,0 +1,206 @@
+package dev.riddle.microstore.inventory.inventory.catalog;
+
+import dev.riddle.microstore.inventory.inventory.event.ItemEventOffset;
+import dev.riddle.microstore.inventory.inventory.item.CountMode;
+import dev.riddle.microstore.inventory.inventory.item.ItemSpecificationFilter;
+import dev.riddle.microstore.inventory.inventory.item.dto.ItemResponse;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable copy of the whole catalog, one array per column. Filters are a scan over the
+ * primitive columns in the requested sort order, which takes microseconds at catalog sizes.
+ * Row i of every array belongs to the same item. Names are ordered by Java string order, which
+ * can differ from the database collation for mixed case and accents. Items come in as responses,
+ * so hot SKUs already carry the stock of their stripes.
+ */
+final class CatalogSnapshot {
+	// Rough per-object costs on a 64-bit JVM with compressed oops
+	private static final long STRING_OVERHEAD = 40;
+	private static final long UUID_SIZE = 32;
+	private static final long INSTANT_SIZE = 24;
+	private static final long REFERENCE_SIZE = 4;
+
+	private final UUID[] ids;
+	private final String[] skus;
+	private final String[] names;
+	private final String[] lowerNames;
+	private final String[] descriptions;
+	private final int[] quantity;
+	private final int[] priceInCents;
+	private final Instant[] createdAt;
+	private final Instant[] updatedAt;
+	private final long[] versions;
+	// Row numbers in ascending order of each sortable property
+	private final Map<String, int[]> sortedBy;
+
+	private final ItemEventOffset eventOffset;
+	private final Instant builtAt;
+	private final long estimatedBytes;
+
+	private CatalogSnapshot(List<ItemResponse> items, ItemEventOffset eventOffset, Instant builtAt) {
+		int size = items.size();
+		this.ids = new UUID[size];
+		this.skus = new String[size];
+		this.names = new String[size];
+		this.lowerNames = new String[size];
+		this.descriptions = new String[size];
+		this.quantity = new int[size];
+		this.priceInCents = new int[size];
+		this.createdAt = new Instant[size];
+		this.updatedAt = new Instant[size];
+		this.versions = new long[size];
+
+		for (int i = 0; i < size; i++) {
+			ItemResponse item = items.get(i);
+			ids[i] = item.id();
+			skus[i] = item.sku();
+			names[i] = item.name();
+			lowerNames[i] = item.name().toLowerCase(Locale.ROOT);
+			descriptions[i] = item.description();
+			quantity[i] = item.quantity();
+			priceInCents[i] = item.priceInCents();
+			createdAt[i] = item.createdAt();
+			updatedAt[i] = item.updatedAt();
+			versions[i] = item.version();
+		}
+
+		Comparator<Integer> byName = Comparator.comparing(i -> names[i]);
+		this.sortedBy = Map.of(
+			"name", sort(size, byName),
+			"sku", sort(size, Comparator.comparing(i -> skus[i])),
+			"quantity", sort(size, Comparator.<Integer>comparingInt(i -> quantity[i]).thenComparing(byName)),
+			"priceInCents", sort(size, Comparator.<Integer>comparingInt(i -> priceInCents[i]).thenComparing(byName))
+		);
+
+		this.eventOffset = eventOffset;
+		this.builtAt = builtAt;
+		this.estimatedBytes = estimateBytes();
+	}
+
+	static CatalogSnapshot of(List<ItemResponse> items, ItemEventOffset eventOffset, Instant builtAt) {
+		return new CatalogSnapshot(items, eventOffset, builtAt);
+	}
+
+	static CatalogSnapshot empty() {
+		return new CatalogSnapshot(List.of(), ItemEventOffset.START, Instant.EPOCH);
+	}
+
+	/**
+	 * Full-text search and sorts on more than one property, or on properties without a
+	 * precomputed order, are left to the database.
+	 */
+	boolean supports(ItemSpecificationFilter filter, Pageable pageable) {
+		if (filter.search() != null && !filter.search().isBlank())
+			return false;
+
+		List<Sort.Order> orders = pageable.getSort().toList();
+		return orders.isEmpty() || (orders.size() == 1 && sortedBy.containsKey(orders.getFirst().getProperty()));
+	}
+
+	Slice<ItemResponse> query(ItemSpecificationFilter filter, Pageable pageable, CountMode countMode) {
+		Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("name"));
+		int[] rows = sortedBy.get(order.getProperty());
+		boolean descending = order.isDescending();
+
+		String name = filter.name() == null || filter.name().isBlank() ? null : filter.name().toLowerCase(Locale.ROOT);
+		String sku = filter.sku() == null || filter.sku().isBlank() ? null : filter.sku();
+
+		long offset = pageable.getOffset();
+		int pageSize = pageable.getPageSize();
+		List<ItemResponse> content = new ArrayList<>(pageSize);
+		long matches = 0;
+		boolean hasNext = false;
+
+		for (int n = 0; n < rows.length; n++) {
+			int row = rows[descending ? rows.length - 1 - n : n];
+			if (!matches(row, filter, name, sku))
+				continue;
+
+			if (matches >= offset && content.size() < pageSize) {
+				content.add(toResponse(row));
+			} else if (content.size() == pageSize) {
+				hasNext = true;
+				// Without a count there is nothing left to learn from the remaining rows
+				if (countMode == CountMode.NONE)
+					break;
+			}
+			matches++;
+		}
+
+		if (countMode == CountMode.NONE)
+			return new SliceImpl<>(content, pageable, hasNext);
+
+		return new PageImpl<>(content, pageable, matches);
+	}
+
+	int size() {
+		return ids.length;
+	}
+
+	ItemEventOffset eventOffset() {
+		return eventOffset;
+	}
+
+	Instant builtAt() {
+		return builtAt;
+	}
+
+	long estimatedBytes() {
+		return estimatedBytes;
+	}
+
+	private boolean matches(int row, ItemSpecificationFilter filter, String name, String sku) {
+		return (name == null || lowerNames[row].contains(name))
+			&& (sku == null || skus[row].equals(sku))
+			&& (filter.minQuantity() == null || quantity[row] >= filter.minQuantity())
+			&& (filter.maxQuantity() == null || quantity[row] <= filter.maxQuantity())
+			&& (filter.minPrice() == null || priceInCents[row] >= filter.minPrice())
+			&& (filter.maxPrice() == null || priceInCents[row] <= filter.maxPrice());
+	}
+
+	private ItemResponse toResponse(int row) {
+		return new ItemResponse(
+			ids[row],
+			skus[row],
+			names[row],
+			descriptions[row],
+			quantity[row],
+			priceInCents[row],
+			createdAt[row],
+			updatedAt[row],
+			versions[row]
+		);
+	}
+
+	private static int[] sort(int size, Comparator<Integer> comparator) {
+		return IntStream.range(0, size).boxed().sorted(comparator).mapToInt(Integer::intValue).toArray();
+	}
+
+	private long estimateBytes() {
+		long bytes = 0;
+		for (int i = 0; i < ids.length; i++) {
+			bytes += UUID_SIZE + 2 * INSTANT_SIZE
+				+ stringBytes(skus[i]) + stringBytes(names[i]) + stringBytes(lowerNames[i]) + stringBytes(descriptions[i]);
+		}
+		// Reference columns, the int and long columns and the sort orders
+		bytes += (long) ids.length * (7 * REFERENCE_SIZE + 2 * Integer.BYTES + Long.BYTES + sortedBy.size() * Integer.BYTES);
+		return bytes;
+	}
+
+	private static long stringBytes(String value) {
+		return value == null ? 0 : STRING_OVERHEAD + value.length();
+	}
+}
@@ -0,0 +1,40 @@
+package dev.riddle.microstore.inventory.inventory.event;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Row of the inventory outbox. Rows are only ever inserted through {@link ItemEventRepository}.
+ */
+@Entity
+@Table(name = "inventory_outbox")
+@Getter
+@Setter
+public class ItemEvent {
+	@Id
+	private Long id;
+
+	@Column(nullable = false, length = 12)
+	private String sku;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "event_type", nullable = false, length = 20)
+	private ItemEventType eventType;
+
+	// Item snapshot as JSON, built by the database when the event is written
+	@JdbcTypeCode(SqlTypes.JSON)
+	@Column(nullable = false)
+	private String payload;
+
+	// Id of the writing transaction, set by the database
+	@Column(nullable = false, insertable = false, updatable = false)
+	private Long txid;
+
+	@Column(name = "created_at", nullable = false)
+	private Instant createdAt;
+}
@@ -0,0 +1,38 @@
+package dev.riddle.microstore.inventory.inventory.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+/**
+ * Drops outbox rows once they are older than any consumer is expected to lag behind.
+ */
+@Component
+public class ItemEventCleanupJob {
+	private static final Logger log = LoggerFactory.getLogger(ItemEventCleanupJob.class);
+
+	private final ItemEventRepository itemEventRepository;
+	private final Duration retention;
+
+	public ItemEventCleanupJob(
+		ItemEventRepository itemEventRepository,
+		@Value("${inventory.events.retention:P7D}") Duration retention
+	) {
+		this.itemEventRepository = itemEventRepository;
+		this.retention = retention;
+	}
+
+	@Transactional
+	@Scheduled(fixedDelayString = "${inventory.events.cleanup-interval:PT1H}")
+	public void deleteOldEvents() {
+		int deleted = itemEventRepository.deleteOlderThan(retention.toSeconds());
+		if (deleted > 0) {
+			log.info("Deleted {} item events older than {}", deleted, retention);
+		}
+	}
+}
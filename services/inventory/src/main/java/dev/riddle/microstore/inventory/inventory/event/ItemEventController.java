@@ -0,0 +1,30 @@
+package dev.riddle.microstore.inventory.inventory.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/inventory/events")
+@RequiredArgsConstructor
+public class ItemEventController {
+
+	private final ItemEventStreamer itemEventStreamer;
+
+	/**
+	 * Streams item change events after the given offset, {@code Last-Event-ID} wins over {@code after}
+	 * so that reconnecting EventSource clients resume where they left off.
+	 */
+	@GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamEvents(
+		@RequestParam(name = "after", defaultValue = "0-0") String after,
+		@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId
+	) {
+		return itemEventStreamer.subscribe(ItemEventOffset.parse(lastEventId != null ? lastEventId : after));
+	}
+}
@@ -0,0 +1,43 @@
+package dev.riddle.microstore.inventory.inventory.event;
+
+import dev.riddle.microstore.inventory.shared.error.BadRequestException;
+
+/**
+ * Position in the outbox, the events are read in the order of their writing transaction first.
+ * Sent as SSE id in the form {@code <txid>-<id>}.
+ *
+ * @param txid the id of the transaction that wrote the last event
+ * @param id   the outbox id of the last event
+ */
+public record ItemEventOffset(long txid, long id) {
+
+	public static final ItemEventOffset START = new ItemEventOffset(0, 0);
+
+	public static ItemEventOffset after(ItemEvent event) {
+		return new ItemEventOffset(event.getTxid(), event.getId());
+	}
+
+	String encode() {
+		return txid + "-" + id;
+	}
+
+	/**
+	 * Also takes a plain outbox id as handed out before events were ordered by transaction. Those
+	 * cannot be placed in the new order, so the stream starts over; events are full snapshots and
+	 * safe to receive twice.
+	 */
+	static ItemEventOffset parse(String value) {
+		try {
+			int separator = value.indexOf('-');
+			if (separator < 0) {
+				Long.parseLong(value);
+				return START;
+			}
+			return new ItemEventOffset(
+				Long.parseLong(value.substring(0, separator)),
+				Long.parseLong(value.substring(separator + 1)));
+		} catch (NumberFormatException ex) {
+			throw new BadRequestException("Invalid event offset");
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package dev.riddle.microstore.inventory.inventory.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes item change events to the outbox. Must run inside the transaction that made the change,
+ * so an event exists if and only if the change was committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemEventPublisher {
+	private final ItemEventRepository itemEventRepository;
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void publish(String sku, ItemEventType eventType) {
+		if (eventType == ItemEventType.DELETED) {
+			itemEventRepository.insertDeleted(sku);
+		} else {
+			itemEventRepository.insertFromItem(sku, eventType.name());
+		}
+	}
+}
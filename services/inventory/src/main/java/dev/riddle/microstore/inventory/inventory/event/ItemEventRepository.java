@@ -0,0 +1,71 @@
+package dev.riddle.microstore.inventory.inventory.event;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemEventRepository extends JpaRepository<ItemEvent, Long> {
+
+	// The payload is read from the row as it is in this transaction, so native stock updates
+	// are covered without loading the entity. Hot SKUs add the stock of their stripes
+	@Modifying
+	@Query(value = """
+		INSERT INTO inventory_outbox (sku, event_type, payload)
+		SELECT item.sku, :eventType, jsonb_build_object(
+			'sku', item.sku,
+			'name', item.name,
+			'description', item.description,
+			'quantity', item.quantity + coalesce(stripes.quantity, 0),
+			'priceInCents', item.price_in_cents,
+			'updatedAt', greatest(item.updated_at, stripes.updated_at)
+		)
+		FROM inventory_item item
+		LEFT JOIN LATERAL (
+			SELECT sum(quantity) AS quantity, max(updated_at) AS updated_at
+			FROM inventory_stock_stripe
+			WHERE sku = item.sku
+		) stripes ON true
+		WHERE item.sku = :sku
+		""", nativeQuery = true)
+	int insertFromItem(@Param("sku") String sku, @Param("eventType") String eventType);
+
+	@Modifying
+	@Query(value = """
+		INSERT INTO inventory_outbox (sku, event_type, payload)
+		VALUES (:sku, 'DELETED', jsonb_build_object('sku', CAST(:sku AS VARCHAR)))
+		""", nativeQuery = true)
+	int insertDeleted(@Param("sku") String sku);
+
+	// Ids are handed out before commit, so a later id can become visible before an earlier one.
+	// Events are read in (txid, id) order and only from transactions older than any still running,
+	// so everything before the returned rows has committed and none of it is passed over.
+	@Query(value = """
+		SELECT * FROM inventory_outbox
+		WHERE (txid, id) > (:afterTxid, :afterId)
+			AND txid < CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT) AS BIGINT)
+		ORDER BY txid, id
+		LIMIT :limit
+		""", nativeQuery = true)
+	List<ItemEvent> findVisibleAfter(
+		@Param("afterTxid") long afterTxid,
+		@Param("afterId") long afterId,
+		@Param("limit") int limit
+	);
+
+	// The last event findVisibleAfter would return, with the same visibility rule
+	@Query(value = """
+		SELECT * FROM inventory_outbox
+		WHERE txid < CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT) AS BIGINT)
+		ORDER BY txid DESC, id DESC
+		LIMIT 1
+		""", nativeQuery = true)
+	Optional<ItemEvent> findLatestVisible();
+
+	@Modifying
+	@Query(value = "DELETE FROM inventory_outbox WHERE created_at < localtimestamp - make_interval(secs => :ageSeconds)", nativeQuery = true)
+	int deleteOlderThan(@Param("ageSeconds") double ageSeconds);
+}
@@ -0,0 +1,101 @@
+package dev.riddle.microstore.inventory.inventory.event;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tails the outbox for each subscriber on its own virtual thread and pushes the events as SSE.
+ * <p>
+ * Every event carries its {@link ItemEventOffset} as SSE id, so a client that reconnects with
+ * {@code Last-Event-ID} continues right after the last event it saw. Streams end after
+ * {@code inventory.events.stream-timeout}, clients are expected to reconnect.
+ */
+@Component
+public class ItemEventStreamer {
+	private static final Logger log = LoggerFactory.getLogger(ItemEventStreamer.class);
+	private static final int BATCH_SIZE = 500;
+	private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
+	private final ItemEventRepository itemEventRepository;
+	private final Duration pollInterval;
+	private final Duration streamTimeout;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+	public ItemEventStreamer(
+		ItemEventRepository itemEventRepository,
+		@Value("${inventory.events.poll-interval:PT0.5S}") Duration pollInterval,
+		@Value("${inventory.events.stream-timeout:PT5M}") Duration streamTimeout
+	) {
+		this.itemEventRepository = itemEventRepository;
+		this.pollInterval = pollInterval;
+		this.streamTimeout = streamTimeout;
+	}
+
+	public SseEmitter subscribe(ItemEventOffset after) {
+		SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+		AtomicBoolean open = new AtomicBoolean(true);
+		emitter.onCompletion(() -> open.set(false));
+		emitter.onTimeout(() -> open.set(false));
+		emitter.onError(ex -> open.set(false));
+
+		executor.execute(() -> stream(emitter, open, after));
+		return emitter;
+	}
+
+	void stream(SseEmitter emitter, AtomicBoolean open, ItemEventOffset after) {
+		ItemEventOffset offset = after;
+		long lastSent = System.nanoTime();
+		try {
+			while (open.get()) {
+				List<ItemEvent> events = itemEventRepository.findVisibleAfter(
+					offset.txid(), offset.id(), BATCH_SIZE);
+
+				for (ItemEvent event : events) {
+					ItemEventOffset next = ItemEventOffset.after(event);
+					emitter.send(SseEmitter.event()
+						.id(next.encode())
+						.name(event.getEventType().name())
+						.data(event.getPayload(), MediaType.APPLICATION_JSON));
+					offset = next;
+				}
+
+				if (!events.isEmpty()) {
+					lastSent = System.nanoTime();
+				} else if (System.nanoTime() - lastSent >= HEARTBEAT_INTERVAL.toNanos()) {
+					// Keeps proxies from closing an idle stream and notices clients that went away
+					emitter.send(SseEmitter.event().comment("keepalive"));
+					lastSent = System.nanoTime();
+				}
+
+				if (events.size() < BATCH_SIZE) {
+					Thread.sleep(pollInterval);
+				}
+			}
+		} catch (IOException | IllegalStateException ex) {
+			log.debug("Item event subscriber went away at offset {}", offset);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			emitter.complete();
+		} catch (RuntimeException ex) {
+			log.warn("Item event stream failed at offset {}", offset, ex);
+			emitter.completeWithError(ex);
+		}
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdownNow();
+	}
+}
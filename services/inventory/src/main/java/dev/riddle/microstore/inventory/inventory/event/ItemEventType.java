@@ -0,0 +1,8 @@
+package dev.riddle.microstore.inventory.inventory.event;
+
+public enum ItemEventType {
+	CREATED,
+	UPDATED,
+	DELETED,
+	QUANTITY_CHANGED
+}
@@ -0,0 +1,32 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+import org.springframework.http.MediaType;
+
+import java.util.Optional;
+
+public enum ImportFormat {
+	NDJSON(MediaType.APPLICATION_NDJSON),
+	CSV(new MediaType("text", "csv"));
+
+	private final MediaType mediaType;
+
+	ImportFormat(MediaType mediaType) {
+		this.mediaType = mediaType;
+	}
+
+	public MediaType mediaType() {
+		return mediaType;
+	}
+
+	public static Optional<ImportFormat> fromContentType(String contentType) {
+		if (contentType == null)
+			return Optional.empty();
+
+		MediaType requested = MediaType.parseMediaType(contentType);
+		for (ImportFormat format : values()) {
+			if (format.mediaType.isCompatibleWith(requested))
+				return Optional.of(format);
+		}
+		return Optional.empty();
+	}
+}
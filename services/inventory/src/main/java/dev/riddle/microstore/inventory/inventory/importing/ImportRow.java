@@ -0,0 +1,21 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+import dev.riddle.microstore.inventory.inventory.item.dto.CreateItemRequest;
+
+/**
+ * One line of an import, either a valid item or the reason it was rejected.
+ */
+record ImportRow(long line, CreateItemRequest item, String error) {
+
+	static ImportRow valid(long line, CreateItemRequest item) {
+		return new ImportRow(line, item, null);
+	}
+
+	static ImportRow invalid(long line, String error) {
+		return new ImportRow(line, null, error);
+	}
+
+	boolean isValid() {
+		return error == null;
+	}
+}
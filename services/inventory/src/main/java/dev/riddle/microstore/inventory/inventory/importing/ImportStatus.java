@@ -0,0 +1,8 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+public enum ImportStatus {
+	PENDING,
+	RUNNING,
+	COMPLETED,
+	FAILED
+}
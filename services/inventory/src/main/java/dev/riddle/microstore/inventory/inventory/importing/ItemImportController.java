@@ -0,0 +1,43 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+import dev.riddle.microstore.inventory.inventory.importing.dto.ImportJobResponse;
+import dev.riddle.microstore.inventory.shared.error.BadRequestException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Bulk upsert in two steps: create a job, then PUT the rows to it. The job can be polled for
+ * progress while the upload is running.
+ */
+@RestController
+@RequestMapping("/api/inventory/imports")
+@RequiredArgsConstructor
+public class ItemImportController {
+
+	private final ItemImportService itemImportService;
+
+	@PostMapping
+	@ResponseStatus(HttpStatus.CREATED)
+	public ImportJobResponse createImport() {
+		return itemImportService.createJob();
+	}
+
+	@GetMapping("/{id}")
+	public ImportJobResponse getImport(@PathVariable("id") UUID id) {
+		return itemImportService.getJob(id);
+	}
+
+	// The body is read straight from the request, it is never buffered as a whole
+	@PutMapping(value = "/{id}/rows", consumes = {"application/x-ndjson", "text/csv"})
+	public ImportJobResponse uploadRows(@PathVariable("id") UUID id, HttpServletRequest request) throws IOException {
+		ImportFormat format = ImportFormat.fromContentType(request.getContentType())
+			.orElseThrow(() -> new BadRequestException("Unsupported content type " + request.getContentType()));
+
+		return itemImportService.importItems(id, format, request.getInputStream());
+	}
+}
@@ -0,0 +1,34 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "inventory_import_error")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ItemImportError {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "job_id", nullable = false)
+	private UUID jobId;
+
+	@Column(nullable = false)
+	private long line;
+
+	@Column(nullable = false, length = 1000)
+	private String message;
+
+	public ItemImportError(UUID jobId, long line, String message) {
+		this.jobId = jobId;
+		this.line = line;
+		this.message = message;
+	}
+}
@@ -0,0 +1,11 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ItemImportErrorRepository extends JpaRepository<ItemImportError, Long> {
+	List<ItemImportError> findByJobIdOrderByLine(UUID jobId, Limit limit);
+}
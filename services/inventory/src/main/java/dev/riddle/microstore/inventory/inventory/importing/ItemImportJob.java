@@ -0,0 +1,51 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "inventory_import_job")
+@Getter
+@Setter
+public class ItemImportJob {
+	@Id
+	@GeneratedValue(strategy = GenerationType.UUID)
+	private UUID id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private ImportStatus status = ImportStatus.PENDING;
+
+	@Enumerated(EnumType.STRING)
+	@Column(length = 10)
+	private ImportFormat format;
+
+	@Column(name = "rows_read", nullable = false)
+	private long rowsRead;
+
+	@Column(name = "rows_imported", nullable = false)
+	private long rowsImported;
+
+	@Column(name = "rows_failed", nullable = false)
+	private long rowsFailed;
+
+	@Column(name = "failure_message", length = 1000)
+	private String failureMessage;
+
+	@CreationTimestamp
+	@Column(name = "created_at")
+	private Instant createdAt;
+
+	@UpdateTimestamp
+	@Column(name = "updated_at")
+	private Instant updatedAt;
+
+	@Column(name = "finished_at")
+	private Instant finishedAt;
+}
@@ -0,0 +1,8 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface ItemImportJobRepository extends JpaRepository<ItemImportJob, UUID> {
+}
@@ -0,0 +1,14 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+import dev.riddle.microstore.inventory.inventory.importing.dto.ImportErrorResponse;
+import dev.riddle.microstore.inventory.inventory.importing.dto.ImportJobResponse;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface ItemImportMapper {
+	ImportJobResponse toResponse(ItemImportJob job, List<ItemImportError> errors);
+
+	ImportErrorResponse toErrorResponse(ItemImportError error);
+}
@@ -0,0 +1,180 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.riddle.microstore.inventory.inventory.item.dto.CreateItemRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads an import body a chunk at a time, so only one chunk is ever held in memory.
+ * <p>
+ * NDJSON lines are {@link CreateItemRequest} objects. CSV needs a header naming the columns
+ * (sku, name, description, quantity, priceInCents), fields may be quoted with {@code "} and
+ * quotes inside are doubled. Quoted fields cannot span lines.
+ */
+class ItemImportReader {
+	static final int MAX_TEXT_LENGTH = 255;
+
+	private final BufferedReader reader;
+	private final ImportFormat format;
+	private final ObjectMapper objectMapper;
+	private final Validator validator;
+
+	private Map<String, Integer> csvColumns;
+	private long lineNumber;
+
+	ItemImportReader(BufferedReader reader, ImportFormat format, ObjectMapper objectMapper, Validator validator) {
+		this.reader = reader;
+		this.format = format;
+		this.objectMapper = objectMapper;
+		this.validator = validator;
+	}
+
+	/**
+	 * Up to {@code max} rows, empty once the body is exhausted.
+	 */
+	List<ImportRow> next(int max) throws IOException {
+		List<ImportRow> rows = new ArrayList<>(max);
+		String line;
+		while (rows.size() < max && (line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.isBlank())
+				continue;
+
+			if (format == ImportFormat.CSV && csvColumns == null) {
+				csvColumns = readHeader(line);
+				continue;
+			}
+
+			rows.add(parse(line));
+		}
+		return rows;
+	}
+
+	private ImportRow parse(String line) {
+		CreateItemRequest item;
+		try {
+			item = format == ImportFormat.NDJSON
+				? objectMapper.readValue(line, CreateItemRequest.class)
+				: fromCsv(splitCsv(line));
+		} catch (JsonProcessingException ex) {
+			return ImportRow.invalid(lineNumber, "Malformed JSON: " + ex.getOriginalMessage());
+		} catch (IllegalArgumentException ex) {
+			return ImportRow.invalid(lineNumber, ex.getMessage());
+		}
+
+		String error = validate(item);
+		return error == null ? ImportRow.valid(lineNumber, item) : ImportRow.invalid(lineNumber, error);
+	}
+
+	private String validate(CreateItemRequest item) {
+		Set<ConstraintViolation<CreateItemRequest>> violations = validator.validate(item);
+		if (!violations.isEmpty()) {
+			return violations.stream()
+				.map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+				.sorted()
+				.collect(Collectors.joining(", "));
+		}
+
+		// The columns are only 255 characters wide, a longer value would fail the whole chunk
+		if (item.name().length() > MAX_TEXT_LENGTH)
+			return "name: size must be at most " + MAX_TEXT_LENGTH;
+		if (item.description() != null && item.description().length() > MAX_TEXT_LENGTH)
+			return "description: size must be at most " + MAX_TEXT_LENGTH;
+
+		return null;
+	}
+
+	private Map<String, Integer> readHeader(String line) {
+		Map<String, Integer> columns = new HashMap<>();
+		List<String> names = splitCsv(line);
+		for (int i = 0; i < names.size(); i++) {
+			columns.put(key(names.get(i).trim().replace("_", "")), i);
+		}
+
+		for (String required : List.of("sku", "name", "quantity", "priceInCents")) {
+			if (!columns.containsKey(key(required)))
+				throw new IllegalArgumentException("CSV header is missing the " + required + " column");
+		}
+		return columns;
+	}
+
+	private CreateItemRequest fromCsv(List<String> fields) {
+		return new CreateItemRequest(
+			field(fields, "sku"),
+			field(fields, "name"),
+			field(fields, "description"),
+			number(fields, "quantity"),
+			number(fields, "priceInCents")
+		);
+	}
+
+	private String field(List<String> fields, String column) {
+		Integer index = csvColumns.get(key(column));
+		if (index == null || index >= fields.size())
+			return null;
+
+		String value = fields.get(index);
+		return value.isEmpty() ? null : value;
+	}
+
+	private int number(List<String> fields, String column) {
+		String value = field(fields, column);
+		if (value == null)
+			throw new IllegalArgumentException(column + ": must not be empty");
+
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException(column + ": not a whole number: " + value);
+		}
+	}
+
+	private static String key(String column) {
+		return column.toLowerCase(Locale.ROOT);
+	}
+
+	static List<String> splitCsv(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+
+		if (quoted)
+			throw new IllegalArgumentException("Unterminated quoted field");
+
+		fields.add(field.toString());
+		return fields;
+	}
+}
@@ -0,0 +1,150 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.riddle.microstore.inventory.inventory.importing.dto.ImportJobResponse;
+import dev.riddle.microstore.inventory.shared.error.ConflictException;
+import dev.riddle.microstore.inventory.shared.error.NotFoundException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk upsert of items from a streamed NDJSON or CSV body. Each chunk is written and its
+ * progress recorded in its own transaction, so the job can be watched while the upload
+ * is still running and a failure keeps the chunks before it.
+ */
+@Service
+public class ItemImportService {
+	private static final Logger log = LoggerFactory.getLogger(ItemImportService.class);
+	private static final int MAX_MESSAGE_LENGTH = 1000;
+	private static final int ERRORS_IN_RESPONSE = 100;
+
+	private final ItemImportJobRepository jobRepository;
+	private final ItemImportErrorRepository errorRepository;
+	private final ItemImportWriter writer;
+	private final ItemImportMapper mapper;
+	private final ObjectMapper objectMapper;
+	private final Validator validator;
+	private final TransactionOperations transactionOperations;
+	private final int chunkSize;
+	private final int maxStoredErrors;
+
+	public ItemImportService(
+		ItemImportJobRepository jobRepository,
+		ItemImportErrorRepository errorRepository,
+		ItemImportWriter writer,
+		ItemImportMapper mapper,
+		ObjectMapper objectMapper,
+		Validator validator,
+		TransactionOperations transactionOperations,
+		@Value("${inventory.imports.chunk-size:5000}") int chunkSize,
+		@Value("${inventory.imports.max-stored-errors:1000}") int maxStoredErrors
+	) {
+		this.jobRepository = jobRepository;
+		this.errorRepository = errorRepository;
+		this.writer = writer;
+		this.mapper = mapper;
+		this.objectMapper = objectMapper;
+		this.validator = validator;
+		this.transactionOperations = transactionOperations;
+		this.chunkSize = chunkSize;
+		this.maxStoredErrors = maxStoredErrors;
+	}
+
+	@Transactional
+	public ImportJobResponse createJob() {
+		return toResponse(jobRepository.save(new ItemImportJob()));
+	}
+
+	@Transactional(readOnly = true)
+	public ImportJobResponse getJob(UUID id) {
+		return toResponse(findJob(id));
+	}
+
+	/**
+	 * Reads the body to the end. Rows that fail validation are recorded on the job and skipped,
+	 * anything else that goes wrong fails the job and stops the import.
+	 */
+	public ImportJobResponse importItems(UUID id, ImportFormat format, InputStream body) {
+		transactionOperations.executeWithoutResult(status -> {
+			ItemImportJob job = findJob(id);
+			if (job.getStatus() != ImportStatus.PENDING)
+				throw new ConflictException("Rows for import " + id + " have already been uploaded");
+
+			job.setStatus(ImportStatus.RUNNING);
+			job.setFormat(format);
+		});
+
+		ItemImportReader reader = new ItemImportReader(
+			new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), format, objectMapper, validator);
+
+		try {
+			List<ImportRow> rows;
+			while (!(rows = reader.next(chunkSize)).isEmpty()) {
+				List<ImportRow> chunk = rows;
+				transactionOperations.executeWithoutResult(status -> writeChunk(id, chunk));
+			}
+			finish(id, ImportStatus.COMPLETED, null);
+		} catch (IOException | RuntimeException ex) {
+			log.warn("Import {} failed", id, ex);
+			finish(id, ImportStatus.FAILED, ex.getMessage());
+		}
+
+		return getJob(id);
+	}
+
+	private void writeChunk(UUID id, List<ImportRow> rows) {
+		List<ImportRow> valid = rows.stream().filter(ImportRow::isValid).toList();
+		int imported = writer.upsert(valid);
+
+		ItemImportJob job = findJob(id);
+		long storedErrors = job.getRowsFailed();
+		for (ImportRow row : rows) {
+			if (!row.isValid() && storedErrors++ < maxStoredErrors)
+				errorRepository.save(new ItemImportError(id, row.line(), truncate(row.error())));
+		}
+
+		job.setRowsRead(job.getRowsRead() + rows.size());
+		job.setRowsImported(job.getRowsImported() + imported);
+		job.setRowsFailed(job.getRowsFailed() + rows.size() - valid.size());
+	}
+
+	private void finish(UUID id, ImportStatus status, String failureMessage) {
+		transactionOperations.executeWithoutResult(tx -> {
+			ItemImportJob job = findJob(id);
+			job.setStatus(status);
+			job.setFailureMessage(truncate(failureMessage));
+			job.setFinishedAt(Instant.now());
+		});
+	}
+
+	private ItemImportJob findJob(UUID id) {
+		return jobRepository.findById(id)
+			.orElseThrow(() -> new NotFoundException("ItemImportJob", id));
+	}
+
+	private ImportJobResponse toResponse(ItemImportJob job) {
+		return mapper.toResponse(job, errorRepository.findByJobIdOrderByLine(job.getId(), Limit.of(ERRORS_IN_RESPONSE)));
+	}
+
+	private static String truncate(String message) {
+		if (message == null || message.length() <= MAX_MESSAGE_LENGTH)
+			return message;
+
+		return message.substring(0, MAX_MESSAGE_LENGTH);
+	}
+}
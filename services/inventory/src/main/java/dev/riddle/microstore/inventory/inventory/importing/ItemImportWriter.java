@@ -0,0 +1,128 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+import dev.riddle.microstore.inventory.inventory.item.dto.CreateItemRequest;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Upserts a chunk of items on sku: COPY into a temporary staging table, then one
+ * INSERT ... ON CONFLICT into inventory_item that also writes the outbox events. The imported
+ * quantity is the whole stock, so hot SKUs' stripes are emptied afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+class ItemImportWriter {
+	private static final String CREATE_STAGING = """
+		CREATE TEMPORARY TABLE IF NOT EXISTS inventory_item_import
+		(
+			line           BIGINT,
+			sku            VARCHAR(12),
+			name           VARCHAR(255),
+			description    VARCHAR(255),
+			quantity       INTEGER,
+			price_in_cents INTEGER
+		) ON COMMIT DELETE ROWS
+		""";
+
+	private static final String COPY_STAGING =
+		"COPY inventory_item_import (line, sku, name, description, quantity, price_in_cents) FROM STDIN (FORMAT csv)";
+
+	// The last line wins when a chunk repeats a sku, ON CONFLICT cannot touch a row twice.
+	// xmax is 0 only for freshly inserted rows, which tells CREATED from UPDATED.
+	private static final String UPSERT = """
+		WITH upserted AS (
+			INSERT INTO inventory_item AS item (id, sku, name, description, quantity, price_in_cents, created_at, updated_at)
+			SELECT DISTINCT ON (sku) gen_random_uuid(), sku, name, description, quantity, price_in_cents, localtimestamp, localtimestamp
+			FROM inventory_item_import
+			ORDER BY sku, line DESC
+			ON CONFLICT (sku) DO UPDATE SET
+				name = excluded.name,
+				description = excluded.description,
+				quantity = excluded.quantity,
+				price_in_cents = excluded.price_in_cents,
+				version = item.version + 1,
+				updated_at = localtimestamp
+			RETURNING item.sku, item.name, item.description, item.quantity, item.price_in_cents, item.updated_at,
+				item.xmax = 0 AS inserted
+		)
+		INSERT INTO inventory_outbox (sku, event_type, payload)
+		SELECT sku, CASE WHEN inserted THEN 'CREATED' ELSE 'UPDATED' END, jsonb_build_object(
+			'sku', sku,
+			'name', name,
+			'description', description,
+			'quantity', quantity,
+			'priceInCents', price_in_cents,
+			'updatedAt', updated_at
+		)
+		FROM upserted
+		""";
+
+	// Runs after the upsert, which holds the item rows: item row first, then stripes, as everywhere
+	private static final String CLEAR_STRIPES = """
+		UPDATE inventory_stock_stripe
+		SET quantity = 0, version = version + 1, updated_at = localtimestamp
+		WHERE quantity > 0 AND sku IN (SELECT sku FROM inventory_item_import)
+		""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * @return the number of items created or updated
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public int upsert(List<ImportRow> rows) {
+		if (rows.isEmpty())
+			return 0;
+
+		return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute(CREATE_STAGING);
+				// Rows are only cleared on commit, an outer transaction may still hold the previous chunk
+				statement.execute("TRUNCATE inventory_item_import");
+			}
+
+			try {
+				connection.unwrap(PGConnection.class).getCopyAPI()
+					.copyIn(COPY_STAGING, new StringReader(toCsv(rows)));
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+
+			try (Statement statement = connection.createStatement()) {
+				int upserted = statement.executeUpdate(UPSERT);
+				statement.executeUpdate(CLEAR_STRIPES);
+				return upserted;
+			}
+		});
+	}
+
+	private static String toCsv(List<ImportRow> rows) {
+		StringBuilder csv = new StringBuilder(rows.size() * 64);
+		for (ImportRow row : rows) {
+			CreateItemRequest item = row.item();
+			csv.append(row.line()).append(',')
+				.append(quote(item.sku())).append(',')
+				.append(quote(item.name())).append(',')
+				// An unquoted empty field is NULL in COPY's csv format
+				.append(item.description() == null ? "" : quote(item.description())).append(',')
+				.append(item.quantity()).append(',')
+				.append(item.priceInCents()).append('\n');
+		}
+		return csv.toString();
+	}
+
+	private static String quote(String value) {
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
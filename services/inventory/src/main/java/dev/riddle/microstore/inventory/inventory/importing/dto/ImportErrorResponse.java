@@ -0,0 +1,6 @@
+package dev.riddle.microstore.inventory.inventory.importing.dto;
+
+public record ImportErrorResponse(
+	long line,
+	String message
+) {}
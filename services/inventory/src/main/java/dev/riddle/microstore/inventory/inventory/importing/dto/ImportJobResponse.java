@@ -0,0 +1,23 @@
+package dev.riddle.microstore.inventory.inventory.importing.dto;
+
+import dev.riddle.microstore.inventory.inventory.importing.ImportFormat;
+import dev.riddle.microstore.inventory.inventory.importing.ImportStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record ImportJobResponse(
+	UUID id,
+	ImportStatus status,
+	ImportFormat format,
+	long rowsRead,
+	long rowsImported,
+	long rowsFailed,
+	String failureMessage,
+	// The first rejected rows, by line number
+	List<ImportErrorResponse> errors,
+	Instant createdAt,
+	Instant updatedAt,
+	Instant finishedAt
+) {}
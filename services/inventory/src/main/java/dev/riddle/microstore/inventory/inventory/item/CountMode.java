@@ -0,0 +1,13 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+/**
+ * How much a listing should pay for its total count.
+ */
+public enum CountMode {
+	/** Run a count query for every page. */
+	EXACT,
+	/** No count at all, the response only knows whether there is a next page. */
+	NONE,
+	/** Reuse a recent count for the same filter, may lag behind by the cache TTL. */
+	CACHED
+}
@@ -0,0 +1,254 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+import dev.riddle.microstore.inventory.inventory.item.StockStripeRepository.StripeTotal;
+import dev.riddle.microstore.inventory.inventory.item.dto.ItemResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Stock of the SKUs listed in {@code inventory.stock.hot-skus}, split over {@code inventory.stock.stripes}
+ * rows of {@code inventory_stock_stripe}, so concurrent reservations of one SKU lock different rows
+ * instead of queueing on its item row.
+ * <p>
+ * A hot SKU's stock is its item row's quantity plus that of its stripes, and likewise its version.
+ * It was last modified when the later of its item row and stripes was.
+ * Taking stock tries the stripes one by one from a random start. Only when none holds enough on
+ * its own is the item row locked, together with the stripes no other transaction holds, and what
+ * is left on them is spread evenly over those stripes again. Only if that is still not enough does
+ * the rebalance wait for the remaining stripes. Restocks land on the item row and are spread out
+ * by the next rebalance. Every row keeps its own non-negative check, so the total never goes below
+ * zero either.
+ * <p>
+ * Lock order: a transaction that locks both takes the item row first, then stripes in stripe
+ * order. A successful decrement keeps its one stripe locked until its transaction ends, but it
+ * takes no other lock on that SKU afterwards, because reservations merge their lines per SKU and
+ * apply them in SKU order. So a rebalance waiting for a stripe waits for a transaction that
+ * never waits for it, and the common case, where the free stripes are enough, does not wait at all.
+ * <p>
+ * Stripes are created the first time a hot SKU is rebalanced. SKUs that are taken off the list,
+ * or whose stripe count no longer matches, are folded back into the item row at startup.
+ */
+@Component
+public class HotSkuStock {
+	private static final Logger log = LoggerFactory.getLogger(HotSkuStock.class);
+
+	private final InventoryItemRepository inventoryItemRepository;
+	private final StockStripeRepository stripeRepository;
+	private final Set<String> hotSkus;
+	private final int stripes;
+
+	public HotSkuStock(
+		InventoryItemRepository inventoryItemRepository,
+		StockStripeRepository stripeRepository,
+		@Value("${inventory.stock.hot-skus:}") Set<String> hotSkus,
+		@Value("${inventory.stock.stripes:8}") int stripes
+	) {
+		this.inventoryItemRepository = inventoryItemRepository;
+		this.stripeRepository = stripeRepository;
+		this.hotSkus = Set.copyOf(hotSkus);
+		this.stripes = stripes;
+	}
+
+	public boolean isHot(String sku) {
+		return hotSkus.contains(sku);
+	}
+
+	public boolean hasHotSkus() {
+		return !hotSkus.isEmpty();
+	}
+
+	/**
+	 * Takes {@code quantity} of a hot SKU's stock in the caller's transaction.
+	 *
+	 * @return false if the SKU does not have that much left or does not exist
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public boolean take(String sku, int quantity) {
+		int first = ThreadLocalRandom.current().nextInt(stripes);
+		for (int i = 0; i < stripes; i++) {
+			if (stripeRepository.decrementStock(sku, (first + i) % stripes, quantity) > 0)
+				return true;
+		}
+		return rebalanceAndTake(sku, quantity);
+	}
+
+	/**
+	 * Puts {@code quantity} back on one of a hot SKU's stripes, or on its item row if it has none.
+	 *
+	 * @return the number of rows updated, 0 if the SKU does not exist
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public int give(String sku, int quantity) {
+		int stripe = ThreadLocalRandom.current().nextInt(stripes);
+		if (stripeRepository.incrementStock(sku, stripe, quantity) > 0)
+			return 1;
+		return inventoryItemRepository.incrementStock(sku, quantity);
+	}
+
+	/**
+	 * Empties the stripes of a SKU whose item row was just given its whole stock, in the caller's
+	 * transaction.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void clearStripes(String sku) {
+		// Item row first, as everywhere both are locked. A no-op if the caller's update holds it
+		inventoryItemRepository.lockQuantity(sku);
+		stripeRepository.clearStock(sku);
+	}
+
+	/**
+	 * The items with the stock and version of their stripes added, for hot SKUs. Runs one query,
+	 * and none when there is no hot SKU among them.
+	 */
+	public List<ItemResponse> withStripes(List<ItemResponse> items) {
+		List<String> hot = items.stream().map(ItemResponse::sku).filter(this::isHot).toList();
+		if (hot.isEmpty())
+			return items;
+
+		Map<String, StripeTotal> totals = totals(hot);
+		return items.stream().map(item -> withStripes(item, totals.get(item.sku()))).toList();
+	}
+
+	public ItemResponse withStripes(ItemResponse item) {
+		return withStripes(List.of(item)).getFirst();
+	}
+
+	/**
+	 * For items that are read one at a time, such as a stream: reads the stripes of every hot SKU
+	 * in one query up front and returns what adds them to an item.
+	 */
+	public UnaryOperator<ItemResponse> stripeTotals() {
+		if (hotSkus.isEmpty())
+			return UnaryOperator.identity();
+
+		Map<String, StripeTotal> totals = totals(hotSkus);
+		return item -> withStripes(item, totals.get(item.sku()));
+	}
+
+	/**
+	 * The version a client sees in the item's ETag. A hot SKU's stripes stay locked until the caller's
+	 * transaction ends, so the version is still this one when the caller writes. The caller must
+	 * already hold the item row's lock.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public long lockVersionOf(InventoryItem item) {
+		if (!isHot(item.getSku()))
+			return item.getVersion();
+
+		return item.getVersion() + stripeRepository.findBySkuOrderByStripe(item.getSku()).stream()
+			.mapToLong(StockStripe::getVersion)
+			.sum();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional
+	public void foldRetiredStripes() {
+		for (StripeTotal total : stripeRepository.sumAll()) {
+			if (!isHot(total.getSku()) || total.getStripes() != stripes)
+				fold(total.getSku());
+		}
+	}
+
+	private boolean rebalanceAndTake(String sku, int quantity) {
+		// Item row first, then the stripes, as everywhere both are locked
+		Optional<Integer> onItem = inventoryItemRepository.lockQuantity(sku);
+		if (onItem.isEmpty())
+			return false;
+
+		// Stripes other transactions hold keep their stock, so there is nothing to wait for
+		List<StockStripe> locked = stripeRepository.findUnlockedBySku(sku);
+		if (locked.isEmpty() || onItem.get() + sum(locked) < quantity)
+			locked = lockAllStripes(sku);
+
+		long total = onItem.get() + sum(locked);
+		if (total < quantity)
+			return false;
+
+		if (onItem.get() > 0)
+			inventoryItemRepository.decrementStock(sku, onItem.get());
+
+		// Spread what is left evenly, the first stripes get the remainder
+		long left = total - quantity;
+		for (int i = 0; i < locked.size(); i++) {
+			long share = left / locked.size() + (i < left % locked.size() ? 1 : 0);
+			locked.get(i).setQuantity((int) share);
+		}
+		// Written now instead of at commit, the stock event published next sums the stripes in SQL
+		stripeRepository.flush();
+		log.debug("Rebalanced hot SKU {}, {} left over {} stripes", sku, left, locked.size());
+		return true;
+	}
+
+	// Waits for stripes other transactions hold, see the lock order above
+	private List<StockStripe> lockAllStripes(String sku) {
+		List<StockStripe> locked = stripeRepository.findBySkuOrderByStripe(sku);
+		if (locked.isEmpty()) {
+			stripeRepository.createStripes(sku, stripes);
+			locked = stripeRepository.findBySkuOrderByStripe(sku);
+			log.info("Split the stock of hot SKU {} over {} stripes", sku, stripes);
+		}
+		return locked;
+	}
+
+	private static long sum(List<StockStripe> stripes) {
+		return stripes.stream().mapToLong(StockStripe::getQuantity).sum();
+	}
+
+	private void fold(String sku) {
+		inventoryItemRepository.lockQuantity(sku);
+		List<StockStripe> locked = stripeRepository.findBySkuOrderByStripe(sku);
+		if (locked.isEmpty())
+			return;
+
+		long quantity = locked.stream().mapToLong(StockStripe::getQuantity).sum();
+		long versions = locked.stream().mapToLong(StockStripe::getVersion).sum();
+		inventoryItemRepository.absorbStripes(sku, quantity, versions);
+		stripeRepository.deleteAll(locked);
+		log.info("Folded {} stripes of SKU {} with {} in stock back into the item", locked.size(), sku, quantity);
+	}
+
+	private Map<String, StripeTotal> totals(Collection<String> skus) {
+		return stripeRepository.sumBySkuIn(skus).stream()
+			.collect(Collectors.toMap(StripeTotal::getSku, Function.identity()));
+	}
+
+	private static ItemResponse withStripes(ItemResponse item, StripeTotal total) {
+		if (total == null)
+			return item;
+
+		return new ItemResponse(
+			item.id(),
+			item.sku(),
+			item.name(),
+			item.description(),
+			(int) (item.quantity() + total.getQuantity()),
+			item.priceInCents(),
+			item.createdAt(),
+			later(item.updatedAt(), total.getUpdatedAt()),
+			item.version() + total.getVersion()
+		);
+	}
+
+	private static Instant later(Instant a, Instant b) {
+		if (a == null || b == null)
+			return a == null ? b : a;
+		return a.isAfter(b) ? a : b;
+	}
+}
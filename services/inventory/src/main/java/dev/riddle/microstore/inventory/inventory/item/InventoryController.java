@@ -2,17 +2,29 @@ package dev.riddle.microstore.inventory.inventory.item;
 
 import dev.riddle.microstore.inventory.inventory.item.dto.CreateItemRequest;
 import dev.riddle.microstore.inventory.inventory.item.dto.ItemResponse;
+import dev.riddle.microstore.inventory.inventory.item.dto.QuantityAdjustmentRequest;
+import dev.riddle.microstore.inventory.inventory.item.dto.StockLevelResponse;
 import dev.riddle.microstore.inventory.inventory.item.dto.UpdateItemRequest;
+import dev.riddle.microstore.inventory.shared.error.PreconditionFailedException;
+import dev.riddle.microstore.inventory.shared.paging.CursorPageResponse;
 import jakarta.servlet.ServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/inventory")
@@ -21,17 +33,95 @@ public class InventoryController {
 
 	private final InventoryService inventoryService;
 
+	private final ItemCacheControl cacheControl;
+
+	/**
+	 * {@code count=NONE} answers with a slice (has-next only), {@code count=CACHED} with a page whose
+	 * total may be a few seconds old. Both skip the count query that {@code EXACT} runs on every call.
+	 */
 	@GetMapping
-	public Page<ItemResponse> getItems(
+	public ResponseEntity<Slice<ItemResponse>> getItems(
 		ItemSpecificationFilter filter,
-		@PageableDefault(size = 20, sort = "name", direction = Sort.Direction.ASC) Pageable pageable
+		@PageableDefault(size = 20, sort = "name", direction = Sort.Direction.ASC) Pageable pageable,
+		@RequestParam(name = "count", defaultValue = "EXACT") CountMode countMode
 	) {
-		return inventoryService.getItemsByQuery(filter, pageable);
+		return ResponseEntity.ok()
+			.header(HttpHeaders.CACHE_CONTROL, cacheControl.listing())
+			.body(inventoryService.getItemsByQuery(filter, pageable, countMode));
+	}
+
+	@GetMapping("/scroll")
+	public ResponseEntity<CursorPageResponse<ItemResponse>> scrollItems(
+		ItemSpecificationFilter filter,
+		@RequestParam(name = "order", defaultValue = "NAME") ItemScrollOrder order,
+		@RequestParam(name = "cursor", required = false) String cursor,
+		@RequestParam(name = "size", defaultValue = "20") int size,
+		@RequestParam(name = "includeTotal", defaultValue = "false") boolean includeTotal
+	) {
+		return ResponseEntity.ok()
+			.header(HttpHeaders.CACHE_CONTROL, cacheControl.listing())
+			.body(inventoryService.scrollItems(filter, order, cursor, size, includeTotal));
+	}
+
+	/**
+	 * The whole (filtered) catalog as NDJSON, streamed straight from a database cursor.
+	 * Gzipped when the client sends {@code Accept-Encoding: gzip}.
+	 */
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportItems(
+		ItemSpecificationFilter filter,
+		@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+	) {
+		boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+		StreamingResponseBody body = out -> {
+			if (!gzip) {
+				inventoryService.exportItems(filter, out);
+				return;
+			}
+			try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+				inventoryService.exportItems(filter, compressed);
+			}
+		};
+
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+			.contentType(MediaType.APPLICATION_NDJSON)
+			.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip)
+			response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+		return response.body(body);
+	}
+
+	@GetMapping("/batch")
+	public ResponseEntity<List<ItemResponse>> getItemsBySkus(@RequestParam("skus") List<String> skus) {
+		return ResponseEntity.ok()
+			.header(HttpHeaders.CACHE_CONTROL, cacheControl.batch())
+			.body(inventoryService.getItemsBySkus(skus));
 	}
 
+	/**
+	 * The item's version is its ETag and {@code updatedAt} its {@code Last-Modified}. A client that
+	 * still holds the current copy gets a bodiless 304 for {@code If-None-Match} or {@code If-Modified-Since}.
+	 */
 	@GetMapping("/{sku}")
-	public ItemResponse getItemById(@PathVariable("sku") String sku) {
-		return inventoryService.getItemBySku(sku);
+	public ResponseEntity<ItemResponse> getItemById(@PathVariable("sku") String sku, WebRequest webRequest) {
+		ItemResponse item = inventoryService.getItemBySku(sku);
+		String eTag = eTag(item.version());
+		long lastModified = item.updatedAt() == null ? -1 : item.updatedAt().toEpochMilli();
+
+		if (webRequest.checkNotModified(eTag, lastModified)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.eTag(eTag)
+				.header(HttpHeaders.CACHE_CONTROL, cacheControl.item())
+				.build();
+		}
+
+		return ResponseEntity.ok()
+			.eTag(eTag)
+			.lastModified(lastModified)
+			.header(HttpHeaders.CACHE_CONTROL, cacheControl.item())
+			.body(item);
 	}
 
 	@PostMapping
@@ -40,12 +130,27 @@ public class InventoryController {
 		return inventoryService.createItem(request);
 	}
 
+	/**
+	 * With {@code If-Match} set to the item's ETag the update only goes through if nobody else
+	 * changed the item in the meantime, otherwise 412. Without it the last writer wins.
+	 */
 	@PatchMapping("{sku}")
-	public ItemResponse updateItem(
+	public ResponseEntity<ItemResponse> updateItem(
+		@PathVariable("sku") String sku,
+		@RequestBody @Valid UpdateItemRequest request,
+		@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch
+	) {
+		ItemResponse item = inventoryService.updateItem(sku, request, expectedVersion(ifMatch));
+		return ResponseEntity.ok().eTag(eTag(item.version())).body(item);
+	}
+
+	@PostMapping("{sku}/adjustments")
+	public ResponseEntity<StockLevelResponse> adjustQuantity(
 		@PathVariable("sku") String sku,
-		@RequestBody @Valid UpdateItemRequest request
+		@RequestBody @Valid QuantityAdjustmentRequest request
 	) {
-		return inventoryService.updateItem(sku, request);
+		StockLevelResponse level = inventoryService.adjustQuantity(sku, request.delta());
+		return ResponseEntity.ok().eTag(eTag(level.version())).body(level);
 	}
 
 	@DeleteMapping("{sku}")
@@ -53,4 +158,24 @@ public class InventoryController {
 	public void deleteItem(@PathVariable("sku") String sku) {
 		inventoryService.deleteItem(sku);
 	}
+
+	private static String eTag(long version) {
+		return "\"" + version + "\"";
+	}
+
+	private static Long expectedVersion(String ifMatch) {
+		if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*"))
+			return null;
+
+		String tag = ifMatch.trim();
+		if (tag.startsWith("W/"))
+			tag = tag.substring(2);
+
+		try {
+			return Long.parseLong(tag.replace("\"", ""));
+		} catch (NumberFormatException ex) {
+			// Not one of our tags, so it cannot match the current version
+			throw new PreconditionFailedException("If-Match " + ifMatch + " does not match the item");
+		}
+	}
 }
@@ -4,15 +4,17 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
 import java.util.UUID;
 
+// Indexes are managed by the Flyway migrations, see db/migration
 @Entity
-@Table(name = "inventory_item", indexes = {
-	@Index(name = "idx_sku", columnList = "sku")
-})
+@Table(name = "inventory_item")
+// Only the columns a PATCH actually changed are written
+@DynamicUpdate
 @Getter
 @Setter
 public class InventoryItem {
@@ -35,6 +37,15 @@ public class InventoryItem {
 	@Column(nullable = false)
 	private int priceInCents;
 
+	// Generated by the database from name and description, only used for searching
+	@Column(name = "search_vector", columnDefinition = "tsvector", insertable = false, updatable = false)
+	private String searchVector;
+
+	// Bumped by every write, including the native stock updates in InventoryItemRepository
+	@Version
+	@Column(nullable = false)
+	private long version;
+
 	@CreationTimestamp
 	@Column(name = "created_at")
 	private Instant createdAt = Instant.now();
@@ -1,17 +1,73 @@
 package dev.riddle.microstore.inventory.inventory.item;
 
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface InventoryItemRepository extends
 	JpaRepository<InventoryItem, UUID>,
-	JpaSpecificationExecutor<InventoryItem>
+	JpaSpecificationExecutor<InventoryItem>,
+	ItemStreamRepository
 {
 	Optional<InventoryItem> findBySku(String sku);
+
+	// Loads the item with its row locked, so nothing changes it before the caller's transaction ends
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT i FROM InventoryItem i WHERE i.sku = :sku")
+	Optional<InventoryItem> lockBySku(@Param("sku") String sku);
+	List<InventoryItem> findBySkuIn(Collection<String> skus);
 	boolean existsBySku(String sku);
 	void deleteBySku(String sku);
+
+	// Single conditional statement, the row lock is held only for the duration of the UPDATE
+	// and the quantity can never drop below zero no matter how many callers race on it
+	@Modifying
+	@Query(value = """
+		UPDATE inventory_item
+		SET quantity = quantity - :quantity, version = version + 1, updated_at = localtimestamp
+		WHERE sku = :sku AND quantity >= :quantity
+		""", nativeQuery = true)
+	int decrementStock(@Param("sku") String sku, @Param("quantity") int quantity);
+
+	@Modifying
+	@Query(value = """
+		UPDATE inventory_item
+		SET quantity = quantity + :quantity, version = version + 1, updated_at = localtimestamp
+		WHERE sku = :sku
+		""", nativeQuery = true)
+	int incrementStock(@Param("sku") String sku, @Param("quantity") int quantity);
+
+	// Relative stock adjustment in one statement, the entity is never loaded. Empty when the
+	// sku does not exist or the adjustment would take the quantity below zero
+	@Query(value = """
+		UPDATE inventory_item
+		SET quantity = quantity + :delta, version = version + 1, updated_at = localtimestamp
+		WHERE sku = :sku AND quantity + :delta >= 0
+		RETURNING sku, quantity, version
+		""", nativeQuery = true)
+	Optional<StockLevel> adjustQuantity(@Param("sku") String sku, @Param("delta") int delta);
+
+	// Row lock on the item, taken before its stripes whenever both are locked
+	@Query(value = "SELECT quantity FROM inventory_item WHERE sku = :sku FOR UPDATE", nativeQuery = true)
+	Optional<Integer> lockQuantity(@Param("sku") String sku);
+
+	// Takes back the stock of stripes that are being removed. The version moves past the sum the
+	// stripes contributed, so the item's ETag never repeats
+	@Modifying
+	@Query(value = """
+		UPDATE inventory_item
+		SET quantity = quantity + :quantity, version = version + :versions + 1, updated_at = localtimestamp
+		WHERE sku = :sku
+		""", nativeQuery = true)
+	int absorbStripes(@Param("sku") String sku, @Param("quantity") long quantity, @Param("versions") long versions);
 }
@@ -1,51 +1,182 @@
 package dev.riddle.microstore.inventory.inventory.item;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.riddle.microstore.inventory.inventory.catalog.CatalogReadModel;
+import dev.riddle.microstore.inventory.inventory.event.ItemEventPublisher;
+import dev.riddle.microstore.inventory.inventory.event.ItemEventType;
 import dev.riddle.microstore.inventory.inventory.item.dto.CreateItemRequest;
 import dev.riddle.microstore.inventory.inventory.item.dto.ItemResponse;
+import dev.riddle.microstore.inventory.inventory.item.dto.StockLevelResponse;
 import dev.riddle.microstore.inventory.inventory.item.dto.UpdateItemRequest;
+import dev.riddle.microstore.inventory.shared.error.BadRequestException;
+import dev.riddle.microstore.inventory.shared.error.InsufficientStockException;
 import dev.riddle.microstore.inventory.shared.error.NotFoundException;
+import dev.riddle.microstore.inventory.shared.error.PreconditionFailedException;
+import dev.riddle.microstore.inventory.shared.paging.CursorPageResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import static dev.riddle.microstore.inventory.inventory.item.ItemSpecifications.*;
 
 @Service
 @RequiredArgsConstructor
 public class InventoryService {
+	// Upper bound on SKUs per batch lookup, keeps the IN list and the response size sane
+	public static final int MAX_BATCH_SIZE = 100;
+	public static final int MAX_PAGE_SIZE = 100;
+	public static final String RELEVANCE = "relevance";
+	private static final int EXPORT_FETCH_SIZE = 1000;
+
 	private final InventoryItemRepository inventoryItemRepository;
 	private final ItemMapper mapper;
+	private final HotSkuStock hotSkuStock;
+	private final ItemEventPublisher itemEventPublisher;
+	private final ItemCountCache itemCountCache;
+	private final ObjectProvider<CatalogReadModel> catalogReadModel;
+	private final ObjectMapper objectMapper;
 
 	@Transactional
 	public ItemResponse createItem(CreateItemRequest request) {
 		InventoryItem item = mapper.toEntity(request);
-		return mapper.toResponse(inventoryItemRepository.save(item));
+		InventoryItem saved = inventoryItemRepository.saveAndFlush(item);
+		itemEventPublisher.publish(saved.getSku(), ItemEventType.CREATED);
+		return mapper.toResponse(saved);
+	}
+
+	// Not transactional on purpose: a read-only transaction takes a connection up front, which the
+	// catalog snapshot does not need. The repository calls below run in their own transactions.
+	public Slice<ItemResponse> getItemsByQuery(
+		ItemSpecificationFilter filter,
+		@PageableDefault(size = 20, sort = "name") Pageable pageable,
+		CountMode countMode
+	) {
+		CatalogReadModel catalog = catalogReadModel.getIfAvailable();
+		if (catalog != null) {
+			// The snapshot already holds the stock of hot SKUs' stripes
+			Optional<Slice<ItemResponse>> fromSnapshot = catalog.query(filter, pageable, countMode);
+			if (fromSnapshot.isPresent())
+				return fromSnapshot.get();
+		}
+
+		Specification<InventoryItem> filtered = fromFilter(filter);
+
+		// sort=relevance is not a column, the ranking is part of the specification instead
+		boolean byRelevance = pageable.getSort().getOrderFor(RELEVANCE) != null;
+		if (byRelevance && (filter.search() == null || filter.search().isBlank()))
+			throw new BadRequestException("Sorting by relevance requires a search term");
+
+		// Hot SKUs keep part of their stock on stripes, which a sort on the quantity column would miss
+		boolean byStock = !byRelevance && hotSkuStock.hasHotSkus() && pageable.getSort().getOrderFor("quantity") != null;
+
+		Specification<InventoryItem> spec = byRelevance ? filtered.and(orderByRelevance(filter.search()))
+			: byStock ? filtered.and(orderByStock(pageable.getSort()))
+			: filtered;
+		Pageable page = byRelevance || byStock ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : pageable;
+
+		Slice<InventoryItem> items = switch (countMode) {
+			case EXACT -> inventoryItemRepository.findAll(spec, page);
+			// Fetches one extra row to know about the next page, no count query
+			case NONE -> inventoryItemRepository.findBy(spec, query -> query.slice(page));
+			case CACHED -> {
+				Slice<InventoryItem> slice = inventoryItemRepository.findBy(spec, query -> query.slice(page));
+				long total = itemCountCache.count(filter, key -> inventoryItemRepository.count(filtered));
+				yield new PageImpl<>(slice.getContent(), page, total);
+			}
+		};
+
+		return withStripes(items.map(mapper::toResponse));
 	}
 
+	/**
+	 * Keyset pagination: each page continues after the cursor of the previous one, so there is
+	 * no OFFSET to skip over and no count unless {@code includeTotal} is set.
+	 */
 	@Transactional(readOnly = true)
-	public Page<ItemResponse> getItemsByQuery(
+	public CursorPageResponse<ItemResponse> scrollItems(
 		ItemSpecificationFilter filter,
-		@PageableDefault(size = 20, sort = "name") Pageable pageable
+		ItemScrollOrder order,
+		String cursor,
+		int size,
+		boolean includeTotal
 	) {
-		Specification<InventoryItem> spec = Specification
-			.allOf(
-				nameContains(filter.name()),
-				skuEquals(filter.sku()),
-				qtyGte(filter.minQuantity()),
-				qtyLte(filter.maxPrice()),
-				priceGte(filter.minPrice()),
-				priceLte(filter.maxPrice())
-			);
-
-		return inventoryItemRepository
-			.findAll(spec, pageable)
-			.map(mapper::toResponse);
+		if (size < 1 || size > MAX_PAGE_SIZE) {
+			throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+		}
+
+		ItemCursor after = cursor == null || cursor.isBlank() ? null : ItemCursor.decode(cursor);
+		if (after != null && after.order() != order) {
+			throw new BadRequestException("Cursor was issued for order " + after.order());
+		}
+
+		Specification<InventoryItem> filterSpec = fromFilter(filter);
+		Sort sort = order == ItemScrollOrder.SKU ? Sort.by("sku") : Sort.by("name", "id");
+
+		// One extra row tells whether there is a next page
+		List<InventoryItem> items = inventoryItemRepository.findBy(
+			filterSpec.and(after(after)),
+			query -> query.sortBy(sort).limit(size + 1).all()
+		);
+
+		boolean hasNext = items.size() > size;
+		List<InventoryItem> page = hasNext ? items.subList(0, size) : items;
+		String nextCursor = hasNext ? ItemCursor.after(order, page.getLast()).encode() : null;
+		Long total = includeTotal ? inventoryItemRepository.count(filterSpec) : null;
+
+		return new CursorPageResponse<>(
+			hotSkuStock.withStripes(page.stream().map(mapper::toResponse).toList()),
+			size,
+			nextCursor,
+			total
+		);
+	}
+
+	/**
+	 * Writes every matching item to {@code out} as NDJSON, one item per line, in sku order.
+	 * Rows are read through a cursor and written as they arrive, so memory stays flat no
+	 * matter how large the catalog is. Leaves {@code out} open.
+	 */
+	@Transactional(readOnly = true)
+	public long exportItems(ItemSpecificationFilter filter, OutputStream out) throws IOException {
+		UnaryOperator<ItemResponse> withStripes = hotSkuStock.stripeTotals();
+		long exported = 0;
+		try (Stream<InventoryItem> items = inventoryItemRepository.streamAll(fromFilter(filter), EXPORT_FETCH_SIZE);
+			 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			// Lines are terminated below, not separated by Jackson's default space
+			generator.setRootValueSeparator(null);
+
+			Iterator<InventoryItem> iterator = items.iterator();
+			while (iterator.hasNext()) {
+				generator.writeObject(withStripes.apply(mapper.toResponse(iterator.next())));
+				generator.writeRaw('\n');
+				exported++;
+			}
+		}
+		return exported;
 	}
 
 	@Transactional(readOnly = true)
@@ -54,17 +185,96 @@ public class InventoryService {
 			.findBySku(sku)
 			.orElseThrow(() -> new NotFoundException("InventoryItem", sku));
 
-		return mapper.toResponse(item);
+		return hotSkuStock.withStripes(mapper.toResponse(item));
+	}
+
+	@Transactional(readOnly = true)
+	public List<ItemResponse> getItemsBySkus(Collection<String> skus) {
+		Set<String> distinctSkus = new LinkedHashSet<>(skus);
+		if (distinctSkus.size() > MAX_BATCH_SIZE) {
+			throw new BadRequestException("At most " + MAX_BATCH_SIZE + " SKUs can be requested at once");
+		}
+		if (distinctSkus.isEmpty()) {
+			return List.of();
+		}
+
+		// Unknown SKUs are left out of the result, callers decide whether that is an error
+		return hotSkuStock.withStripes(inventoryItemRepository
+			.findBySkuIn(distinctSkus)
+			.stream()
+			.map(mapper::toResponse)
+			.toList());
 	}
 
 	@Transactional
-	public ItemResponse updateItem(String sku, UpdateItemRequest request) {
+	public ItemResponse updateItem(String sku, UpdateItemRequest request, Long expectedVersion) {
+		// Locked for the rest of the transaction, so a reservation that commits meanwhile cannot
+		// move the version under the update and fail it without any precondition being sent
 		InventoryItem item = inventoryItemRepository
-			.findBySku(sku)
+			.lockBySku(sku)
 			.orElseThrow(() -> new NotFoundException("InventoryItem", sku));
 
+		if (expectedVersion != null) {
+			long currentVersion = hotSkuStock.lockVersionOf(item);
+			if (expectedVersion != currentVersion)
+				throw new PreconditionFailedException("InventoryItem " + sku + " is at version " + currentVersion);
+		}
+
 		mapper.update(item, request);
-		return mapper.toResponse(inventoryItemRepository.save(item));
+		InventoryItem saved = inventoryItemRepository.saveAndFlush(item);
+		// The quantity given is the whole stock, none of it stays on stripes
+		if (request.quantity() != null && hotSkuStock.isHot(sku))
+			hotSkuStock.clearStripes(sku);
+		itemEventPublisher.publish(sku, ItemEventType.UPDATED);
+		return hotSkuStock.withStripes(mapper.toResponse(saved));
+	}
+
+	/**
+	 * Adds {@code delta} to the stock of {@code sku} without loading the item, for stock feeds
+	 * that know the change but not the current level.
+	 */
+	@Transactional
+	public StockLevelResponse adjustQuantity(String sku, int delta) {
+		if (delta == 0)
+			throw new BadRequestException("Quantity adjustment must not be zero");
+		if (hotSkuStock.isHot(sku))
+			return adjustHotQuantity(sku, delta);
+
+		StockLevel level = inventoryItemRepository.adjustQuantity(sku, delta)
+			.orElseThrow(() -> inventoryItemRepository.existsBySku(sku)
+				? new InsufficientStockException(sku, -delta)
+				: new NotFoundException("InventoryItem", sku));
+
+		itemEventPublisher.publish(sku, ItemEventType.QUANTITY_CHANGED);
+		return new StockLevelResponse(level.getSku(), level.getQuantity(), level.getVersion());
+	}
+
+	// Restocks go to the item row, removals have to come out of the stripes
+	private StockLevelResponse adjustHotQuantity(String sku, int delta) {
+		boolean adjusted = delta > 0
+			? inventoryItemRepository.adjustQuantity(sku, delta).isPresent()
+			: hotSkuStock.take(sku, -delta);
+		if (!adjusted)
+			throw inventoryItemRepository.existsBySku(sku)
+				? new InsufficientStockException(sku, -delta)
+				: new NotFoundException("InventoryItem", sku);
+
+		itemEventPublisher.publish(sku, ItemEventType.QUANTITY_CHANGED);
+		ItemResponse item = getItemBySku(sku);
+		return new StockLevelResponse(sku, item.quantity(), item.version());
+	}
+
+	// Adds the stock of hot SKUs' stripes, the slice stays as it is when there are none
+	private Slice<ItemResponse> withStripes(Slice<ItemResponse> items) {
+		// getContent() wraps the list anew on every call, compare against one view of it
+		List<ItemResponse> original = items.getContent();
+		List<ItemResponse> content = hotSkuStock.withStripes(original);
+		if (content == original)
+			return items;
+
+		return items instanceof Page<ItemResponse> page
+			? new PageImpl<>(content, page.getPageable(), page.getTotalElements())
+			: new SliceImpl<>(content, items.getPageable(), items.hasNext());
 	}
 
 	@Transactional
@@ -74,5 +284,6 @@ public class InventoryService {
 		}
 
 		inventoryItemRepository.deleteBySku(sku);
+		itemEventPublisher.publish(sku, ItemEventType.DELETED);
 	}
 }
@@ -0,0 +1,37 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code Cache-Control} values for the item read endpoints, one per endpoint so a single item can be
+ * revalidated cheaply while listings stay uncached. Any directive string is passed through as is.
+ */
+@Component
+public class ItemCacheControl {
+	private final String item;
+	private final String batch;
+	private final String listing;
+
+	public ItemCacheControl(
+		@Value("${inventory.http.cache-control.item:private, no-cache}") String item,
+		@Value("${inventory.http.cache-control.batch:private, no-cache}") String batch,
+		@Value("${inventory.http.cache-control.listing:no-store}") String listing
+	) {
+		this.item = item;
+		this.batch = batch;
+		this.listing = listing;
+	}
+
+	public String item() {
+		return item;
+	}
+
+	public String batch() {
+		return batch;
+	}
+
+	public String listing() {
+		return listing;
+	}
+}
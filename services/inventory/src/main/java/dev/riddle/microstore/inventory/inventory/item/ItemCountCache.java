@@ -0,0 +1,37 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.ToLongFunction;
+
+/**
+ * Short-lived item counts per filter, so typing into a search box does not run a full count
+ * for every keystroke. The filter record itself is the cache key.
+ */
+@Component
+public class ItemCountCache {
+	private final Cache<ItemSpecificationFilter, Long> counts;
+
+	public ItemCountCache(
+		MeterRegistry meterRegistry,
+		@Value("${inventory.search.count-cache-ttl:PT30S}") Duration ttl,
+		@Value("${inventory.search.count-cache-size:1000}") long maximumSize
+	) {
+		this.counts = Caffeine.newBuilder()
+			.expireAfterWrite(ttl)
+			.maximumSize(maximumSize)
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, counts, "inventory-item-counts");
+	}
+
+	public long count(ItemSpecificationFilter filter, ToLongFunction<ItemSpecificationFilter> counter) {
+		return counts.get(filter, counter::applyAsLong);
+	}
+}
@@ -0,0 +1,45 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+import dev.riddle.microstore.inventory.shared.error.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last item of a page. Encoded as an opaque token so clients do not start
+ * building their own, the format may change.
+ *
+ * @param order the order the listing is scrolled in
+ * @param key   the name or SKU of the last item
+ * @param id    the id of the last item, only needed to break ties between equal names
+ */
+record ItemCursor(ItemScrollOrder order, String key, UUID id) {
+
+	static ItemCursor after(ItemScrollOrder order, InventoryItem item) {
+		return order == ItemScrollOrder.SKU
+			? new ItemCursor(order, item.getSku(), null)
+			: new ItemCursor(order, item.getName(), item.getId());
+	}
+
+	String encode() {
+		String raw = order.name() + "|" + (id == null ? "" : id) + "|" + key;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	static ItemCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			// The key goes last, it is the only part that may itself contain the separator
+			String[] parts = raw.split("\\|", 3);
+			ItemScrollOrder order = ItemScrollOrder.valueOf(parts[0]);
+			UUID id = parts[1].isEmpty() ? null : UUID.fromString(parts[1]);
+			if (order == ItemScrollOrder.NAME && id == null) {
+				throw new IllegalArgumentException("Name cursor without id");
+			}
+			return new ItemCursor(order, parts[2], id);
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+			throw new BadRequestException("Invalid cursor");
+		}
+	}
+}
@@ -10,6 +10,8 @@ public interface ItemMapper {
 	@Mapping(target = "id", ignore = true)
 	@Mapping(target = "createdAt", ignore = true)
 	@Mapping(target = "updatedAt", ignore = true)
+	@Mapping(target = "searchVector", ignore = true)
+	@Mapping(target = "version", ignore = true)
 	InventoryItem toEntity(CreateItemRequest request);
 
 	ItemResponse toResponse(InventoryItem item);
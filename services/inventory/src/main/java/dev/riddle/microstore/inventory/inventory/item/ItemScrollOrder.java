@@ -0,0 +1,6 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+public enum ItemScrollOrder {
+	NAME,
+	SKU
+}
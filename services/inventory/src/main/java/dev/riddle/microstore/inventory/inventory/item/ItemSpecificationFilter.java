@@ -6,5 +6,7 @@ public record ItemSpecificationFilter(
 	Integer minQuantity,
 	Integer maxQuantity,
 	Integer minPrice,
-	Integer maxPrice
+	Integer maxPrice,
+	// Full-text search over name and description, supports websearch syntax ("quoted", -excluded, or)
+	String search
 ) {}
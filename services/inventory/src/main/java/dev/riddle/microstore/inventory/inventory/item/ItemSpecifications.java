@@ -1,10 +1,54 @@
 package dev.riddle.microstore.inventory.inventory.item;
 
+import dev.riddle.microstore.inventory.config.SearchFunctionContributor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.UUID;
+
 public final class ItemSpecifications {
 	private ItemSpecifications() {}
 
+	public static Specification<InventoryItem> fromFilter(ItemSpecificationFilter filter) {
+		return Specification.allOf(
+			nameContains(filter.name()),
+			skuEquals(filter.sku()),
+			qtyGte(filter.minQuantity()),
+			qtyLte(filter.maxQuantity()),
+			priceGte(filter.minPrice()),
+			priceLte(filter.maxPrice()),
+			searchMatches(filter.search())
+		);
+	}
+
+	// Keyset condition for (name, id) > (:name, :id). Spelled out as name >= :name AND (...)
+	// because the criteria API has no row comparison, the leading range keeps the
+	// (name, id) index usable as a seek
+	static Specification<InventoryItem> after(ItemCursor cursor) {
+		return (root, query, builder) -> {
+			if (cursor == null)
+				return builder.conjunction();
+
+			if (cursor.order() == ItemScrollOrder.SKU)
+				return builder.greaterThan(root.get("sku"), cursor.key());
+
+			return builder.and(
+				builder.greaterThanOrEqualTo(root.get("name"), cursor.key()),
+				builder.or(
+					builder.greaterThan(root.get("name"), cursor.key()),
+					builder.greaterThan(root.<UUID>get("id"), cursor.id())
+				)
+			);
+		};
+	}
+
+	// Served by the trigram index on lower(name), see V5__item_search_indexes.sql
 	public static Specification<InventoryItem> nameContains(String name) {
 		return (root, query, builder) -> {
 			if (name == null || name.isBlank())
@@ -14,6 +58,31 @@ public final class ItemSpecifications {
 		};
 	}
 
+	public static Specification<InventoryItem> searchMatches(String search) {
+		return (root, query, builder) -> {
+			if (search == null || search.isBlank())
+				return builder.conjunction();
+
+			return builder.isTrue(builder.function(
+				SearchFunctionContributor.MATCHES, Boolean.class, root.get("searchVector"), builder.literal(search)));
+		};
+	}
+
+	// Best matches first, the id keeps equal ranks in a stable order across pages.
+	// Leaves the count query alone, it has no use for an order
+	static Specification<InventoryItem> orderByRelevance(String search) {
+		return (root, query, builder) -> {
+			if (!Long.class.equals(query.getResultType())) {
+				query.orderBy(
+					builder.desc(builder.function(
+						SearchFunctionContributor.RANK, Double.class, root.get("searchVector"), builder.literal(search))),
+					builder.asc(root.get("id"))
+				);
+			}
+			return builder.conjunction();
+		};
+	}
+
 	public static Specification<InventoryItem> skuEquals(String sku) {
 		return (root, query, builder) -> {
 			if (sku == null || sku.isBlank())
@@ -23,21 +92,48 @@ public final class ItemSpecifications {
 		};
 	}
 
+	// Stripes only ever add to the item row's quantity, so their sum is looked at only for rows
+	// that fall short on their own, and only for SKUs that have stripes
 	public static Specification<InventoryItem> qtyGte(Integer min) {
 		return (root, query, builder) -> {
 			if (min == null)
 				return builder.conjunction();
 
-			return builder.greaterThanOrEqualTo(root.get("quantity"), min);
+			return builder.or(
+				builder.greaterThanOrEqualTo(root.get("quantity"), min),
+				builder.and(hasStripes(root, query), builder.ge(stock(root, query, builder), min))
+			);
 		};
 	}
 
+	// The leading condition on the item row keeps the low stock index usable
 	public static Specification<InventoryItem> qtyLte(Integer max) {
 		return (root, query, builder) -> {
 			if (max == null)
 				return builder.conjunction();
 
-			return builder.lessThanOrEqualTo(root.get("quantity"), max);
+			return builder.and(
+				builder.lessThanOrEqualTo(root.get("quantity"), max),
+				builder.or(builder.not(hasStripes(root, query)), builder.le(stock(root, query, builder), max))
+			);
+		};
+	}
+
+	// The sort as requested, with quantity ordered by the stock including stripes.
+	// Leaves the count query alone, it has no use for an order
+	static Specification<InventoryItem> orderByStock(Sort sort) {
+		return (root, query, builder) -> {
+			if (!Long.class.equals(query.getResultType())) {
+				query.orderBy(sort.stream()
+					.map(order -> {
+						Expression<?> by = order.getProperty().equals("quantity")
+							? stock(root, query, builder)
+							: root.get(order.getProperty());
+						return order.isAscending() ? builder.asc(by) : builder.desc(by);
+					})
+					.toList());
+			}
+			return builder.conjunction();
 		};
 	}
 
@@ -58,4 +154,19 @@ public final class ItemSpecifications {
 			return builder.lessThanOrEqualTo(root.get("priceInCents"), max);
 		};
 	}
+
+	private static Predicate hasStripes(Root<InventoryItem> root, CriteriaQuery<?> query) {
+		Subquery<String> striped = query.subquery(String.class);
+		striped.select(striped.from(StockStripe.class).get("sku"));
+		return root.get("sku").in(striped);
+	}
+
+	// Item row quantity plus that of the SKU's stripes, see HotSkuStock
+	private static Expression<Long> stock(Root<InventoryItem> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+		Subquery<Long> stripes = query.subquery(Long.class);
+		Root<StockStripe> stripe = stripes.from(StockStripe.class);
+		stripes.select(builder.sumAsLong(stripe.get("quantity")))
+			.where(builder.equal(stripe.get("sku"), root.get("sku")));
+		return builder.sum(builder.toLong(root.get("quantity")), builder.coalesce(stripes, 0L));
+	}
 }
@@ -0,0 +1,13 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public interface ItemStreamRepository {
+	/**
+	 * Every matching item in sku order, read through a server-side cursor {@code fetchSize} rows
+	 * at a time. Has to be consumed inside a transaction and closed afterwards.
+	 */
+	Stream<InventoryItem> streamAll(Specification<InventoryItem> spec, int fetchSize);
+}
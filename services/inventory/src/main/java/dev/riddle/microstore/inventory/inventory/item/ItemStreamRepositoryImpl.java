@@ -0,0 +1,39 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+// The fluent findBy(...).stream() has no way to set a fetch size, without one the Postgres
+// driver reads the whole result into memory before the first row is returned
+class ItemStreamRepositoryImpl implements ItemStreamRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public Stream<InventoryItem> streamAll(Specification<InventoryItem> spec, int fetchSize) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<InventoryItem> query = builder.createQuery(InventoryItem.class);
+		Root<InventoryItem> root = query.from(InventoryItem.class);
+
+		Predicate predicate = spec.toPredicate(root, query, builder);
+		if (predicate != null)
+			query.where(predicate);
+		query.orderBy(builder.asc(root.get("sku")));
+
+		return entityManager.createQuery(query)
+			.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+			.setHint(HibernateHints.HINT_READ_ONLY, true)
+			.getResultStream()
+			// Keeps the persistence context from growing with every row read
+			.peek(entityManager::detach);
+	}
+}
@@ -0,0 +1,9 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+public interface StockLevel {
+	String getSku();
+
+	int getQuantity();
+
+	long getVersion();
+}
@@ -0,0 +1,48 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+// One share of a hot SKU's stock, see HotSkuStock
+@Entity
+@Table(name = "inventory_stock_stripe")
+@IdClass(StockStripe.Key.class)
+@Getter
+@Setter
+public class StockStripe {
+	@Id
+	@Column(nullable = false, length = 12)
+	private String sku;
+
+	@Id
+	@Column(nullable = false)
+	private int stripe;
+
+	@Column(nullable = false)
+	private int quantity;
+
+	// Bumped by every write, including the native updates in StockStripeRepository
+	@Version
+	@Column(nullable = false)
+	private long version;
+
+	@UpdateTimestamp
+	@Column(name = "updated_at", nullable = false)
+	private Instant updatedAt = Instant.now();
+
+	@EqualsAndHashCode
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Key implements Serializable {
+		private String sku;
+		private int stripe;
+	}
+}
@@ -0,0 +1,93 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockStripeRepository extends JpaRepository<StockStripe, StockStripe.Key> {
+	// In stripe order, so two rebalances of the same SKU cannot deadlock
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	List<StockStripe> findBySkuOrderByStripe(String sku);
+
+	// Locks the stripes no other transaction holds right now and leaves the rest out, never waits
+	@Query(value = """
+		SELECT * FROM inventory_stock_stripe
+		WHERE sku = :sku
+		ORDER BY stripe
+		FOR UPDATE SKIP LOCKED
+		""", nativeQuery = true)
+	List<StockStripe> findUnlockedBySku(@Param("sku") String sku);
+
+	// Same conditional decrement as InventoryItemRepository.decrementStock, on a single stripe
+	@Modifying
+	@Query(value = """
+		UPDATE inventory_stock_stripe
+		SET quantity = quantity - :quantity, version = version + 1, updated_at = localtimestamp
+		WHERE sku = :sku AND stripe = :stripe AND quantity >= :quantity
+		""", nativeQuery = true)
+	int decrementStock(@Param("sku") String sku, @Param("stripe") int stripe, @Param("quantity") int quantity);
+
+	@Modifying
+	@Query(value = """
+		UPDATE inventory_stock_stripe
+		SET quantity = quantity + :quantity, version = version + 1, updated_at = localtimestamp
+		WHERE sku = :sku AND stripe = :stripe
+		""", nativeQuery = true)
+	int incrementStock(@Param("sku") String sku, @Param("stripe") int stripe, @Param("quantity") int quantity);
+
+	// For writes that set the item's quantity outright, the stripes stay but hold nothing
+	@Modifying
+	@Query(value = """
+		UPDATE inventory_stock_stripe
+		SET quantity = 0, version = version + 1, updated_at = localtimestamp
+		WHERE sku = :sku AND quantity > 0
+		""", nativeQuery = true)
+	int clearStock(@Param("sku") String sku);
+
+	// Empty stripes 0 to stripes - 1, nothing when the sku does not exist
+	@Modifying
+	@Query(value = """
+		INSERT INTO inventory_stock_stripe (sku, stripe, quantity, version)
+		SELECT sku, stripe, 0, 0
+		FROM inventory_item, generate_series(0, :stripes - 1) AS stripe
+		WHERE sku = :sku
+		ON CONFLICT DO NOTHING
+		""", nativeQuery = true)
+	int createStripes(@Param("sku") String sku, @Param("stripes") int stripes);
+
+	@Query("""
+		SELECT s.sku AS sku, SUM(s.quantity) AS quantity, SUM(s.version) AS version, COUNT(s) AS stripes,
+			MAX(s.updatedAt) AS updatedAt
+		FROM StockStripe s
+		WHERE s.sku IN :skus
+		GROUP BY s.sku
+		""")
+	List<StripeTotal> sumBySkuIn(@Param("skus") Collection<String> skus);
+
+	@Query("""
+		SELECT s.sku AS sku, SUM(s.quantity) AS quantity, SUM(s.version) AS version, COUNT(s) AS stripes,
+			MAX(s.updatedAt) AS updatedAt
+		FROM StockStripe s
+		GROUP BY s.sku
+		""")
+	List<StripeTotal> sumAll();
+
+	interface StripeTotal {
+		String getSku();
+
+		long getQuantity();
+
+		long getVersion();
+
+		long getStripes();
+
+		Instant getUpdatedAt();
+	}
+}
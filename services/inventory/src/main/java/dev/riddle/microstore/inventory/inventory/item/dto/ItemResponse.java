@@ -11,5 +11,6 @@ public record ItemResponse(
 	int quantity,
 	int priceInCents,
 	Instant createdAt,
-	Instant updatedAt
+	Instant updatedAt,
+	long version
 ) {}
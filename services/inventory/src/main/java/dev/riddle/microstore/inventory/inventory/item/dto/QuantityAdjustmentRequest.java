@@ -0,0 +1,9 @@
+package dev.riddle.microstore.inventory.inventory.item.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+// Relative change, positive to add stock and negative to remove it
+public record QuantityAdjustmentRequest(
+	@NotNull
+	Integer delta
+) {}
@@ -0,0 +1,7 @@
+package dev.riddle.microstore.inventory.inventory.item.dto;
+
+public record StockLevelResponse(
+	String sku,
+	int quantity,
+	long version
+) {}
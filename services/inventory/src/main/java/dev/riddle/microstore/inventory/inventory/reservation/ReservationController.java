@@ -0,0 +1,34 @@
+package dev.riddle.microstore.inventory.inventory.reservation;
+
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReservationResponse;
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReserveStockRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/inventory/reservations")
+@RequiredArgsConstructor
+public class ReservationController {
+
+	private final ReservationService reservationService;
+
+	@PostMapping
+	@ResponseStatus(HttpStatus.CREATED)
+	public ReservationResponse reserve(@RequestBody @Valid ReserveStockRequest request) {
+		return reservationService.reserve(request);
+	}
+
+	@PostMapping("/{id}/commit")
+	public ReservationResponse commit(@PathVariable("id") UUID id) {
+		return reservationService.commit(id);
+	}
+
+	@PostMapping("/{id}/release")
+	public ReservationResponse release(@PathVariable("id") UUID id) {
+		return reservationService.release(id);
+	}
+}
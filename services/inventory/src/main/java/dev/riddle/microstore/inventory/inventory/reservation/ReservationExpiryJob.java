@@ -0,0 +1,39 @@
+package dev.riddle.microstore.inventory.inventory.reservation;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Returns the stock of reservations that were neither committed nor released in time,
+ * one transaction per reservation so a single failure does not hold back the rest.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationExpiryJob {
+	private static final Logger log = LoggerFactory.getLogger(ReservationExpiryJob.class);
+	private static final int BATCH_SIZE = 100;
+
+	private final ReservationService reservationService;
+
+	@Scheduled(fixedDelayString = "${inventory.reservations.sweep-interval:PT30S}")
+	public void expireReservations() {
+		List<UUID> expired = reservationService.findExpired(BATCH_SIZE);
+		for (UUID id : expired) {
+			try {
+				reservationService.expire(id);
+			} catch (RuntimeException ex) {
+				log.warn("Failed to expire reservation {}", id, ex);
+			}
+		}
+
+		if (!expired.isEmpty()) {
+			log.info("Expired {} stock reservations", expired.size());
+		}
+	}
+}
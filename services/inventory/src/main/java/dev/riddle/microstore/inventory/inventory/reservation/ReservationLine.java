@@ -0,0 +1,21 @@
+package dev.riddle.microstore.inventory.inventory.reservation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationLine {
+	@Column(nullable = false, length = 12)
+	private String sku;
+
+	@Column(nullable = false)
+	private int quantity;
+}
@@ -0,0 +1,14 @@
+package dev.riddle.microstore.inventory.inventory.reservation;
+
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReservationLineResponse;
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReservationResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface ReservationMapper {
+	@Mapping(target = "items", source = "lines")
+	ReservationResponse toResponse(StockReservation reservation);
+
+	ReservationLineResponse toLineResponse(ReservationLine line);
+}
@@ -0,0 +1,154 @@
+package dev.riddle.microstore.inventory.inventory.reservation;
+
+import dev.riddle.microstore.inventory.inventory.event.ItemEventPublisher;
+import dev.riddle.microstore.inventory.inventory.event.ItemEventType;
+import dev.riddle.microstore.inventory.inventory.item.HotSkuStock;
+import dev.riddle.microstore.inventory.inventory.item.InventoryItemRepository;
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReservationLineRequest;
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReservationResponse;
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReserveStockRequest;
+import dev.riddle.microstore.inventory.shared.error.ConflictException;
+import dev.riddle.microstore.inventory.shared.error.InsufficientStockException;
+import dev.riddle.microstore.inventory.shared.error.NotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Holds stock for a caller until it either commits or releases the reservation.
+ * <p>
+ * Stock is taken with conditional decrements when the reservation is created, so a
+ * reservation that exists is always backed by stock. Lines are applied in SKU order
+ * to keep concurrent multi-SKU reservations from deadlocking on each other. Stock of hot SKUs
+ * is taken from and returned to their stripes, see {@link HotSkuStock}.
+ */
+@Service
+public class ReservationService {
+	private final StockReservationRepository reservationRepository;
+	private final InventoryItemRepository inventoryItemRepository;
+	private final HotSkuStock hotSkuStock;
+	private final ReservationMapper mapper;
+	private final ItemEventPublisher itemEventPublisher;
+	private final Duration reservationTtl;
+
+	public ReservationService(
+		StockReservationRepository reservationRepository,
+		InventoryItemRepository inventoryItemRepository,
+		HotSkuStock hotSkuStock,
+		ReservationMapper mapper,
+		ItemEventPublisher itemEventPublisher,
+		@Value("${inventory.reservations.ttl:PT5M}") Duration reservationTtl
+	) {
+		this.reservationRepository = reservationRepository;
+		this.inventoryItemRepository = inventoryItemRepository;
+		this.hotSkuStock = hotSkuStock;
+		this.mapper = mapper;
+		this.itemEventPublisher = itemEventPublisher;
+		this.reservationTtl = reservationTtl;
+	}
+
+	@Transactional
+	public ReservationResponse reserve(ReserveStockRequest request) {
+		// Merge repeated SKUs and fix the lock order
+		Map<String, Integer> quantities = new TreeMap<>();
+		for (ReservationLineRequest line : request.items()) {
+			quantities.merge(line.sku(), line.quantity(), Integer::sum);
+		}
+
+		StockReservation reservation = new StockReservation();
+		for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+			String sku = entry.getKey();
+			int quantity = entry.getValue();
+
+			if (!takeStock(sku, quantity)) {
+				// Throwing rolls back every decrement already applied for this request
+				if (!inventoryItemRepository.existsBySku(sku)) {
+					throw new NotFoundException("InventoryItem", sku);
+				}
+				throw new InsufficientStockException(sku, quantity);
+			}
+			itemEventPublisher.publish(sku, ItemEventType.QUANTITY_CHANGED);
+			reservation.getLines().add(new ReservationLine(sku, quantity));
+		}
+
+		reservation.setStatus(ReservationStatus.RESERVED);
+		reservation.setExpiresAt(Instant.now().plus(reservationTtl));
+		return mapper.toResponse(reservationRepository.save(reservation));
+	}
+
+	@Transactional
+	public ReservationResponse commit(UUID id) {
+		Instant now = Instant.now();
+		if (reservationRepository.transitionUnexpired(id, ReservationStatus.RESERVED, ReservationStatus.COMMITTED, now) == 0) {
+			return mapper.toResponse(requireStatus(id, ReservationStatus.COMMITTED));
+		}
+		return mapper.toResponse(find(id));
+	}
+
+	@Transactional
+	public ReservationResponse release(UUID id) {
+		return mapper.toResponse(returnStock(id, ReservationStatus.RELEASED));
+	}
+
+	@Transactional
+	public void expire(UUID id) {
+		returnStock(id, ReservationStatus.EXPIRED);
+	}
+
+	@Transactional(readOnly = true)
+	public List<UUID> findExpired(int limit) {
+		return reservationRepository.findExpiredIds(Instant.now(), Limit.of(limit));
+	}
+
+	private StockReservation returnStock(UUID id, ReservationStatus target) {
+		if (reservationRepository.transition(id, ReservationStatus.RESERVED, target, Instant.now()) == 0) {
+			// Someone else already moved it on, releasing twice is fine but nothing else is
+			return requireStatus(id, target);
+		}
+
+		StockReservation reservation = find(id);
+		for (ReservationLine line : reservation.getLines()) {
+			if (putBackStock(line.getSku(), line.getQuantity()) > 0) {
+				itemEventPublisher.publish(line.getSku(), ItemEventType.QUANTITY_CHANGED);
+			}
+		}
+		return reservation;
+	}
+
+	private boolean takeStock(String sku, int quantity) {
+		return hotSkuStock.isHot(sku)
+			? hotSkuStock.take(sku, quantity)
+			: inventoryItemRepository.decrementStock(sku, quantity) > 0;
+	}
+
+	private int putBackStock(String sku, int quantity) {
+		return hotSkuStock.isHot(sku)
+			? hotSkuStock.give(sku, quantity)
+			: inventoryItemRepository.incrementStock(sku, quantity);
+	}
+
+	private StockReservation requireStatus(UUID id, ReservationStatus expected) {
+		StockReservation reservation = find(id);
+		if (reservation.getStatus() == ReservationStatus.RESERVED && !reservation.getExpiresAt().isAfter(Instant.now())) {
+			throw new ConflictException("Reservation " + id + " has expired");
+		}
+		if (reservation.getStatus() != expected) {
+			throw new ConflictException("Reservation " + id + " is " + reservation.getStatus());
+		}
+		return reservation;
+	}
+
+	private StockReservation find(UUID id) {
+		return reservationRepository
+			.findById(id)
+			.orElseThrow(() -> new NotFoundException("StockReservation", id));
+	}
+}
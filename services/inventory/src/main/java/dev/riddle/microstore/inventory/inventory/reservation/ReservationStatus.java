@@ -0,0 +1,8 @@
+package dev.riddle.microstore.inventory.inventory.reservation;
+
+public enum ReservationStatus {
+	RESERVED,
+	COMMITTED,
+	RELEASED,
+	EXPIRED
+}
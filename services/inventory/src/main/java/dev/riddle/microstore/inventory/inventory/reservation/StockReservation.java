@@ -0,0 +1,41 @@
+package dev.riddle.microstore.inventory.inventory.reservation;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Entity
+@Table(name = "stock_reservation")
+@Getter
+@Setter
+public class StockReservation {
+	@Id
+	@GeneratedValue(strategy = GenerationType.UUID)
+	private UUID id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private ReservationStatus status = ReservationStatus.RESERVED;
+
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+
+	@ElementCollection(fetch = FetchType.EAGER)
+	@CollectionTable(name = "stock_reservation_line", joinColumns = @JoinColumn(name = "reservation_id"))
+	private List<ReservationLine> lines = new ArrayList<>();
+
+	@CreationTimestamp
+	@Column(name = "created_at")
+	private Instant createdAt;
+
+	@UpdateTimestamp
+	@Column(name = "updated_at")
+	private Instant updatedAt;
+}
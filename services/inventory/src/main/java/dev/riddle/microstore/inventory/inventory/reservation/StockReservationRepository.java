@@ -0,0 +1,50 @@
+package dev.riddle.microstore.inventory.inventory.reservation;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+
+	// Compare-and-set on the status column, so only one caller can win a given transition
+	@Modifying(clearAutomatically = true)
+	@Query("""
+		UPDATE StockReservation r
+		SET r.status = :to, r.updatedAt = :now
+		WHERE r.id = :id AND r.status = :from
+		""")
+	int transition(
+		@Param("id") UUID id,
+		@Param("from") ReservationStatus from,
+		@Param("to") ReservationStatus to,
+		@Param("now") Instant now
+	);
+
+	// Same as transition, but refuses reservations whose hold has already run out
+	@Modifying(clearAutomatically = true)
+	@Query("""
+		UPDATE StockReservation r
+		SET r.status = :to, r.updatedAt = :now
+		WHERE r.id = :id AND r.status = :from AND r.expiresAt > :now
+		""")
+	int transitionUnexpired(
+		@Param("id") UUID id,
+		@Param("from") ReservationStatus from,
+		@Param("to") ReservationStatus to,
+		@Param("now") Instant now
+	);
+
+	@Query("""
+		SELECT r.id FROM StockReservation r
+		WHERE r.status = dev.riddle.microstore.inventory.inventory.reservation.ReservationStatus.RESERVED
+			AND r.expiresAt <= :now
+		ORDER BY r.expiresAt
+		""")
+	List<UUID> findExpiredIds(@Param("now") Instant now, Limit limit);
+}
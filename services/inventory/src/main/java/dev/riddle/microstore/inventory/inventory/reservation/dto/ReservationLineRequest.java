@@ -0,0 +1,14 @@
+package dev.riddle.microstore.inventory.inventory.reservation.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public record ReservationLineRequest(
+	@NotBlank
+	String sku,
+
+	@NotNull
+	@Min(1)
+	Integer quantity
+) {}
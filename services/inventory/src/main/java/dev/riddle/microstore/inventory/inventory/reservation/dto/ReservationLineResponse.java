@@ -0,0 +1,6 @@
+package dev.riddle.microstore.inventory.inventory.reservation.dto;
+
+public record ReservationLineResponse(
+	String sku,
+	int quantity
+) {}
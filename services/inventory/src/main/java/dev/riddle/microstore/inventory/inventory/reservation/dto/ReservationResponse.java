@@ -0,0 +1,16 @@
+package dev.riddle.microstore.inventory.inventory.reservation.dto;
+
+import dev.riddle.microstore.inventory.inventory.reservation.ReservationStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record ReservationResponse(
+	UUID id,
+	ReservationStatus status,
+	Instant expiresAt,
+	List<ReservationLineResponse> items,
+	Instant createdAt,
+	Instant updatedAt
+) {}
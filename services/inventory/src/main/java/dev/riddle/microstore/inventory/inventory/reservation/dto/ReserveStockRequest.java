@@ -0,0 +1,12 @@
+package dev.riddle.microstore.inventory.inventory.reservation.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record ReserveStockRequest(
+	@NotEmpty
+	@Valid
+	List<ReservationLineRequest> items
+) {}
@@ -0,0 +1,7 @@
+package dev.riddle.microstore.inventory.shared.error;
+
+public class BadRequestException extends RuntimeException {
+	public BadRequestException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,7 @@
+package dev.riddle.microstore.inventory.shared.error;
+
+public class ConflictException extends RuntimeException {
+	public ConflictException(String message) {
+		super(message);
+	}
+}
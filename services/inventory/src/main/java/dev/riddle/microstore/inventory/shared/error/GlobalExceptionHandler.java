@@ -1,5 +1,6 @@
 package dev.riddle.microstore.inventory.shared.error;
 
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -21,6 +22,48 @@ public class GlobalExceptionHandler {
 		return problemDetail;
 	}
 
+	@ExceptionHandler(InsufficientStockException.class)
+	@ResponseStatus(HttpStatus.CONFLICT)
+	public ProblemDetail handleInsufficientStock(InsufficientStockException ex) {
+		ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+		problemDetail.setTitle("Insufficient Stock");
+		return problemDetail;
+	}
+
+	@ExceptionHandler(ConflictException.class)
+	@ResponseStatus(HttpStatus.CONFLICT)
+	public ProblemDetail handleConflict(ConflictException ex) {
+		ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+		problemDetail.setTitle("Conflict");
+		return problemDetail;
+	}
+
+	// A concurrent update that won the race between read and write, the client sent no precondition
+	@ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+	@ResponseStatus(HttpStatus.CONFLICT)
+	public ProblemDetail handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+		ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+		problemDetail.setTitle("Conflict");
+		return problemDetail;
+	}
+
+	// A stale If-Match
+	@ExceptionHandler(PreconditionFailedException.class)
+	@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+	public ProblemDetail handlePreconditionFailed(PreconditionFailedException ex) {
+		ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+		problemDetail.setTitle("Precondition Failed");
+		return problemDetail;
+	}
+
+	@ExceptionHandler(BadRequestException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public ProblemDetail handleBadRequest(BadRequestException ex) {
+		ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+		problemDetail.setTitle("Invalid Request");
+		return problemDetail;
+	}
+
 	@ExceptionHandler(MethodArgumentNotValidException.class)
 	@ResponseStatus(HttpStatus.BAD_REQUEST)
 	public ProblemDetail handleNotFound(MethodArgumentNotValidException ex) {
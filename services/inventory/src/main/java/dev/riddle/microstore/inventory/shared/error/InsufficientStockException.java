@@ -0,0 +1,7 @@
+package dev.riddle.microstore.inventory.shared.error;
+
+public class InsufficientStockException extends RuntimeException {
+	public InsufficientStockException(String sku, int requested) {
+		super("Insufficient stock for SKU " + sku + ", requested " + requested);
+	}
+}
@@ -1,7 +1,13 @@
 package dev.riddle.microstore.inventory.shared.error;
 
+import java.util.UUID;
+
 public class NotFoundException extends RuntimeException {
 	public NotFoundException(String resource, String sku) {
 		super(resource + " not found with SKU " + sku);
 	}
+
+	public NotFoundException(String resource, UUID id) {
+		super(resource + " not found with id " + id);
+	}
 }
@@ -0,0 +1,7 @@
+package dev.riddle.microstore.inventory.shared.error;
+
+public class PreconditionFailedException extends RuntimeException {
+	public PreconditionFailedException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,14 @@
+package dev.riddle.microstore.inventory.shared.paging;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is {@code null} on the last page,
+ * {@code totalItems} is only filled in when the caller asked for it.
+ */
+public record CursorPageResponse<T>(
+	List<T> content,
+	int pageSize,
+	String nextCursor,
+	Long totalItems
+) {}
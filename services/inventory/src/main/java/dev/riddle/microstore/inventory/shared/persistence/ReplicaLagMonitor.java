@@ -0,0 +1,73 @@
+package dev.riddle.microstore.inventory.shared.persistence;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+/**
+ * Polls the read replica for its replay lag. The replica counts as usable while the lag is at most
+ * {@code maxLag}; until the first successful check, and whenever it cannot be reached, it does not.
+ */
+public class ReplicaLagMonitor {
+	private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+	// An idle primary sends no new WAL, so a replica that has replayed everything it received is not behind
+	private static final String LAG_QUERY = """
+		SELECT CASE
+			WHEN NOT pg_is_in_recovery() THEN 0
+			WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+			ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+		END""";
+
+	private final JdbcTemplate replica;
+	private final double maxLagSeconds;
+	private volatile double lagSeconds = Double.NaN;
+	private volatile boolean usable;
+
+	public ReplicaLagMonitor(JdbcTemplate replica, Duration maxLag, MeterRegistry meterRegistry) {
+		this.replica = replica;
+		this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+		Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+			.description("Replay lag of the read replica, NaN while it cannot be reached")
+			.baseUnit("seconds")
+			.register(meterRegistry);
+		Gauge.builder("datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+			.description("Whether read-only transactions are sent to the read replica")
+			.register(meterRegistry);
+	}
+
+	public boolean isUsable() {
+		return usable;
+	}
+
+	@Scheduled(fixedDelayString = "${inventory.datasource.replica.lag-check-interval:PT1S}")
+	public void check() {
+		Double lag;
+		try {
+			lag = replica.queryForObject(LAG_QUERY, Double.class);
+		} catch (DataAccessException ex) {
+			if (usable) {
+				log.warn("Read replica cannot be reached, reading from the primary", ex);
+			}
+			lagSeconds = Double.NaN;
+			usable = false;
+			return;
+		}
+
+		// No replay timestamp yet means the replica has not applied anything since it started
+		boolean nowUsable = lag != null && lag <= maxLagSeconds;
+		if (nowUsable != usable) {
+			log.info(nowUsable
+				? "Read replica is {}s behind, reading from it again"
+				: "Read replica is {}s behind, reading from the primary", lag);
+		}
+		lagSeconds = lag == null ? Double.NaN : lag;
+		usable = nowUsable;
+	}
+}
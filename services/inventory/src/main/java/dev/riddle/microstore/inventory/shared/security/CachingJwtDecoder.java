@@ -0,0 +1,90 @@
+package dev.riddle.microstore.inventory.shared.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the bearer tokens the delegate has verified, so a token that comes back, as the one
+ * orders sends with every call does, is not parsed and signature-checked again.
+ * <p>
+ * Entries are keyed by the SHA-256 of the token and expire with the token's {@code exp}. Tokens
+ * that fail verification or carry no {@code exp} are never cached. A cached token stays accepted
+ * until it expires even if its signing key is taken out of the JWKS in the meantime.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+	private final JwtDecoder delegate;
+	private final Cache<String, Jwt> verified;
+	private final Timer validTimer;
+	private final Timer invalidTimer;
+
+	public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.verified = Caffeine.newBuilder()
+			.maximumSize(maximumSize)
+			.expireAfter(Expiry.creating((String hash, Jwt jwt) -> untilExpiry(jwt)))
+			.recordStats()
+			.build();
+		this.validTimer = verifyTimer(meterRegistry, "valid");
+		this.invalidTimer = verifyTimer(meterRegistry, "invalid");
+		CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt-tokens");
+	}
+
+	@Override
+	public Jwt decode(String token) throws JwtException {
+		String hash = hash(token);
+		Jwt cached = verified.getIfPresent(hash);
+		if (cached != null)
+			return cached;
+
+		long start = System.nanoTime();
+		Jwt jwt;
+		try {
+			jwt = delegate.decode(token);
+		} catch (JwtException ex) {
+			invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			throw ex;
+		}
+		validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+		if (jwt.getExpiresAt() != null)
+			verified.put(hash, jwt);
+		return jwt;
+	}
+
+	private static Duration untilExpiry(Jwt jwt) {
+		// Tokens inside the validator's clock skew are accepted once but not kept
+		Duration left = Duration.between(Instant.now(), jwt.getExpiresAt());
+		return left.isNegative() ? Duration.ZERO : left;
+	}
+
+	private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+		return Timer.builder("security.jwt.verify")
+			.description("Time to parse and verify a bearer token that was not cached")
+			.tag("outcome", outcome)
+			.register(meterRegistry);
+	}
+
+	private static String hash(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest);
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not available", ex);
+		}
+	}
+}
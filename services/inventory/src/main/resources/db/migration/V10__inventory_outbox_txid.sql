@@ -0,0 +1,7 @@
+-- Id of the transaction that wrote the event. Outbox ids are handed out before commit, so a later
+-- id can become visible before an earlier one. Readers go in (txid, id) order and stop at the oldest
+-- transaction still running, which keeps them from passing over an event that commits late.
+ALTER TABLE inventory_outbox
+	ADD COLUMN txid BIGINT NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT);
+
+CREATE INDEX idx_inventory_outbox_txid_id ON inventory_outbox (txid, id);
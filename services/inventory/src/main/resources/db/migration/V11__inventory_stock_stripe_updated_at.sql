@@ -0,0 +1,4 @@
+-- Stripe writes leave the item row alone, so a hot SKU was last modified at the later of its
+-- item row's and its stripes' updated_at.
+ALTER TABLE inventory_stock_stripe
+	ADD COLUMN updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT localtimestamp;
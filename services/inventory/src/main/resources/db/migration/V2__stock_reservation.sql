@@ -0,0 +1,25 @@
+ALTER TABLE inventory_item
+	ADD CONSTRAINT chk_inventory_item_quantity_non_negative CHECK (quantity >= 0);
+
+CREATE TABLE stock_reservation
+(
+	id         UUID        NOT NULL,
+	status     VARCHAR(20) NOT NULL,
+	expires_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+	created_at TIMESTAMP WITHOUT TIME ZONE,
+	updated_at TIMESTAMP WITHOUT TIME ZONE,
+	CONSTRAINT pk_stock_reservation PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_stock_reservation_status_expires_at ON stock_reservation (status, expires_at);
+
+CREATE TABLE stock_reservation_line
+(
+	reservation_id UUID        NOT NULL,
+	sku            VARCHAR(12) NOT NULL,
+	quantity       INTEGER     NOT NULL,
+	CONSTRAINT pk_stock_reservation_line PRIMARY KEY (reservation_id, sku),
+	CONSTRAINT fk_stock_reservation_line_reservation FOREIGN KEY (reservation_id)
+		REFERENCES stock_reservation (id) ON DELETE CASCADE,
+	CONSTRAINT chk_stock_reservation_line_quantity_positive CHECK (quantity > 0)
+);
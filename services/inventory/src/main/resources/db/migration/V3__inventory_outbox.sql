@@ -0,0 +1,13 @@
+-- Transactional outbox of item changes, written in the same transaction as the change itself.
+-- The id is the offset consumers resume from.
+CREATE TABLE inventory_outbox
+(
+	id         BIGSERIAL   NOT NULL,
+	sku        VARCHAR(12) NOT NULL,
+	event_type VARCHAR(20) NOT NULL,
+	payload    JSONB       NOT NULL,
+	created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT localtimestamp,
+	CONSTRAINT pk_inventory_outbox PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_inventory_outbox_created_at ON inventory_outbox (created_at);
@@ -0,0 +1,2 @@
+-- Backs keyset pagination ordered by (name, id)
+CREATE INDEX idx_inventory_item_name_id ON inventory_item (name, id);
@@ -0,0 +1,13 @@
+-- Substring search on name (lower(name) LIKE '%term%') can use a trigram index
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_inventory_item_name_trgm ON inventory_item USING GIN (lower(name) gin_trgm_ops);
+
+-- Full-text search over name and description, name matches rank higher
+ALTER TABLE inventory_item
+	ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+		setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+		setweight(to_tsvector('english', coalesce(description, '')), 'B')
+	) STORED;
+
+CREATE INDEX idx_inventory_item_search_vector ON inventory_item USING GIN (search_vector);
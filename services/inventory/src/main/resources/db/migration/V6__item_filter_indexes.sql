@@ -0,0 +1,9 @@
+-- The unique constraint on sku already comes with an index
+DROP INDEX IF EXISTS idx_sku;
+
+-- Price ranges, and listings sorted by price, ties broken by name
+CREATE INDEX idx_inventory_item_price_name ON inventory_item (price_in_cents, name);
+
+-- Low-stock lookups (maxQuantity at or below the threshold) only ever touch a small part of
+-- the table, so only that part is indexed
+CREATE INDEX idx_inventory_item_low_stock ON inventory_item (quantity, name) WHERE quantity <= 20;
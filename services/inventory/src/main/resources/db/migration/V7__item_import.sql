@@ -0,0 +1,27 @@
+CREATE TABLE inventory_import_job
+(
+	id              UUID        NOT NULL,
+	status          VARCHAR(20) NOT NULL,
+	format          VARCHAR(10),
+	rows_read       BIGINT      NOT NULL DEFAULT 0,
+	rows_imported   BIGINT      NOT NULL DEFAULT 0,
+	rows_failed     BIGINT      NOT NULL DEFAULT 0,
+	failure_message VARCHAR(1000),
+	created_at      TIMESTAMP WITHOUT TIME ZONE,
+	updated_at      TIMESTAMP WITHOUT TIME ZONE,
+	finished_at     TIMESTAMP WITHOUT TIME ZONE,
+	CONSTRAINT pk_inventory_import_job PRIMARY KEY (id)
+);
+
+CREATE TABLE inventory_import_error
+(
+	id      BIGSERIAL     NOT NULL,
+	job_id  UUID          NOT NULL,
+	line    BIGINT        NOT NULL,
+	message VARCHAR(1000) NOT NULL,
+	CONSTRAINT pk_inventory_import_error PRIMARY KEY (id),
+	CONSTRAINT fk_inventory_import_error_job FOREIGN KEY (job_id)
+		REFERENCES inventory_import_job (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_inventory_import_error_job_line ON inventory_import_error (job_id, line);
@@ -0,0 +1,3 @@
+-- Optimistic locking for item updates, also served as the item's ETag
+ALTER TABLE inventory_item
+	ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Stock of hot SKUs split over several rows, so concurrent reservations of one SKU do not all
+-- queue on the same row lock. A striped SKU has inventory_item.quantity plus its stripes in stock.
+CREATE TABLE inventory_stock_stripe
+(
+	sku      VARCHAR(12) NOT NULL,
+	stripe   INTEGER     NOT NULL,
+	quantity INTEGER     NOT NULL,
+	version  BIGINT      NOT NULL DEFAULT 0,
+	CONSTRAINT pk_inventory_stock_stripe PRIMARY KEY (sku, stripe),
+	CONSTRAINT fk_inventory_stock_stripe_item FOREIGN KEY (sku)
+		REFERENCES inventory_item (sku) ON DELETE CASCADE,
+	CONSTRAINT chk_inventory_stock_stripe_quantity_non_negative CHECK (quantity >= 0)
+);
@@ -0,0 +1,74 @@
+package dev.riddle.microstore.inventory.inventory.catalog;
+
+import dev.riddle.microstore.inventory.inventory.event.ItemEventOffset;
+import dev.riddle.microstore.inventory.inventory.item.CountMode;
+import dev.riddle.microstore.inventory.inventory.item.ItemSpecificationFilter;
+import dev.riddle.microstore.inventory.inventory.item.dto.ItemResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CatalogSnapshotTest {
+
+	private static final ItemSpecificationFilter NO_FILTER = new ItemSpecificationFilter(null, null, null, null, null, null, null);
+
+	private final CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(
+		item("SNAP-0001", "Walnut desk", 3, 45_000),
+		item("SNAP-0002", "Desk lamp", 40, 4_500),
+		item("SNAP-0003", "Office chair", 0, 12_000),
+		item("SNAP-0004", "Cable tray", 12, 1_500)
+	), new ItemEventOffset(40, 7), Instant.now());
+
+	@Test
+	void query_shouldFilterAndSortWithExactTotal() {
+		ItemSpecificationFilter filter = new ItemSpecificationFilter("DESK", null, null, null, null, null, null);
+
+		Slice<ItemResponse> result = snapshot.query(filter, PageRequest.of(0, 10, Sort.by("name")), CountMode.EXACT);
+
+		assertThat(result.getContent()).extracting(ItemResponse::sku).containsExactly("SNAP-0002", "SNAP-0001");
+		assertThat(((Page<ItemResponse>) result).getTotalElements()).isEqualTo(2);
+	}
+
+	@Test
+	void query_shouldApplyRangesAndDescendingSort() {
+		ItemSpecificationFilter lowStock = new ItemSpecificationFilter(null, null, null, 12, 1_000, null, null);
+
+		Slice<ItemResponse> result = snapshot.query(
+			lowStock, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "priceInCents")), CountMode.EXACT);
+
+		assertThat(result.getContent()).extracting(ItemResponse::sku).containsExactly("SNAP-0001", "SNAP-0003", "SNAP-0004");
+	}
+
+	@Test
+	void query_withoutCount_shouldPageAsSlice() {
+		Slice<ItemResponse> first = snapshot.query(NO_FILTER, PageRequest.of(0, 3, Sort.by("sku")), CountMode.NONE);
+		Slice<ItemResponse> second = snapshot.query(NO_FILTER, PageRequest.of(1, 3, Sort.by("sku")), CountMode.NONE);
+
+		assertThat(first).isNotInstanceOf(Page.class);
+		assertThat(first.hasNext()).isTrue();
+		assertThat(second.getContent()).extracting(ItemResponse::sku).containsExactly("SNAP-0004");
+		assertThat(second.hasNext()).isFalse();
+	}
+
+	@Test
+	void supports_shouldLeaveSearchAndCompoundSortsToTheDatabase() {
+		ItemSpecificationFilter search = new ItemSpecificationFilter(null, null, null, null, null, null, "desk");
+
+		assertThat(snapshot.supports(NO_FILTER, PageRequest.of(0, 10, Sort.by("name")))).isTrue();
+		assertThat(snapshot.supports(search, PageRequest.of(0, 10))).isFalse();
+		assertThat(snapshot.supports(NO_FILTER, PageRequest.of(0, 10, Sort.by("priceInCents", "name")))).isFalse();
+		assertThat(snapshot.supports(NO_FILTER, PageRequest.of(0, 10, Sort.by("createdAt")))).isFalse();
+	}
+
+	private static ItemResponse item(String sku, String name, int quantity, int priceInCents) {
+		return new ItemResponse(UUID.randomUUID(), sku, name, null, quantity, priceInCents, null, null, 0);
+	}
+}
@@ -0,0 +1,160 @@
+package dev.riddle.microstore.inventory.inventory.event;
+
+import dev.riddle.microstore.inventory.inventory.item.InventoryItemRepository;
+import dev.riddle.microstore.inventory.inventory.item.InventoryService;
+import dev.riddle.microstore.inventory.inventory.item.StockStripeRepository;
+import dev.riddle.microstore.inventory.testutil.InventoryServiceSlice;
+import dev.riddle.microstore.inventory.testutil.ItemTestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@InventoryServiceSlice
+// Events only become readable once their transaction committed, so the tests do not run in one
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ItemEventOutboxTest {
+
+	@Container
+	static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:16-alpine")
+		.withDatabaseName("inventory-test")
+		.withUsername("test")
+		.withPassword("test");
+
+	@DynamicPropertySource
+	static void configureProperties(DynamicPropertyRegistry registry) {
+		// Use Testcontainers-provided JDBC URL (mapped host/port, via TESTCONTAINERS_HOST_OVERRIDE).
+		registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+		registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+		registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+	}
+
+	private final InventoryService inventoryService;
+	private final ItemEventPublisher itemEventPublisher;
+	private final ItemEventRepository itemEventRepository;
+	private final InventoryItemRepository inventoryItemRepository;
+	private final StockStripeRepository stripeRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	ItemEventOutboxTest(
+		InventoryService inventoryService,
+		ItemEventPublisher itemEventPublisher,
+		ItemEventRepository itemEventRepository,
+		InventoryItemRepository inventoryItemRepository,
+		StockStripeRepository stripeRepository,
+		PlatformTransactionManager transactionManager
+	) {
+		this.inventoryService = inventoryService;
+		this.itemEventPublisher = itemEventPublisher;
+		this.itemEventRepository = itemEventRepository;
+		this.inventoryItemRepository = inventoryItemRepository;
+		this.stripeRepository = stripeRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		itemEventRepository.deleteAll();
+		inventoryItemRepository.deleteAll();
+	}
+
+	@Test
+	void itemChanges_shouldBeWrittenToOutboxInOrder() {
+		inventoryService.createItem(ItemTestData.createRequest("EVT-SKU-001"));
+		inventoryService.updateItem("EVT-SKU-001", ItemTestData.updateRequest(), null);
+		inventoryService.deleteItem("EVT-SKU-001");
+
+		List<ItemEvent> events = itemEventRepository.findVisibleAfter(0, 0, 10);
+
+		assertThat(events)
+			.extracting(ItemEvent::getEventType)
+			.containsExactly(ItemEventType.CREATED, ItemEventType.UPDATED, ItemEventType.DELETED);
+		assertThat(events).extracting(ItemEvent::getSku).containsOnly("EVT-SKU-001");
+		assertThat(events.get(1).getPayload()).contains("\"name\": \"Updated Name\"");
+	}
+
+	@Test
+	void findVisibleAfter_shouldResumeAfterOffset() {
+		inventoryService.createItem(ItemTestData.createRequest("EVT-SKU-002"));
+		inventoryService.updateItem("EVT-SKU-002", ItemTestData.updateRequest(), null);
+
+		ItemEvent first = itemEventRepository.findVisibleAfter(0, 0, 1).getFirst();
+		List<ItemEvent> rest = itemEventRepository.findVisibleAfter(first.getTxid(), first.getId(), 10);
+
+		assertThat(rest).extracting(ItemEvent::getEventType).containsExactly(ItemEventType.UPDATED);
+	}
+
+	@Test
+	void insertFromItem_shouldAddStockOfStripes() {
+		inventoryService.createItem(ItemTestData.createRequest("EVT-SKU-004"));
+		transactionTemplate.executeWithoutResult(status -> {
+			stripeRepository.createStripes("EVT-SKU-004", 2);
+			stripeRepository.incrementStock("EVT-SKU-004", 1, 5);
+			itemEventPublisher.publish("EVT-SKU-004", ItemEventType.QUANTITY_CHANGED);
+		});
+
+		List<ItemEvent> events = itemEventRepository.findVisibleAfter(0, 0, 10);
+
+		assertThat(events.getLast().getPayload()).contains("\"quantity\": 105");
+	}
+
+	@Test
+	void findVisibleAfter_withLongRunningWriter_shouldHoldBackLaterEvents() throws Exception {
+		CountDownLatch written = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		// Takes the lower outbox id, but commits only after a later writer did
+		CompletableFuture<Void> longWriter = CompletableFuture.runAsync(() ->
+			transactionTemplate.executeWithoutResult(status -> {
+				itemEventRepository.insertDeleted("EVT-SKU-SLOW");
+				written.countDown();
+				awaitQuietly(release);
+			}));
+		assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+		transactionTemplate.executeWithoutResult(status -> itemEventRepository.insertDeleted("EVT-SKU-FAST"));
+
+		List<ItemEvent> whileRunning = itemEventRepository.findVisibleAfter(0, 0, 10);
+		release.countDown();
+		longWriter.get(10, TimeUnit.SECONDS);
+		List<ItemEvent> afterCommit = itemEventRepository.findVisibleAfter(0, 0, 10);
+
+		assertThat(whileRunning).isEmpty();
+		assertThat(afterCommit).extracting(ItemEvent::getSku).containsExactly("EVT-SKU-SLOW", "EVT-SKU-FAST");
+	}
+
+	@Test
+	void publish_outsideTransaction_shouldBeRejected() {
+		assertThatThrownBy(() -> itemEventPublisher.publish("EVT-SKU-003", ItemEventType.UPDATED))
+			.isInstanceOf(IllegalTransactionStateException.class);
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package dev.riddle.microstore.inventory.inventory.event;
+
+import dev.riddle.microstore.inventory.shared.error.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemEventStreamerTest {
+
+	@Mock
+	private ItemEventRepository itemEventRepository;
+
+	@Test
+	void stream_shouldSendEventsAndContinueFromLastId() {
+		ItemEventStreamer streamer = new ItemEventStreamer(
+			itemEventRepository, Duration.ofMillis(1), Duration.ofMinutes(1));
+		RecordingEmitter emitter = new RecordingEmitter();
+		AtomicBoolean open = new AtomicBoolean(true);
+
+		when(itemEventRepository.findVisibleAfter(eq(40L), eq(5L), anyInt()))
+			.thenReturn(List.of(event(41, 7, ItemEventType.CREATED), event(42, 6, ItemEventType.QUANTITY_CHANGED)));
+		when(itemEventRepository.findVisibleAfter(eq(42L), eq(6L), anyInt()))
+			.thenAnswer(invocation -> {
+				open.set(false);
+				return List.of();
+			});
+
+		streamer.stream(emitter, open, new ItemEventOffset(40, 5));
+
+		assertThat(emitter.sent).hasSize(2);
+		verify(itemEventRepository).findVisibleAfter(eq(42L), eq(6L), anyInt());
+	}
+
+	@Test
+	void stream_whenClientIsGone_shouldStopPolling() {
+		ItemEventStreamer streamer = new ItemEventStreamer(
+			itemEventRepository, Duration.ofMillis(1), Duration.ofMinutes(1));
+		RecordingEmitter emitter = new RecordingEmitter();
+		emitter.failOnSend = true;
+
+		when(itemEventRepository.findVisibleAfter(eq(0L), eq(0L), anyInt()))
+			.thenReturn(List.of(event(40, 1, ItemEventType.UPDATED)));
+
+		streamer.stream(emitter, new AtomicBoolean(true), ItemEventOffset.START);
+
+		verify(itemEventRepository, times(1)).findVisibleAfter(anyLong(), anyLong(), anyInt());
+	}
+
+	@Test
+	void parseOffset_shouldReadTxidAndId() {
+		assertThat(ItemEventOffset.parse("42-7")).isEqualTo(new ItemEventOffset(42, 7));
+		assertThat(ItemEventOffset.parse(new ItemEventOffset(42, 7).encode())).isEqualTo(new ItemEventOffset(42, 7));
+	}
+
+	@Test
+	void parseOffset_withPlainOutboxId_shouldStartOver() {
+		assertThat(ItemEventOffset.parse("17")).isEqualTo(ItemEventOffset.START);
+	}
+
+	@Test
+	void parseOffset_withGarbage_shouldBeRejected() {
+		assertThatThrownBy(() -> ItemEventOffset.parse("42-x")).isInstanceOf(BadRequestException.class);
+	}
+
+	private static ItemEvent event(long txid, long id, ItemEventType type) {
+		ItemEvent event = new ItemEvent();
+		event.setTxid(txid);
+		event.setId(id);
+		event.setSku("TEST-SKU-001");
+		event.setEventType(type);
+		event.setPayload("{\"sku\": \"TEST-SKU-001\"}");
+		return event;
+	}
+
+	private static class RecordingEmitter extends SseEmitter {
+		private final List<SseEventBuilder> sent = new ArrayList<>();
+		private boolean failOnSend;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (failOnSend) {
+				throw new IOException("Broken pipe");
+			}
+			sent.add(builder);
+		}
+	}
+}
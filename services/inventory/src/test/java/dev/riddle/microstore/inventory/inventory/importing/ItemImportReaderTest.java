@@ -0,0 +1,68 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.riddle.microstore.inventory.inventory.item.dto.CreateItemRequest;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ItemImportReaderTest {
+
+	private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+	@Test
+	void csv_shouldReadQuotedFieldsAndReportInvalidRows() throws IOException {
+		ItemImportReader reader = reader(ImportFormat.CSV, """
+			sku,name,description,quantity,price_in_cents
+			CSV-SKU-001,"Desk, walnut","Says ""solid""\",3,45000
+
+			CSV-SKU-002,Lamp,,-1,1500
+			CSV-SKU-003,Chair,,many,1500
+			""");
+
+		List<ImportRow> rows = reader.next(10);
+
+		assertThat(rows).hasSize(3);
+		assertThat(rows.get(0).item()).isEqualTo(new CreateItemRequest("CSV-SKU-001", "Desk, walnut", "Says \"solid\"", 3, 45000));
+		assertThat(rows.get(1).line()).isEqualTo(4);
+		assertThat(rows.get(1).error()).isEqualTo("quantity: must be greater than or equal to 0");
+		assertThat(rows.get(2).error()).isEqualTo("quantity: not a whole number: many");
+		assertThat(reader.next(10)).isEmpty();
+	}
+
+	@Test
+	void csv_withoutRequiredColumn_shouldFail() {
+		ItemImportReader reader = reader(ImportFormat.CSV, "sku,name,quantity\nCSV-SKU-001,Desk,1\n");
+
+		assertThatThrownBy(() -> reader.next(10))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("priceInCents");
+	}
+
+	@Test
+	void ndjson_shouldReadInChunks() throws IOException {
+		ItemImportReader reader = reader(ImportFormat.NDJSON, """
+			{"sku":"JSON-SKU-001","name":"Desk","quantity":1,"priceInCents":100}
+			{"sku":"JSON-SKU-002","name":"Lamp",
+			{"sku":"SHORT","name":"Chair","quantity":1,"priceInCents":100}
+			""");
+
+		assertThat(reader.next(2)).extracting(ImportRow::isValid).containsExactly(true, false);
+		assertThat(reader.next(2)).singleElement()
+			.extracting(ImportRow::error)
+			.isEqualTo("sku: size must be between 8 and 12");
+		assertThat(reader.next(2)).isEmpty();
+	}
+
+	private ItemImportReader reader(ImportFormat format, String body) {
+		return new ItemImportReader(new BufferedReader(new StringReader(body)), format, new ObjectMapper(), validator);
+	}
+}
@@ -0,0 +1,133 @@
+package dev.riddle.microstore.inventory.inventory.importing;
+
+import dev.riddle.microstore.inventory.inventory.event.ItemEventRepository;
+import dev.riddle.microstore.inventory.inventory.importing.dto.ImportJobResponse;
+import dev.riddle.microstore.inventory.inventory.item.InventoryItem;
+import dev.riddle.microstore.inventory.inventory.item.InventoryItemRepository;
+import dev.riddle.microstore.inventory.inventory.item.StockStripeRepository;
+import dev.riddle.microstore.inventory.shared.error.ConflictException;
+import dev.riddle.microstore.inventory.testutil.ItemTestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestConstructor;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "inventory.imports.chunk-size=2")
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({ItemImportService.class, ItemImportWriter.class, ItemImportMapperImpl.class})
+public class ItemImportTest {
+
+	@Container
+	static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:16-alpine")
+		.withDatabaseName("inventory-test")
+		.withUsername("test")
+		.withPassword("test");
+
+	@DynamicPropertySource
+	static void configureProperties(DynamicPropertyRegistry registry) {
+		// Use Testcontainers-provided JDBC URL (mapped host/port, via TESTCONTAINERS_HOST_OVERRIDE).
+		registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+		registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+		registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+	}
+
+	private final ItemImportService itemImportService;
+	private final InventoryItemRepository inventoryItemRepository;
+	private final ItemEventRepository itemEventRepository;
+	private final StockStripeRepository stripeRepository;
+
+	ItemImportTest(
+		ItemImportService itemImportService,
+		InventoryItemRepository inventoryItemRepository,
+		ItemEventRepository itemEventRepository,
+		StockStripeRepository stripeRepository
+	) {
+		this.itemImportService = itemImportService;
+		this.inventoryItemRepository = inventoryItemRepository;
+		this.itemEventRepository = itemEventRepository;
+		this.stripeRepository = stripeRepository;
+	}
+
+	@Test
+	void importItems_shouldUpsertOnSkuAndRecordRejectedRows() {
+		InventoryItem existing = ItemTestData.inventoryItem();
+		inventoryItemRepository.saveAndFlush(existing);
+
+		ImportJobResponse job = itemImportService.createJob();
+		ImportJobResponse result = itemImportService.importItems(job.id(), ImportFormat.NDJSON, body("""
+			{"sku":"TEST-SKU-001","name":"Renamed","quantity":7,"priceInCents":2500}
+			{"sku":"IMPORT-0001","name":"Imported","description":"New","quantity":1,"priceInCents":100}
+			{"sku":"BAD","name":"Too short","quantity":1,"priceInCents":100}
+			{"sku":"IMPORT-0001","name":"Imported twice","quantity":2,"priceInCents":100}
+			"""));
+
+		assertThat(result.status()).isEqualTo(ImportStatus.COMPLETED);
+		assertThat(result.rowsRead()).isEqualTo(4);
+		assertThat(result.rowsImported()).isEqualTo(3);
+		assertThat(result.rowsFailed()).isEqualTo(1);
+		assertThat(result.errors()).singleElement()
+			.satisfies(error -> assertThat(error.line()).isEqualTo(3));
+
+		assertThat(inventoryItemRepository.findBySku("TEST-SKU-001")).get()
+			.satisfies(item -> {
+				assertThat(item.getName()).isEqualTo("Renamed");
+				assertThat(item.getQuantity()).isEqualTo(7);
+			});
+		assertThat(inventoryItemRepository.findBySku("IMPORT-0001")).get()
+			.extracting(InventoryItem::getName)
+			.isEqualTo("Imported twice");
+		assertThat(itemEventRepository.findAll())
+			.extracting(event -> event.getSku() + ":" + event.getEventType())
+			.containsExactlyInAnyOrder("TEST-SKU-001:UPDATED", "IMPORT-0001:CREATED", "IMPORT-0001:UPDATED");
+	}
+
+	@Test
+	void importItems_ofStripedSku_shouldEmptyItsStripes() {
+		inventoryItemRepository.saveAndFlush(ItemTestData.inventoryItem());
+		stripeRepository.createStripes("TEST-SKU-001", 2);
+		stripeRepository.incrementStock("TEST-SKU-001", 0, 30);
+
+		ImportJobResponse job = itemImportService.createJob();
+		itemImportService.importItems(job.id(), ImportFormat.NDJSON, body("""
+			{"sku":"TEST-SKU-001","name":"Recounted","quantity":7,"priceInCents":2500}
+			"""));
+
+		assertThat(stripeRepository.sumBySkuIn(List.of("TEST-SKU-001"))).singleElement()
+			.satisfies(total -> assertThat(total.getQuantity()).isZero());
+		assertThat(inventoryItemRepository.findBySku("TEST-SKU-001")).get()
+			.extracting(InventoryItem::getQuantity)
+			.isEqualTo(7);
+	}
+
+	@Test
+	void importItems_twice_shouldBeRejected() {
+		ImportJobResponse job = itemImportService.createJob();
+		itemImportService.importItems(job.id(), ImportFormat.CSV, body("sku,name,quantity,priceInCents\n"));
+
+		assertThatThrownBy(() -> itemImportService.importItems(job.id(), ImportFormat.CSV, body("")))
+			.isInstanceOf(ConflictException.class);
+	}
+
+	private static ByteArrayInputStream body(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
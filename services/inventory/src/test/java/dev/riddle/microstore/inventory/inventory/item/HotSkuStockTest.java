@@ -0,0 +1,236 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+import dev.riddle.microstore.inventory.inventory.item.StockStripeRepository.StripeTotal;
+import dev.riddle.microstore.inventory.inventory.item.dto.ItemResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HotSkuStockTest {
+	private static final String HOT = "HOT-SKU";
+
+	@Mock
+	private InventoryItemRepository inventoryItemRepository;
+
+	@Mock
+	private StockStripeRepository stripeRepository;
+
+	private HotSkuStock hotSkuStock;
+
+	@BeforeEach
+	void setUp() {
+		hotSkuStock = new HotSkuStock(inventoryItemRepository, stripeRepository, Set.of(HOT), 4);
+	}
+
+	@Test
+	void take_whenAStripeHasEnough_shouldNotLockTheOthers() {
+		when(stripeRepository.decrementStock(eq(HOT), anyInt(), eq(2))).thenReturn(0, 1);
+
+		assertThat(hotSkuStock.take(HOT, 2)).isTrue();
+
+		verify(stripeRepository, times(2)).decrementStock(eq(HOT), anyInt(), eq(2));
+		verify(inventoryItemRepository, never()).lockQuantity(any());
+		verify(stripeRepository, never()).findBySkuOrderByStripe(any());
+	}
+
+	@Test
+	void take_whenNoStripeHasEnough_shouldSpreadWhatIsLeftOverTheStripes() {
+		List<StockStripe> stripes = stripes(1, 0, 1, 0);
+		when(stripeRepository.decrementStock(eq(HOT), anyInt(), eq(5))).thenReturn(0);
+		when(inventoryItemRepository.lockQuantity(HOT)).thenReturn(Optional.of(10));
+		when(stripeRepository.findUnlockedBySku(HOT)).thenReturn(stripes);
+
+		assertThat(hotSkuStock.take(HOT, 5)).isTrue();
+
+		// 12 in stock, 7 left after taking 5
+		verify(stripeRepository, times(4)).decrementStock(eq(HOT), anyInt(), eq(5));
+		verify(inventoryItemRepository).decrementStock(HOT, 10);
+		assertThat(stripes).extracting(StockStripe::getQuantity).containsExactly(2, 2, 2, 1);
+		verify(stripeRepository).flush();
+	}
+
+	@Test
+	void take_whenOtherStripesAreHeld_shouldRebalanceTheFreeOnesWithoutWaiting() {
+		List<StockStripe> free = stripes(1, 1);
+		when(stripeRepository.decrementStock(eq(HOT), anyInt(), eq(5))).thenReturn(0);
+		when(inventoryItemRepository.lockQuantity(HOT)).thenReturn(Optional.of(10));
+		when(stripeRepository.findUnlockedBySku(HOT)).thenReturn(free);
+
+		assertThat(hotSkuStock.take(HOT, 5)).isTrue();
+
+		verify(stripeRepository, never()).findBySkuOrderByStripe(any());
+		assertThat(free).extracting(StockStripe::getQuantity).containsExactly(4, 3);
+	}
+
+	@Test
+	void take_whenFreeStripesAreNotEnough_shouldWaitForAllStripesAfterTheItemRow() {
+		List<StockStripe> free = stripes(1, 0);
+		List<StockStripe> all = stripes(1, 0, 3, 0);
+		when(stripeRepository.decrementStock(eq(HOT), anyInt(), eq(5))).thenReturn(0);
+		when(inventoryItemRepository.lockQuantity(HOT)).thenReturn(Optional.of(2));
+		when(stripeRepository.findUnlockedBySku(HOT)).thenReturn(free);
+		when(stripeRepository.findBySkuOrderByStripe(HOT)).thenReturn(all);
+
+		assertThat(hotSkuStock.take(HOT, 5)).isTrue();
+
+		InOrder inOrder = inOrder(inventoryItemRepository, stripeRepository);
+		inOrder.verify(inventoryItemRepository).lockQuantity(HOT);
+		inOrder.verify(stripeRepository).findUnlockedBySku(HOT);
+		inOrder.verify(stripeRepository).findBySkuOrderByStripe(HOT);
+		assertThat(all).extracting(StockStripe::getQuantity).containsExactly(1, 0, 0, 0);
+	}
+
+	@Test
+	void take_whenNotEnoughInTotal_shouldLeaveStockAlone() {
+		List<StockStripe> stripes = stripes(1, 1, 0, 0);
+		when(stripeRepository.decrementStock(eq(HOT), anyInt(), eq(5))).thenReturn(0);
+		when(inventoryItemRepository.lockQuantity(HOT)).thenReturn(Optional.of(1));
+		when(stripeRepository.findUnlockedBySku(HOT)).thenReturn(stripes);
+		when(stripeRepository.findBySkuOrderByStripe(HOT)).thenReturn(stripes);
+
+		assertThat(hotSkuStock.take(HOT, 5)).isFalse();
+
+		verify(inventoryItemRepository, never()).decrementStock(any(), anyInt());
+		assertThat(stripes).extracting(StockStripe::getQuantity).containsExactly(1, 1, 0, 0);
+	}
+
+	@Test
+	void take_onFirstRebalance_shouldCreateTheStripes() {
+		List<StockStripe> stripes = stripes(0, 0, 0, 0);
+		when(stripeRepository.decrementStock(eq(HOT), anyInt(), eq(1))).thenReturn(0);
+		when(inventoryItemRepository.lockQuantity(HOT)).thenReturn(Optional.of(9));
+		when(stripeRepository.findUnlockedBySku(HOT)).thenReturn(List.of());
+		when(stripeRepository.findBySkuOrderByStripe(HOT)).thenReturn(List.of(), stripes);
+
+		assertThat(hotSkuStock.take(HOT, 1)).isTrue();
+
+		verify(stripeRepository).createStripes(HOT, 4);
+		verify(inventoryItemRepository).decrementStock(HOT, 9);
+		assertThat(stripes).extracting(StockStripe::getQuantity).containsExactly(2, 2, 2, 2);
+	}
+
+	@Test
+	void take_whenSkuDoesNotExist_shouldReturnFalse() {
+		when(stripeRepository.decrementStock(eq(HOT), anyInt(), eq(1))).thenReturn(0);
+		when(inventoryItemRepository.lockQuantity(HOT)).thenReturn(Optional.empty());
+
+		assertThat(hotSkuStock.take(HOT, 1)).isFalse();
+
+		verify(stripeRepository, never()).createStripes(any(), anyInt());
+	}
+
+	@Test
+	void withStripes_shouldAddStockAndVersionOfHotSkusOnly() {
+		StripeTotal total = total(HOT, 30, 12, 4);
+		when(stripeRepository.sumBySkuIn(List.of(HOT))).thenReturn(List.of(total));
+
+		List<ItemResponse> result = hotSkuStock.withStripes(List.of(item("COLD-SKU", 5, 2), item(HOT, 3, 7)));
+
+		assertThat(result).extracting(ItemResponse::quantity).containsExactly(5, 33);
+		assertThat(result).extracting(ItemResponse::version).containsExactly(2L, 19L);
+	}
+
+	@Test
+	void withStripes_shouldReportTheLaterUpdateOfItemAndStripes() {
+		ItemResponse item = item(HOT, 3, 7);
+		Instant stripeWrite = item.updatedAt().plusSeconds(60);
+		StripeTotal total = total(HOT, 30, 12, 4);
+		when(total.getUpdatedAt()).thenReturn(stripeWrite);
+		when(stripeRepository.sumBySkuIn(List.of(HOT))).thenReturn(List.of(total));
+
+		assertThat(hotSkuStock.withStripes(item).updatedAt()).isEqualTo(stripeWrite);
+	}
+
+	@Test
+	void stripeTotals_shouldReadAllHotSkusOnceAndAddThem() {
+		StripeTotal total = total(HOT, 30, 12, 4);
+		when(stripeRepository.sumBySkuIn(Set.of(HOT))).thenReturn(List.of(total));
+
+		UnaryOperator<ItemResponse> withStripes = hotSkuStock.stripeTotals();
+
+		assertThat(withStripes.apply(item(HOT, 3, 7)).quantity()).isEqualTo(33);
+		assertThat(withStripes.apply(item("COLD-SKU", 5, 2)).quantity()).isEqualTo(5);
+		verify(stripeRepository, times(1)).sumBySkuIn(any());
+	}
+
+	@Test
+	void clearStripes_shouldLockTheItemRowFirst() {
+		hotSkuStock.clearStripes(HOT);
+
+		InOrder inOrder = inOrder(inventoryItemRepository, stripeRepository);
+		inOrder.verify(inventoryItemRepository).lockQuantity(HOT);
+		inOrder.verify(stripeRepository).clearStock(HOT);
+	}
+
+	@Test
+	void withStripes_withoutHotSkus_shouldNotQuery() {
+		List<ItemResponse> items = List.of(item("COLD-SKU", 5, 2));
+
+		assertThat(hotSkuStock.withStripes(items)).isSameAs(items);
+
+		verifyNoInteractions(stripeRepository);
+	}
+
+	@Test
+	void foldRetiredStripes_shouldMoveStockOfSkusNoLongerHotBackToTheItem() {
+		StripeTotal retired = total("OLD-SKU", 7, 7, 2);
+		StripeTotal current = total(HOT, 10, 3, 4);
+		List<StockStripe> stripes = stripes(3, 4);
+		stripes.get(0).setVersion(2);
+		stripes.get(1).setVersion(5);
+		when(stripeRepository.sumAll()).thenReturn(List.of(retired, current));
+		when(stripeRepository.findBySkuOrderByStripe("OLD-SKU")).thenReturn(stripes);
+
+		hotSkuStock.foldRetiredStripes();
+
+		verify(inventoryItemRepository).lockQuantity("OLD-SKU");
+		verify(inventoryItemRepository).absorbStripes("OLD-SKU", 7, 7);
+		verify(stripeRepository).deleteAll(stripes);
+		verify(inventoryItemRepository, never()).absorbStripes(eq(HOT), anyLong(), anyLong());
+	}
+
+	private static List<StockStripe> stripes(int... quantities) {
+		List<StockStripe> stripes = new ArrayList<>();
+		for (int i = 0; i < quantities.length; i++) {
+			StockStripe stripe = new StockStripe();
+			stripe.setSku(HOT);
+			stripe.setStripe(i);
+			stripe.setQuantity(quantities[i]);
+			stripes.add(stripe);
+		}
+		return stripes;
+	}
+
+	private static StripeTotal total(String sku, long quantity, long version, long stripes) {
+		StripeTotal total = mock(StripeTotal.class);
+		lenient().when(total.getSku()).thenReturn(sku);
+		lenient().when(total.getQuantity()).thenReturn(quantity);
+		lenient().when(total.getVersion()).thenReturn(version);
+		lenient().when(total.getStripes()).thenReturn(stripes);
+		return total;
+	}
+
+	private static ItemResponse item(String sku, int quantity, long version) {
+		Instant now = Instant.now();
+		return new ItemResponse(UUID.randomUUID(), sku, "Item", null, quantity, 100, now, now, version);
+	}
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.riddle.microstore.inventory.inventory.item.dto.CreateItemRequest;
 import dev.riddle.microstore.inventory.inventory.item.dto.ItemResponse;
 import dev.riddle.microstore.inventory.testutil.ItemTestData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -29,7 +30,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
     controllers = InventoryController.class,
     excludeAutoConfiguration = {OAuth2ResourceServerAutoConfiguration.class}
 )
-@Import(ResourceServerConfig.class)
+// The slice has no metrics, the JWT cache in ResourceServerConfig needs a registry
+@Import({ResourceServerConfig.class, ItemCacheControl.class, SimpleMeterRegistry.class})
 @TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
 class InventoryControllerSecurityTest {
 
@@ -55,6 +57,12 @@ class InventoryControllerSecurityTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void metrics_withoutAuth_shouldReturn401() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void getItem_withReadScope_shouldReturn200() throws Exception {
         ItemResponse response = new ItemResponse(
@@ -65,7 +73,8 @@ class InventoryControllerSecurityTest {
                 100,
                 1999,
                 Instant.now(),
-                Instant.now()
+                Instant.now(),
+                0
         );
 
         when(service.getItemBySku("TEST-SKU")).thenReturn(response);
@@ -97,7 +106,8 @@ class InventoryControllerSecurityTest {
                 request.quantity(),
                 request.priceInCents(),
                 Instant.now(),
-                Instant.now()
+                Instant.now(),
+                0
         );
 
         when(service.createItem(any(CreateItemRequest.class))).thenReturn(response);
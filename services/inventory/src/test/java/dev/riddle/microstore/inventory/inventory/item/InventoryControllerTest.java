@@ -4,24 +4,43 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.riddle.microstore.inventory.inventory.item.dto.CreateItemRequest;
 import dev.riddle.microstore.inventory.inventory.item.dto.ItemResponse;
 import dev.riddle.microstore.inventory.shared.error.NotFoundException;
+import dev.riddle.microstore.inventory.shared.error.PreconditionFailedException;
+import dev.riddle.microstore.inventory.shared.paging.CursorPageResponse;
 import dev.riddle.microstore.inventory.testutil.ItemTestData;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.TestConstructor;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(InventoryController.class)
 @AutoConfigureMockMvc(addFilters = false) // disable security filters for controller-only tests
+@Import(ItemCacheControl.class)
 @TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
 public class InventoryControllerTest {
 
@@ -48,7 +67,8 @@ public class InventoryControllerTest {
 			request.priceInCents(),
 			request.quantity(),
 			Instant.now(),
-			Instant.now()
+			Instant.now(),
+			0
 		);
 
 		when(inventoryService.createItem(request))
@@ -106,7 +126,8 @@ public class InventoryControllerTest {
 			1999,
 			1,
 			Instant.now(),
-			Instant.now()
+			Instant.now(),
+			0
 		);
 
 		when(inventoryService.getItemBySku(sku)).thenReturn(response);
@@ -116,4 +137,169 @@ public class InventoryControllerTest {
 			.andExpect(jsonPath("$.sku").value(sku))
 			.andExpect(jsonPath("$.name").value("Test Item"));
 	}
+
+	@Test
+	void getItemsBySkus_shouldReturnAllFoundItems() throws Exception {
+		ItemResponse first = new ItemResponse(null, "TEST-SKU-001", "First", null, 1, 100, Instant.now(), Instant.now(), 0);
+		ItemResponse second = new ItemResponse(null, "TEST-SKU-002", "Second", null, 2, 200, Instant.now(), Instant.now(), 0);
+
+		when(inventoryService.getItemsBySkus(List.of("TEST-SKU-001", "TEST-SKU-002")))
+			.thenReturn(List.of(first, second));
+
+		mockMvc.perform(get("/api/inventory/batch")
+				.param("skus", "TEST-SKU-001", "TEST-SKU-002"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(2))
+			.andExpect(jsonPath("$[0].sku").value("TEST-SKU-001"))
+			.andExpect(jsonPath("$[1].sku").value("TEST-SKU-002"));
+	}
+
+	@Test
+	void scrollItems_shouldReturnPageWithNextCursor() throws Exception {
+		ItemResponse first = new ItemResponse(null, "TEST-SKU-001", "First", null, 1, 100, Instant.now(), Instant.now(), 0);
+		ItemSpecificationFilter filter = new ItemSpecificationFilter("fir", null, null, null, null, null, null);
+
+		when(inventoryService.scrollItems(filter, ItemScrollOrder.SKU, "abc", 1, false))
+			.thenReturn(new CursorPageResponse<>(List.of(first), 1, "next", null));
+
+		mockMvc.perform(get("/api/inventory/scroll")
+				.param("name", "fir")
+				.param("order", "SKU")
+				.param("cursor", "abc")
+				.param("size", "1"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.content[0].sku").value("TEST-SKU-001"))
+			.andExpect(jsonPath("$.nextCursor").value("next"));
+	}
+
+	@Test
+	void getItems_withCountNone_shouldReturnSliceWithoutTotals() throws Exception {
+		ItemResponse first = new ItemResponse(null, "TEST-SKU-001", "First", null, 1, 100, Instant.now(), Instant.now(), 0);
+		ItemSpecificationFilter filter = new ItemSpecificationFilter(null, null, null, null, null, null, null);
+		Pageable pageable = PageRequest.of(0, 1, Sort.by("name"));
+
+		when(inventoryService.getItemsByQuery(filter, pageable, CountMode.NONE))
+			.thenReturn(new SliceImpl<>(List.of(first), pageable, true));
+
+		mockMvc.perform(get("/api/inventory")
+				.param("size", "1")
+				.param("count", "NONE"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.content[0].sku").value("TEST-SKU-001"))
+			.andExpect(jsonPath("$.last").value(false))
+			.andExpect(jsonPath("$.totalElements").doesNotExist());
+	}
+
+	@Test
+	void exportItems_withGzip_shouldStreamCompressedNdjson() throws Exception {
+		ItemSpecificationFilter filter = new ItemSpecificationFilter(null, null, 1, null, null, null, null);
+		when(inventoryService.exportItems(eq(filter), any(OutputStream.class))).thenAnswer(invocation -> {
+			OutputStream out = invocation.getArgument(1);
+			out.write("{\"sku\":\"TEST-SKU-001\"}\n".getBytes(StandardCharsets.UTF_8));
+			return 1L;
+		});
+
+		MvcResult started = mockMvc.perform(get("/api/inventory/export")
+				.param("minQuantity", "1")
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		MvcResult result = mockMvc.perform(asyncDispatch(started))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+			.andReturn();
+
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+			assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"sku\":\"TEST-SKU-001\"}\n");
+		}
+	}
+
+	@Test
+	void getItemById_shouldSendValidatorsAndCacheControl() throws Exception {
+		Instant updatedAt = Instant.parse("2025-03-01T10:15:30Z");
+		when(inventoryService.getItemBySku("TEST-SKU-001"))
+			.thenReturn(new ItemResponse(null, "TEST-SKU-001", "Test Item", null, 100, 1999, updatedAt, updatedAt, 7));
+
+		mockMvc.perform(get("/api/inventory/TEST-SKU-001"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+			.andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, updatedAt.toEpochMilli()))
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+			.andExpect(jsonPath("$.sku").value("TEST-SKU-001"));
+	}
+
+	@Test
+	void getItemById_whenETagMatches_shouldReturnNotModifiedWithoutBody() throws Exception {
+		when(inventoryService.getItemBySku("TEST-SKU-001"))
+			.thenReturn(new ItemResponse(null, "TEST-SKU-001", "Test Item", null, 100, 1999, Instant.now(), Instant.now(), 7));
+
+		mockMvc.perform(get("/api/inventory/TEST-SKU-001")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+			.andExpect(content().string(""));
+	}
+
+	@Test
+	void getItemById_whenETagIsStale_shouldReturnItem() throws Exception {
+		when(inventoryService.getItemBySku("TEST-SKU-001"))
+			.thenReturn(new ItemResponse(null, "TEST-SKU-001", "Test Item", null, 100, 1999, Instant.now(), Instant.now(), 8));
+
+		mockMvc.perform(get("/api/inventory/TEST-SKU-001")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"8\""))
+			.andExpect(jsonPath("$.version").value(8));
+	}
+
+	@Test
+	void getItemById_whenNotModifiedSince_shouldReturnNotModified() throws Exception {
+		Instant updatedAt = Instant.parse("2025-03-01T10:15:30Z");
+		when(inventoryService.getItemBySku("TEST-SKU-001"))
+			.thenReturn(new ItemResponse(null, "TEST-SKU-001", "Test Item", null, 100, 1999, updatedAt, updatedAt, 7));
+
+		mockMvc.perform(get("/api/inventory/TEST-SKU-001")
+				.header(HttpHeaders.IF_MODIFIED_SINCE, "Sat, 01 Mar 2025 10:15:30 GMT"))
+			.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void updateItem_shouldPassIfMatchVersionAndReturnNewETag() throws Exception {
+		ItemResponse updated = new ItemResponse(null, "TEST-SKU-001", "Updated Name", null, 100, 1999, Instant.now(), Instant.now(), 4);
+		when(inventoryService.updateItem("TEST-SKU-001", ItemTestData.updateRequest(), 3L))
+			.thenReturn(updated);
+
+		mockMvc.perform(patch("/api/inventory/TEST-SKU-001")
+				.header(HttpHeaders.IF_MATCH, "W/\"3\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(ItemTestData.updateRequest())))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+	}
+
+	@Test
+	void updateItem_whenVersionIsStale_shouldReturnPreconditionFailed() throws Exception {
+		when(inventoryService.updateItem("TEST-SKU-001", ItemTestData.updateRequest(), 2L))
+			.thenThrow(new PreconditionFailedException("InventoryItem TEST-SKU-001 is at version 3"));
+
+		mockMvc.perform(patch("/api/inventory/TEST-SKU-001")
+				.header(HttpHeaders.IF_MATCH, "\"2\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(ItemTestData.updateRequest())))
+			.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void updateItem_whenConcurrentUpdateWinsWithoutIfMatch_shouldReturnConflict() throws Exception {
+		when(inventoryService.updateItem("TEST-SKU-001", ItemTestData.updateRequest(), null))
+			.thenThrow(new ObjectOptimisticLockingFailureException(InventoryItem.class, "TEST-SKU-001"));
+
+		mockMvc.perform(patch("/api/inventory/TEST-SKU-001")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(ItemTestData.updateRequest())))
+			.andExpect(status().isConflict());
+	}
 }
@@ -0,0 +1,105 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+import dev.riddle.microstore.inventory.inventory.item.dto.ItemResponse;
+import dev.riddle.microstore.inventory.shared.paging.CursorPageResponse;
+import dev.riddle.microstore.inventory.testutil.InventoryServiceSlice;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestConstructor;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@InventoryServiceSlice
+public class InventoryScrollTest {
+
+	@Container
+	static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:16-alpine")
+		.withDatabaseName("inventory-test")
+		.withUsername("test")
+		.withPassword("test");
+
+	@DynamicPropertySource
+	static void configureProperties(DynamicPropertyRegistry registry) {
+		// Use Testcontainers-provided JDBC URL (mapped host/port, via TESTCONTAINERS_HOST_OVERRIDE).
+		registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+		registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+		registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+	}
+
+	private static final ItemSpecificationFilter NO_FILTER = new ItemSpecificationFilter(null, null, null, null, null, null, null);
+
+	private final InventoryService inventoryService;
+	private final InventoryItemRepository inventoryItemRepository;
+
+	InventoryScrollTest(InventoryService inventoryService, InventoryItemRepository inventoryItemRepository) {
+		this.inventoryService = inventoryService;
+		this.inventoryItemRepository = inventoryItemRepository;
+	}
+
+	@Test
+	void scrollItems_byName_shouldVisitEveryItemOnceEvenWithEqualNames() {
+		List<InventoryItem> items = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			InventoryItem item = new InventoryItem();
+			item.setSku("SCROLL-%04d".formatted(i));
+			// Lots of ties so the id has to break them
+			item.setName("Item " + (i % 4));
+			item.setQuantity(i);
+			item.setPriceInCents(100);
+			items.add(item);
+		}
+		inventoryItemRepository.saveAllAndFlush(items);
+
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			CursorPageResponse<ItemResponse> page = inventoryService.scrollItems(NO_FILTER, ItemScrollOrder.NAME, cursor, 7, pages == 0);
+			if (pages == 0) {
+				assertThat(page.totalItems()).isEqualTo(25);
+			}
+			page.content().forEach(item -> seen.add(item.sku()));
+			cursor = page.nextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(4);
+		assertThat(seen).hasSize(25).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void scrollItems_bySku_shouldHonourFilter() {
+		for (int i = 0; i < 10; i++) {
+			InventoryItem item = new InventoryItem();
+			item.setSku("FILTER-%04d".formatted(i));
+			item.setName("Filtered " + i);
+			item.setQuantity(i);
+			item.setPriceInCents(100);
+			inventoryItemRepository.save(item);
+		}
+		inventoryItemRepository.flush();
+
+		ItemSpecificationFilter lowStock = new ItemSpecificationFilter(null, null, null, 4, null, null, null);
+		CursorPageResponse<ItemResponse> first = inventoryService.scrollItems(lowStock, ItemScrollOrder.SKU, null, 3, false);
+		CursorPageResponse<ItemResponse> second = inventoryService.scrollItems(lowStock, ItemScrollOrder.SKU, first.nextCursor(), 3, false);
+
+		assertThat(first.content()).extracting(ItemResponse::sku)
+			.containsExactly("FILTER-0000", "FILTER-0001", "FILTER-0002");
+		assertThat(second.content()).extracting(ItemResponse::sku)
+			.containsExactly("FILTER-0003", "FILTER-0004");
+		assertThat(second.nextCursor()).isNull();
+	}
+}
@@ -1,23 +1,59 @@
 package dev.riddle.microstore.inventory.inventory.item;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.assertThat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
+import dev.riddle.microstore.inventory.inventory.catalog.CatalogReadModel;
+import dev.riddle.microstore.inventory.inventory.event.ItemEventPublisher;
+import dev.riddle.microstore.inventory.inventory.event.ItemEventType;
 import dev.riddle.microstore.inventory.inventory.item.dto.CreateItemRequest;
 import dev.riddle.microstore.inventory.inventory.item.dto.ItemResponse;
+import dev.riddle.microstore.inventory.inventory.item.dto.StockLevelResponse;
 import dev.riddle.microstore.inventory.inventory.item.dto.UpdateItemRequest;
+import dev.riddle.microstore.inventory.shared.error.BadRequestException;
+import dev.riddle.microstore.inventory.shared.error.InsufficientStockException;
 import dev.riddle.microstore.inventory.shared.error.NotFoundException;
+import dev.riddle.microstore.inventory.shared.error.PreconditionFailedException;
+import dev.riddle.microstore.inventory.shared.paging.CursorPageResponse;
 import dev.riddle.microstore.inventory.testutil.ItemTestData;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,9 +65,33 @@ public class InventoryServiceTest {
 	@Mock
 	private ItemMapper mapper;
 
+	@Mock
+	private HotSkuStock hotSkuStock;
+
+	@Mock
+	private ItemEventPublisher itemEventPublisher;
+
+	@Mock
+	private ItemCountCache itemCountCache;
+
+	@Mock
+	private ObjectProvider<CatalogReadModel> catalogReadModel;
+
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
 	@InjectMocks
 	private InventoryService service;
 
+	@BeforeEach
+	void setUp() {
+		// No hot SKUs unless a test says otherwise
+		lenient().when(hotSkuStock.withStripes(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+		lenient().when(hotSkuStock.withStripes(any(ItemResponse.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		lenient().when(hotSkuStock.lockVersionOf(any())).thenAnswer(invocation -> invocation.getArgument(0, InventoryItem.class).getVersion());
+		lenient().when(hotSkuStock.stripeTotals()).thenReturn(UnaryOperator.identity());
+	}
+
 	@Test
 	void createItem_shouldSaveAndReturnResponse() {
 		CreateItemRequest request = ItemTestData.createRequest();
@@ -44,11 +104,12 @@ public class InventoryServiceTest {
 				entity.getPriceInCents(),
 				entity.getQuantity(),
 				entity.getCreatedAt(),
-				entity.getUpdatedAt());
+				entity.getUpdatedAt(),
+				0);
 
 		when(mapper.toEntity(request))
 			.thenReturn(entity);
-		when(repository.save(any(InventoryItem.class)))
+		when(repository.saveAndFlush(any(InventoryItem.class)))
 			.thenReturn(entity);
 		when(mapper.toResponse(entity))
 			.thenReturn(response);
@@ -56,7 +117,8 @@ public class InventoryServiceTest {
 		ItemResponse result = service.createItem(request);
 
 		assertThat(result).isEqualTo(response);
-		verify(repository).save(entity);
+		verify(repository).saveAndFlush(entity);
+		verify(itemEventPublisher).publish(entity.getSku(), ItemEventType.CREATED);
 	}
 
 	@Test
@@ -80,7 +142,8 @@ public class InventoryServiceTest {
 				entity.getPriceInCents(),
 				entity.getQuantity(),
 				entity.getCreatedAt(),
-				entity.getUpdatedAt());
+				entity.getUpdatedAt(),
+				0);
 
 		when(repository.findBySku(entity.getSku()))
 			.thenReturn(Optional.of(entity));
@@ -92,15 +155,50 @@ public class InventoryServiceTest {
 		assertThat(result).isEqualTo(response);
 	}
 
+	@Test
+	void getItemsBySkus_shouldQueryDistinctSkusOnce() {
+		InventoryItem entity = ItemTestData.inventoryItem();
+		ItemResponse response = new ItemResponse(
+				null,
+				entity.getSku(),
+				entity.getName(),
+				entity.getDescription(),
+				entity.getPriceInCents(),
+				entity.getQuantity(),
+				entity.getCreatedAt(),
+				entity.getUpdatedAt(),
+				0);
+
+		when(repository.findBySkuIn(any()))
+			.thenReturn(List.of(entity));
+		when(mapper.toResponse(entity))
+			.thenReturn(response);
+
+		List<ItemResponse> result = service.getItemsBySkus(List.of(entity.getSku(), entity.getSku(), "MISSING-SKU"));
+
+		assertThat(result).containsExactly(response);
+		verify(repository).findBySkuIn(Set.of(entity.getSku(), "MISSING-SKU"));
+	}
+
+	@Test
+	void getItemsBySkus_whenTooManySkus_shouldThrowBadRequestException() {
+		List<String> skus = IntStream.rangeClosed(0, InventoryService.MAX_BATCH_SIZE)
+			.mapToObj(i -> "SKU-" + i)
+			.toList();
+
+		assertThatThrownBy(() -> service.getItemsBySkus(skus))
+			.isInstanceOf(BadRequestException.class);
+	}
+
 	@Test
 	void updateItem_shouldUpdateOnlyProvidedFields() {
 		String sku = "TEST-SKU-001";
 		InventoryItem existing = ItemTestData.inventoryItem();
 		UpdateItemRequest updateRequest = ItemTestData.updateRequest();
 
-		when(repository.findBySku(sku))
+		when(repository.lockBySku(sku))
 			.thenReturn(Optional.of(existing));
-		when(repository.save(any(InventoryItem.class)))
+		when(repository.saveAndFlush(any(InventoryItem.class)))
 			.thenReturn(existing);
 		when(mapper.toResponse(any(InventoryItem.class)))
 			.thenReturn(
@@ -111,13 +209,111 @@ public class InventoryServiceTest {
 					updateRequest.priceInCents(),
 					updateRequest.quantity(),
 					existing.getCreatedAt(),
-					existing.getUpdatedAt()));
+					existing.getUpdatedAt(),
+					0));
 
-		ItemResponse result = service.updateItem(sku, updateRequest);
+		ItemResponse result = service.updateItem(sku, updateRequest, null);
 
 		assertThat(result.name())
 			.isEqualTo(updateRequest.name());
-		verify(repository).save(existing);
+		verify(repository).saveAndFlush(existing);
+		verify(itemEventPublisher).publish(sku, ItemEventType.UPDATED);
+	}
+
+	@Test
+	void updateItem_withQuantityOfHotSku_shouldClearItsStripes() {
+		InventoryItem existing = ItemTestData.inventoryItem();
+		when(hotSkuStock.isHot(existing.getSku())).thenReturn(true);
+		when(repository.lockBySku(existing.getSku())).thenReturn(Optional.of(existing));
+		when(repository.saveAndFlush(existing)).thenReturn(existing);
+
+		service.updateItem(existing.getSku(), ItemTestData.updateRequest(), null);
+
+		verify(hotSkuStock).clearStripes(existing.getSku());
+	}
+
+	@Test
+	void updateItem_withStaleVersion_shouldThrowPreconditionFailed() {
+		InventoryItem existing = ItemTestData.inventoryItem();
+		existing.setVersion(3);
+
+		when(repository.lockBySku(existing.getSku()))
+			.thenReturn(Optional.of(existing));
+
+		assertThatThrownBy(() -> service.updateItem(existing.getSku(), ItemTestData.updateRequest(), 2L))
+			.isInstanceOf(PreconditionFailedException.class);
+		verify(repository, never()).saveAndFlush(any());
+	}
+
+	@Test
+	void updateItem_withVersionOfHotSku_shouldCompareAgainstItemAndStripes() {
+		InventoryItem existing = ItemTestData.inventoryItem();
+		existing.setVersion(3);
+		when(repository.lockBySku(existing.getSku())).thenReturn(Optional.of(existing));
+		when(hotSkuStock.lockVersionOf(existing)).thenReturn(7L);
+
+		assertThatThrownBy(() -> service.updateItem(existing.getSku(), ItemTestData.updateRequest(), 3L))
+			.isInstanceOf(PreconditionFailedException.class)
+			.hasMessageContaining("version 7");
+		verify(repository, never()).saveAndFlush(any());
+	}
+
+	@Test
+	void updateItem_withoutVersion_shouldNotCheckOrLockStripes() {
+		InventoryItem existing = ItemTestData.inventoryItem();
+		when(repository.lockBySku(existing.getSku())).thenReturn(Optional.of(existing));
+		when(repository.saveAndFlush(existing)).thenReturn(existing);
+
+		service.updateItem(existing.getSku(), ItemTestData.updateRequest(), null);
+
+		verify(hotSkuStock, never()).lockVersionOf(any());
+		verify(repository, never()).findBySku(any());
+		verify(repository).saveAndFlush(existing);
+	}
+
+	@Test
+	void adjustQuantity_shouldUpdateWithoutLoadingTheItem() {
+		StockLevel level = mock(StockLevel.class);
+		when(level.getSku()).thenReturn("TEST-SKU-001");
+		when(level.getQuantity()).thenReturn(95);
+		when(level.getVersion()).thenReturn(4L);
+		when(repository.adjustQuantity("TEST-SKU-001", -5)).thenReturn(Optional.of(level));
+
+		StockLevelResponse result = service.adjustQuantity("TEST-SKU-001", -5);
+
+		assertThat(result).isEqualTo(new StockLevelResponse("TEST-SKU-001", 95, 4));
+		verify(repository, never()).findBySku(any());
+		verify(itemEventPublisher).publish("TEST-SKU-001", ItemEventType.QUANTITY_CHANGED);
+	}
+
+	@Test
+	void adjustQuantity_belowZero_shouldThrowInsufficientStock() {
+		when(repository.adjustQuantity("TEST-SKU-001", -500)).thenReturn(Optional.empty());
+		when(repository.existsBySku("TEST-SKU-001")).thenReturn(true);
+
+		assertThatThrownBy(() -> service.adjustQuantity("TEST-SKU-001", -500))
+			.isInstanceOf(InsufficientStockException.class);
+		verify(itemEventPublisher, never()).publish(any(), any());
+	}
+
+	@Test
+	void adjustQuantity_onHotSkuRemoval_shouldTakeFromStripesAndReportTotal() {
+		InventoryItem item = ItemTestData.inventoryItem();
+		ItemResponse base = new ItemResponse(item.getId(), item.getSku(), item.getName(), item.getDescription(),
+			0, item.getPriceInCents(), item.getCreatedAt(), item.getUpdatedAt(), 7);
+		ItemResponse striped = new ItemResponse(item.getId(), item.getSku(), item.getName(), item.getDescription(),
+			40, item.getPriceInCents(), item.getCreatedAt(), item.getUpdatedAt(), 19);
+		when(hotSkuStock.isHot(item.getSku())).thenReturn(true);
+		when(hotSkuStock.take(item.getSku(), 5)).thenReturn(true);
+		when(repository.findBySku(item.getSku())).thenReturn(Optional.of(item));
+		when(mapper.toResponse(item)).thenReturn(base);
+		when(hotSkuStock.withStripes(base)).thenReturn(striped);
+
+		StockLevelResponse result = service.adjustQuantity(item.getSku(), -5);
+
+		assertThat(result).isEqualTo(new StockLevelResponse(item.getSku(), 40, 19));
+		verify(repository, never()).adjustQuantity(any(), anyInt());
+		verify(itemEventPublisher).publish(item.getSku(), ItemEventType.QUANTITY_CHANGED);
 	}
 
 	@Test
@@ -140,5 +336,153 @@ public class InventoryServiceTest {
 		service.deleteItem(entity.getSku());
 
 		verify(repository).deleteBySku(entity.getSku());
+		verify(itemEventPublisher).publish(entity.getSku(), ItemEventType.DELETED);
+	}
+
+	@Test
+	void getItemsByQuery_withoutCount_shouldReturnSliceWithoutCounting() {
+		InventoryItem entity = ItemTestData.inventoryItem();
+		Pageable pageable = PageRequest.of(0, 1);
+
+		doReturn(new SliceImpl<>(List.of(entity), pageable, true)).when(repository).findBy(any(Specification.class), any());
+
+		Slice<ItemResponse> result = service.getItemsByQuery(
+			new ItemSpecificationFilter(null, null, null, null, null, null, null), pageable, CountMode.NONE);
+
+		assertThat(result).isNotInstanceOf(Page.class);
+		assertThat(result.hasNext()).isTrue();
+		verify(repository, never()).count(any(Specification.class));
+		verify(repository, never()).findAll(any(Specification.class), any(Pageable.class));
+	}
+
+	@Test
+	void getItemsByQuery_withCachedCount_shouldReturnPageWithCachedTotal() {
+		InventoryItem entity = ItemTestData.inventoryItem();
+		Pageable pageable = PageRequest.of(0, 1);
+		ItemSpecificationFilter filter = new ItemSpecificationFilter("item", null, null, null, null, null, null);
+
+		doReturn(new SliceImpl<>(List.of(entity), pageable, true)).when(repository).findBy(any(Specification.class), any());
+		when(itemCountCache.count(eq(filter), any())).thenReturn(42L);
+
+		Slice<ItemResponse> result = service.getItemsByQuery(filter, pageable, CountMode.CACHED);
+
+		assertThat(result).isInstanceOf(Page.class);
+		assertThat(((Page<ItemResponse>) result).getTotalElements()).isEqualTo(42L);
+		verify(repository, never()).count(any(Specification.class));
+	}
+
+	@Test
+	void getItemsByQuery_withCatalogSnapshot_shouldNotQueryRepository() {
+		CatalogReadModel catalog = mock(CatalogReadModel.class);
+		ItemSpecificationFilter filter = new ItemSpecificationFilter(null, null, null, null, null, null, null);
+		Pageable pageable = PageRequest.of(0, 1);
+		Slice<ItemResponse> fromSnapshot = new SliceImpl<>(List.of(), pageable, false);
+
+		when(catalogReadModel.getIfAvailable()).thenReturn(catalog);
+		when(catalog.query(filter, pageable, CountMode.NONE)).thenReturn(Optional.of(fromSnapshot));
+
+		assertThat(service.getItemsByQuery(filter, pageable, CountMode.NONE)).isSameAs(fromSnapshot);
+		verifyNoInteractions(repository);
+	}
+
+	@Test
+	void getItemsByQuery_sortedByRelevanceWithoutSearch_shouldThrowBadRequestException() {
+		Pageable pageable = PageRequest.of(0, 10, Sort.by(InventoryService.RELEVANCE));
+
+		assertThatThrownBy(() -> service.getItemsByQuery(
+			new ItemSpecificationFilter("desk", null, null, null, null, null, null), pageable, CountMode.EXACT))
+			.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void exportItems_shouldWriteOneJsonObjectPerLine() throws IOException {
+		InventoryItem first = ItemTestData.inventoryItem();
+		InventoryItem second = ItemTestData.inventoryItem();
+		second.setSku("TEST-SKU-002");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		when(repository.streamAll(any(), anyInt())).thenReturn(Stream.of(first, second));
+		when(mapper.toResponse(any(InventoryItem.class))).thenAnswer(invocation -> {
+			InventoryItem item = invocation.getArgument(0);
+			return new ItemResponse(null, item.getSku(), item.getName(), null, item.getQuantity(), item.getPriceInCents(), null, null, 0);
+		});
+
+		long exported = service.exportItems(new ItemSpecificationFilter(null, null, null, null, null, null, null), out);
+
+		assertThat(exported).isEqualTo(2);
+		assertThat(out.toString(StandardCharsets.UTF_8).lines())
+			.hasSize(2)
+			.allSatisfy(line -> assertThat(line).startsWith("{").endsWith("}"))
+			.anySatisfy(line -> assertThat(line).contains("\"sku\":\"TEST-SKU-002\""));
+	}
+
+	@Test
+	void exportItems_withHotSku_shouldIncludeStockOfItsStripes() throws IOException {
+		InventoryItem item = ItemTestData.inventoryItem();
+		item.setQuantity(2);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		when(repository.streamAll(any(), anyInt())).thenReturn(Stream.of(item));
+		when(mapper.toResponse(item)).thenReturn(
+			new ItemResponse(null, item.getSku(), item.getName(), null, 2, item.getPriceInCents(), null, null, 0));
+		when(hotSkuStock.stripeTotals()).thenReturn(response -> new ItemResponse(null, response.sku(), response.name(),
+			null, response.quantity() + 30, response.priceInCents(), null, null, 8));
+
+		service.exportItems(new ItemSpecificationFilter(null, null, null, null, null, null, null), out);
+
+		assertThat(out.toString(StandardCharsets.UTF_8)).contains("\"quantity\":32");
+	}
+
+	@Test
+	void scrollItems_whenMoreItemsThanPageSize_shouldReturnCursorOfLastItem() {
+		List<InventoryItem> rows = IntStream.range(0, 3)
+			.mapToObj(i -> {
+				InventoryItem item = ItemTestData.inventoryItem();
+				item.setId(UUID.randomUUID());
+				item.setName("Item " + i);
+				return item;
+			})
+			.toList();
+
+		doReturn(rows).when(repository).findBy(any(Specification.class), any());
+
+		CursorPageResponse<ItemResponse> result = service.scrollItems(
+			new ItemSpecificationFilter(null, null, null, null, null, null, null), ItemScrollOrder.NAME, null, 2, false);
+
+		assertThat(result.content()).hasSize(2);
+		assertThat(result.totalItems()).isNull();
+		assertThat(ItemCursor.decode(result.nextCursor()))
+			.isEqualTo(new ItemCursor(ItemScrollOrder.NAME, "Item 1", rows.get(1).getId()));
+		verify(repository, never()).count(any(Specification.class));
+	}
+
+	@Test
+	void scrollItems_onLastPage_shouldReturnNoCursorAndCountWhenAsked() {
+		doReturn(List.of(ItemTestData.inventoryItem())).when(repository).findBy(any(Specification.class), any());
+		when(repository.count(any(Specification.class))).thenReturn(1L);
+
+		CursorPageResponse<ItemResponse> result = service.scrollItems(
+			new ItemSpecificationFilter(null, null, null, null, null, null, null), ItemScrollOrder.SKU, null, 2, true);
+
+		assertThat(result.nextCursor()).isNull();
+		assertThat(result.totalItems()).isEqualTo(1L);
+	}
+
+	@Test
+	void scrollItems_withCursorOfOtherOrder_shouldThrowBadRequestException() {
+		String skuCursor = new ItemCursor(ItemScrollOrder.SKU, "TEST-SKU-001", null).encode();
+
+		assertThatThrownBy(() -> service.scrollItems(
+			new ItemSpecificationFilter(null, null, null, null, null, null, null), ItemScrollOrder.NAME, skuCursor, 2, false))
+			.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void itemCursor_shouldRoundTripNamesContainingTheSeparator() {
+		ItemCursor cursor = new ItemCursor(ItemScrollOrder.NAME, "Cable | 2m", UUID.randomUUID());
+
+		assertThat(ItemCursor.decode(cursor.encode())).isEqualTo(cursor);
+		assertThatThrownBy(() -> ItemCursor.decode("not-a-cursor"))
+			.isInstanceOf(BadRequestException.class);
 	}
 }
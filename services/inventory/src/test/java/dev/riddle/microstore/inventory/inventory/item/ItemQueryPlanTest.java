@@ -0,0 +1,107 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+import dev.riddle.microstore.inventory.testutil.InventoryServiceSlice;
+import dev.riddle.microstore.inventory.testutil.SqlRecorder;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestConstructor;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Runs EXPLAIN on the SQL the specifications generate for the filter and sort combinations the
+ * controller accepts, against enough rows that a sequential scan would be a real problem.
+ * Criteria values are inlined so the plan is the one Postgres picks for those exact values.
+ */
+@DataJpaTest(properties = {
+	"spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+	"spring.jpa.properties.hibernate.session_factory.statement_inspector=dev.riddle.microstore.inventory.testutil.SqlRecorder"
+})
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@InventoryServiceSlice
+public class ItemQueryPlanTest {
+
+	@Container
+	static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:16-alpine")
+		.withDatabaseName("inventory-test")
+		.withUsername("test")
+		.withPassword("test");
+
+	@DynamicPropertySource
+	static void configureProperties(DynamicPropertyRegistry registry) {
+		// Use Testcontainers-provided JDBC URL (mapped host/port, via TESTCONTAINERS_HOST_OVERRIDE).
+		registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+		registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+		registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+	}
+
+	private static final int ROWS = 200_000;
+	private static final ItemSpecificationFilter NO_FILTER = new ItemSpecificationFilter(null, null, null, null, null, null, null);
+	private static final Pageable BY_NAME = PageRequest.of(0, 20, Sort.by("name"));
+
+	private final InventoryService inventoryService;
+	private final JdbcTemplate jdbcTemplate;
+
+	ItemQueryPlanTest(InventoryService inventoryService, JdbcTemplate jdbcTemplate) {
+		this.inventoryService = inventoryService;
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Test
+	void specificationQueries_shouldNotFallBackToSequentialScans() {
+		jdbcTemplate.update("""
+			INSERT INTO inventory_item (id, sku, name, description, quantity, price_in_cents, created_at, updated_at)
+			SELECT gen_random_uuid(), 'P' || lpad(i::text, 11, '0'), 'Item ' || md5(i::text),
+				'Description ' || md5((i * 7)::text), i % 1000, 100 + i % 100000, localtimestamp, localtimestamp
+			FROM generate_series(1, ?) AS i
+			""", ROWS);
+		jdbcTemplate.execute("ANALYZE inventory_item");
+
+		String cursor = new ItemCursor(ItemScrollOrder.NAME, "Item 8", new UUID(0, 0)).encode();
+		// md5('42') starts with a1d0c6e8
+		Map<String, Runnable> queries = new LinkedHashMap<>();
+		queries.put("listing by name", () -> list(NO_FILTER, BY_NAME));
+		queries.put("listing by price", () -> list(NO_FILTER, PageRequest.of(0, 20, Sort.by("priceInCents", "name"))));
+		queries.put("sku", () -> list(new ItemSpecificationFilter(null, "P00000000042", null, null, null, null, null), BY_NAME));
+		queries.put("name contains", () -> list(new ItemSpecificationFilter("a1d0c6", null, null, null, null, null, null), BY_NAME));
+		queries.put("price range", () -> list(new ItemSpecificationFilter(null, null, null, null, 5_000, 5_100, null), BY_NAME));
+		queries.put("low stock", () -> list(new ItemSpecificationFilter(null, null, null, 5, null, null, null), BY_NAME));
+		queries.put("low stock in price range", () -> list(new ItemSpecificationFilter(null, null, null, 5, 5_000, 50_000, null), BY_NAME));
+		queries.put("full-text search", () -> list(new ItemSpecificationFilter(null, null, null, null, null, null, "a1d0c6e83f027327d8461063f4ac58a6"), BY_NAME));
+		queries.put("scroll after cursor", () -> inventoryService.scrollItems(NO_FILTER, ItemScrollOrder.NAME, cursor, 20, false));
+
+		SoftAssertions softly = new SoftAssertions();
+		queries.forEach((name, query) -> {
+			SqlRecorder.clear();
+			query.run();
+			softly.assertThat(explain(SqlRecorder.lastSelect()))
+				.as(name)
+				.doesNotContain("Seq Scan on inventory_item");
+		});
+		softly.assertAll();
+	}
+
+	private void list(ItemSpecificationFilter filter, Pageable pageable) {
+		inventoryService.getItemsByQuery(filter, pageable, CountMode.NONE);
+	}
+
+	private String explain(String sql) {
+		// Only the limit and offset are left as parameters once criteria values are inlined
+		return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql.replace("?", "20"), String.class));
+	}
+}
@@ -0,0 +1,98 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestConstructor;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Name search at 1M rows, with the indexes from V5 against the sequential scan the
+ * specification used to get. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+public class ItemSearchBenchmarkTest {
+	private static final Logger log = LoggerFactory.getLogger(ItemSearchBenchmarkTest.class);
+
+	private static final int ROWS = 1_000_000;
+	private static final int RUNS = 5;
+
+	@Container
+	static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:16-alpine")
+		.withDatabaseName("inventory-test")
+		.withUsername("test")
+		.withPassword("test");
+
+	@DynamicPropertySource
+	static void configureProperties(DynamicPropertyRegistry registry) {
+		// Use Testcontainers-provided JDBC URL (mapped host/port, via TESTCONTAINERS_HOST_OVERRIDE).
+		registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+		registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+		registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+	}
+
+	private final InventoryItemRepository inventoryItemRepository;
+	private final JdbcTemplate jdbcTemplate;
+
+	ItemSearchBenchmarkTest(InventoryItemRepository inventoryItemRepository, JdbcTemplate jdbcTemplate) {
+		this.inventoryItemRepository = inventoryItemRepository;
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Test
+	void nameSearch_withIndexes_shouldBeatSequentialScan() {
+		jdbcTemplate.update("""
+			INSERT INTO inventory_item (id, sku, name, description, quantity, price_in_cents, created_at, updated_at)
+			SELECT gen_random_uuid(), 'B' || lpad(i::text, 11, '0'), 'Item ' || md5(i::text),
+				'Description ' || md5((i * 7)::text), i % 500, 100 + i % 10000, localtimestamp, localtimestamp
+			FROM generate_series(1, ?) AS i
+			""", ROWS);
+		jdbcTemplate.execute("ANALYZE inventory_item");
+
+		// md5('42') starts with a1d0c6e8
+		Specification<InventoryItem> substring = ItemSpecifications.nameContains("a1d0c6");
+		Specification<InventoryItem> fullText = ItemSpecifications.searchMatches("item");
+
+		long indexed = medianNanos(substring);
+		long fullTextIndexed = medianNanos(fullText.and(ItemSpecifications.nameContains("a1d0c6")));
+
+		// What the planner had before V5: no usable index, so a sequential scan
+		jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+		jdbcTemplate.execute("SET LOCAL enable_indexscan = off");
+		long sequential = medianNanos(substring);
+
+		log.info("name search over {} rows: trigram {} ms, full-text + trigram {} ms, sequential scan {} ms",
+			ROWS, indexed / 1_000_000, fullTextIndexed / 1_000_000, sequential / 1_000_000);
+
+		assertThat(inventoryItemRepository.count(substring)).isPositive();
+		assertThat(indexed).isLessThan(sequential);
+	}
+
+	private long medianNanos(Specification<InventoryItem> spec) {
+		long[] timings = new long[RUNS];
+		for (int i = 0; i < RUNS; i++) {
+			long start = System.nanoTime();
+			inventoryItemRepository.count(spec);
+			timings[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(timings);
+		return timings[RUNS / 2];
+	}
+}
@@ -0,0 +1,144 @@
+package dev.riddle.microstore.inventory.inventory.item;
+
+import dev.riddle.microstore.inventory.inventory.item.dto.ItemResponse;
+import dev.riddle.microstore.inventory.testutil.InventoryServiceSlice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestConstructor;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@InventoryServiceSlice
+public class ItemSearchTest {
+
+	@Container
+	static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:16-alpine")
+		.withDatabaseName("inventory-test")
+		.withUsername("test")
+		.withPassword("test");
+
+	@DynamicPropertySource
+	static void configureProperties(DynamicPropertyRegistry registry) {
+		// Use Testcontainers-provided JDBC URL (mapped host/port, via TESTCONTAINERS_HOST_OVERRIDE).
+		registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+		registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+		registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+	}
+
+	private final InventoryService inventoryService;
+	private final InventoryItemRepository inventoryItemRepository;
+	private final StockStripeRepository stripeRepository;
+
+	ItemSearchTest(
+		InventoryService inventoryService,
+		InventoryItemRepository inventoryItemRepository,
+		StockStripeRepository stripeRepository
+	) {
+		this.inventoryService = inventoryService;
+		this.inventoryItemRepository = inventoryItemRepository;
+		this.stripeRepository = stripeRepository;
+	}
+
+	@BeforeEach
+	void setUp() {
+		save("SEARCH-0001", "Desk lamp", "Brass lamp for a walnut desk");
+		save("SEARCH-0002", "Walnut desk", "Solid walnut writing desk");
+		save("SEARCH-0003", "Office chair", "Mesh chair");
+		inventoryItemRepository.flush();
+	}
+
+	@Test
+	void search_shouldMatchStemmedWordsInNameAndDescription() {
+		Slice<ItemResponse> result = inventoryService.getItemsByQuery(
+			filter("walnuts"), PageRequest.of(0, 10, Sort.by("sku")), CountMode.NONE);
+
+		assertThat(result.getContent()).extracting(ItemResponse::sku)
+			.containsExactly("SEARCH-0001", "SEARCH-0002");
+	}
+
+	@Test
+	void search_sortedByRelevance_shouldRankNameMatchesFirst() {
+		Slice<ItemResponse> result = inventoryService.getItemsByQuery(
+			filter("walnut"), PageRequest.of(0, 10, Sort.by(InventoryService.RELEVANCE)), CountMode.EXACT);
+
+		assertThat(result.getContent()).extracting(ItemResponse::sku)
+			.containsExactly("SEARCH-0002", "SEARCH-0001");
+	}
+
+	@Test
+	void search_shouldSupportWebSearchSyntax() {
+		Slice<ItemResponse> result = inventoryService.getItemsByQuery(
+			filter("desk -lamp"), PageRequest.of(0, 10, Sort.by("sku")), CountMode.EXACT);
+
+		assertThat(result.getContent()).extracting(ItemResponse::sku)
+			.containsExactly("SEARCH-0002");
+	}
+
+	@Test
+	void nameContains_shouldStillMatchSubstrings() {
+		Slice<ItemResponse> result = inventoryService.getItemsByQuery(
+			new ItemSpecificationFilter("AIR", null, null, null, null, null, null),
+			PageRequest.of(0, 10, Sort.by("sku")), CountMode.EXACT);
+
+		assertThat(result.getContent()).extracting(ItemResponse::sku)
+			.containsExactly("SEARCH-0003");
+	}
+
+	@Test
+	void quantityFilters_shouldCountStockOnStripes() {
+		stripeRepository.createStripes("SEARCH-0003", 2);
+		stripeRepository.incrementStock("SEARCH-0003", 0, 4);
+
+		Slice<ItemResponse> plenty = inventoryService.getItemsByQuery(
+			new ItemSpecificationFilter(null, null, 5, null, null, null, null),
+			PageRequest.of(0, 10, Sort.by("sku")), CountMode.EXACT);
+		Slice<ItemResponse> scarce = inventoryService.getItemsByQuery(
+			new ItemSpecificationFilter(null, null, null, 1, null, null, null),
+			PageRequest.of(0, 10, Sort.by("sku")), CountMode.EXACT);
+
+		assertThat(plenty.getContent()).extracting(ItemResponse::sku).containsExactly("SEARCH-0003");
+		assertThat(scarce.getContent()).extracting(ItemResponse::sku).containsExactly("SEARCH-0001", "SEARCH-0002");
+	}
+
+	@Test
+	void orderByStock_shouldSortOnStockIncludingStripes() {
+		stripeRepository.createStripes("SEARCH-0001", 2);
+		stripeRepository.incrementStock("SEARCH-0001", 1, 9);
+
+		List<InventoryItem> items = inventoryItemRepository.findAll(
+			ItemSpecifications.orderByStock(Sort.by(Sort.Direction.DESC, "quantity", "sku")));
+
+		assertThat(items).extracting(InventoryItem::getSku)
+			.containsExactly("SEARCH-0001", "SEARCH-0003", "SEARCH-0002");
+	}
+
+	private static ItemSpecificationFilter filter(String search) {
+		return new ItemSpecificationFilter(null, null, null, null, null, null, search);
+	}
+
+	private void save(String sku, String name, String description) {
+		InventoryItem item = new InventoryItem();
+		item.setSku(sku);
+		item.setName(name);
+		item.setDescription(description);
+		item.setQuantity(1);
+		item.setPriceInCents(100);
+		inventoryItemRepository.save(item);
+	}
+}
@@ -0,0 +1,119 @@
+package dev.riddle.microstore.inventory.inventory.reservation;
+
+import dev.riddle.microstore.inventory.inventory.event.ItemEventPublisher;
+import dev.riddle.microstore.inventory.inventory.item.HotSkuStock;
+import dev.riddle.microstore.inventory.inventory.item.InventoryItem;
+import dev.riddle.microstore.inventory.inventory.item.InventoryItemRepository;
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReservationLineRequest;
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReserveStockRequest;
+import dev.riddle.microstore.inventory.testutil.ItemTestData;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reservations per second of one SKU from 1, 4, 16 and 64 threads, with its stock on the item
+ * row against split over stripes. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@Import({ReservationService.class, ReservationMapperImpl.class, ItemEventPublisher.class, HotSkuStock.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every reservation must really commit
+public class HotSkuReservationBenchmarkTest {
+	private static final Logger log = LoggerFactory.getLogger(HotSkuReservationBenchmarkTest.class);
+
+	private static final int RESERVATIONS_PER_RUN = 4_000;
+	private static final String PLAIN = "PLAIN-0001";
+	private static final String STRIPED = "STRIPED-0001";
+
+	@Container
+	static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:16-alpine")
+		.withDatabaseName("inventory-test")
+		.withUsername("test")
+		.withPassword("test");
+
+	@DynamicPropertySource
+	static void configureProperties(DynamicPropertyRegistry registry) {
+		// Use Testcontainers-provided JDBC URL (mapped host/port, via TESTCONTAINERS_HOST_OVERRIDE).
+		registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+		registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+		registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+		registry.add("spring.datasource.hikari.maximum-pool-size", () -> "64");
+		registry.add("inventory.stock.hot-skus", () -> STRIPED);
+		registry.add("inventory.stock.stripes", () -> "16");
+	}
+
+	private final ReservationService reservationService;
+	private final InventoryItemRepository inventoryItemRepository;
+
+	HotSkuReservationBenchmarkTest(ReservationService reservationService, InventoryItemRepository inventoryItemRepository) {
+		this.reservationService = reservationService;
+		this.inventoryItemRepository = inventoryItemRepository;
+	}
+
+	@Test
+	void reserve_onStripedSku_shouldScaleBetterWithThreads() throws Exception {
+		for (String sku : List.of(PLAIN, STRIPED)) {
+			InventoryItem item = ItemTestData.inventoryItem();
+			item.setSku(sku);
+			item.setQuantity(10_000_000);
+			inventoryItemRepository.saveAndFlush(item);
+		}
+		// Warm up, which also creates the stripes
+		reservationsPerSecond(PLAIN, 4);
+		reservationsPerSecond(STRIPED, 4);
+
+		double plainMostThreads = 0;
+		double stripedMostThreads = 0;
+		for (int threads : new int[] {1, 4, 16, 64}) {
+			double plain = reservationsPerSecond(PLAIN, threads);
+			double striped = reservationsPerSecond(STRIPED, threads);
+			log.info("{} threads: {} reservations/s on the item row, {} reservations/s striped ({}x)",
+				threads, Math.round(plain), Math.round(striped), String.format("%.1f", striped / plain));
+
+			plainMostThreads = plain;
+			stripedMostThreads = striped;
+		}
+
+		assertThat(stripedMostThreads).isGreaterThan(plainMostThreads);
+	}
+
+	private double reservationsPerSecond(String sku, int threads) throws Exception {
+		ReserveStockRequest request = new ReserveStockRequest(List.of(new ReservationLineRequest(sku, 1)));
+
+		long start = System.nanoTime();
+		try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < RESERVATIONS_PER_RUN; i++) {
+				futures.add(executor.submit(() -> reservationService.reserve(request)));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		return RESERVATIONS_PER_RUN / ((System.nanoTime() - start) / 1e9);
+	}
+}
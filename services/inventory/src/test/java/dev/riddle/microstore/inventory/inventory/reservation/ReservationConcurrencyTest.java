@@ -0,0 +1,154 @@
+package dev.riddle.microstore.inventory.inventory.reservation;
+
+import dev.riddle.microstore.inventory.inventory.event.ItemEventPublisher;
+import dev.riddle.microstore.inventory.inventory.item.HotSkuStock;
+import dev.riddle.microstore.inventory.inventory.item.InventoryItem;
+import dev.riddle.microstore.inventory.inventory.item.InventoryItemRepository;
+import dev.riddle.microstore.inventory.inventory.item.StockStripeRepository;
+import dev.riddle.microstore.inventory.inventory.item.StockStripeRepository.StripeTotal;
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReservationLineRequest;
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReserveStockRequest;
+import dev.riddle.microstore.inventory.shared.error.InsufficientStockException;
+import dev.riddle.microstore.inventory.testutil.ItemTestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@Import({ReservationService.class, ReservationMapperImpl.class, ItemEventPublisher.class, HotSkuStock.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every reservation must really commit
+public class ReservationConcurrencyTest {
+
+	@Container
+	static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:16-alpine")
+		.withDatabaseName("inventory-test")
+		.withUsername("test")
+		.withPassword("test");
+
+	@DynamicPropertySource
+	static void configureProperties(DynamicPropertyRegistry registry) {
+		// Use Testcontainers-provided JDBC URL (mapped host/port, via TESTCONTAINERS_HOST_OVERRIDE).
+		registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+		registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+		registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+		registry.add("spring.datasource.hikari.maximum-pool-size", () -> "20");
+		registry.add("inventory.stock.hot-skus", () -> "STRIPED-0001");
+		registry.add("inventory.stock.stripes", () -> "4");
+	}
+
+	private final ReservationService reservationService;
+	private final InventoryItemRepository inventoryItemRepository;
+	private final StockStripeRepository stockStripeRepository;
+
+	ReservationConcurrencyTest(
+		ReservationService reservationService,
+		InventoryItemRepository inventoryItemRepository,
+		StockStripeRepository stockStripeRepository
+	) {
+		this.reservationService = reservationService;
+		this.inventoryItemRepository = inventoryItemRepository;
+		this.stockStripeRepository = stockStripeRepository;
+	}
+
+	@Test
+	void reserve_onHotSku_shouldNeverOversell() throws Exception {
+		InventoryItem item = ItemTestData.inventoryItem();
+		item.setSku("HOT-SKU-0001");
+		item.setQuantity(100);
+		inventoryItemRepository.saveAndFlush(item);
+
+		int attempts = 400;
+		int reserved = reserveConcurrently("HOT-SKU-0001", attempts);
+
+		assertThat(reserved).isEqualTo(100);
+		assertThat(inventoryItemRepository.findBySku("HOT-SKU-0001").orElseThrow().getQuantity()).isZero();
+	}
+
+	@Test
+	void reserve_onStripedSku_shouldNeverOversell() throws Exception {
+		InventoryItem item = ItemTestData.inventoryItem();
+		item.setSku("STRIPED-0001");
+		item.setQuantity(100);
+		inventoryItemRepository.saveAndFlush(item);
+
+		int reserved = reserveConcurrently("STRIPED-0001", 400);
+
+		assertThat(reserved).isEqualTo(100);
+		assertThat(inventoryItemRepository.findBySku("STRIPED-0001").orElseThrow().getQuantity()).isZero();
+		assertThat(stockStripeRepository.sumBySkuIn(List.of("STRIPED-0001")))
+			.extracting(StripeTotal::getQuantity)
+			.containsExactly(0L);
+	}
+
+	@Test
+	void reserve_whenOneLineFails_shouldRollBackTheOtherLines() {
+		InventoryItem plenty = ItemTestData.inventoryItem();
+		plenty.setSku("PLENTY-0001");
+		plenty.setQuantity(10);
+		InventoryItem scarce = ItemTestData.inventoryItem();
+		scarce.setSku("SCARCE-0001");
+		scarce.setQuantity(1);
+		inventoryItemRepository.saveAllAndFlush(List.of(plenty, scarce));
+
+		ReserveStockRequest request = new ReserveStockRequest(List.of(
+			new ReservationLineRequest("PLENTY-0001", 5),
+			new ReservationLineRequest("SCARCE-0001", 2)
+		));
+
+		try {
+			reservationService.reserve(request);
+		} catch (InsufficientStockException expected) {
+			// asserted below
+		}
+
+		assertThat(inventoryItemRepository.findBySku("PLENTY-0001").orElseThrow().getQuantity()).isEqualTo(10);
+		assertThat(inventoryItemRepository.findBySku("SCARCE-0001").orElseThrow().getQuantity()).isEqualTo(1);
+	}
+
+	private int reserveConcurrently(String sku, int attempts) throws Exception {
+		AtomicInteger reserved = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		ReserveStockRequest request = new ReserveStockRequest(List.of(new ReservationLineRequest(sku, 1)));
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < attempts; i++) {
+				futures.add(executor.submit(() -> {
+					try {
+						reservationService.reserve(request);
+						reserved.incrementAndGet();
+					} catch (InsufficientStockException ex) {
+						rejected.incrementAndGet();
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+
+		assertThat(reserved.get() + rejected.get()).isEqualTo(attempts);
+		return reserved.get();
+	}
+}
@@ -0,0 +1,201 @@
+package dev.riddle.microstore.inventory.inventory.reservation;
+
+import dev.riddle.microstore.inventory.inventory.event.ItemEventPublisher;
+import dev.riddle.microstore.inventory.inventory.event.ItemEventType;
+import dev.riddle.microstore.inventory.inventory.item.HotSkuStock;
+import dev.riddle.microstore.inventory.inventory.item.InventoryItemRepository;
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReservationLineRequest;
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReservationResponse;
+import dev.riddle.microstore.inventory.inventory.reservation.dto.ReserveStockRequest;
+import dev.riddle.microstore.inventory.shared.error.ConflictException;
+import dev.riddle.microstore.inventory.shared.error.InsufficientStockException;
+import dev.riddle.microstore.inventory.shared.error.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationServiceTest {
+
+	@Mock
+	private StockReservationRepository reservationRepository;
+
+	@Mock
+	private InventoryItemRepository inventoryItemRepository;
+
+	@Mock
+	private HotSkuStock hotSkuStock;
+
+	@Mock
+	private ReservationMapper mapper;
+
+	@Mock
+	private ItemEventPublisher itemEventPublisher;
+
+	private ReservationService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new ReservationService(reservationRepository, inventoryItemRepository, hotSkuStock, mapper, itemEventPublisher, Duration.ofMinutes(5));
+	}
+
+	@Test
+	void reserve_shouldDecrementEachSkuOnceInSkuOrder() {
+		ReserveStockRequest request = new ReserveStockRequest(List.of(
+			new ReservationLineRequest("SKU-B", 2),
+			new ReservationLineRequest("SKU-A", 1),
+			new ReservationLineRequest("SKU-B", 3)
+		));
+
+		when(inventoryItemRepository.decrementStock(anyString(), anyInt())).thenReturn(1);
+		when(reservationRepository.save(any(StockReservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		service.reserve(request);
+
+		InOrder inOrder = inOrder(inventoryItemRepository);
+		inOrder.verify(inventoryItemRepository).decrementStock("SKU-A", 1);
+		inOrder.verify(inventoryItemRepository).decrementStock("SKU-B", 5);
+		verify(itemEventPublisher).publish("SKU-A", ItemEventType.QUANTITY_CHANGED);
+		verify(itemEventPublisher).publish("SKU-B", ItemEventType.QUANTITY_CHANGED);
+		verify(reservationRepository).save(argThat(reservation ->
+			reservation.getStatus() == ReservationStatus.RESERVED
+				&& reservation.getLines().size() == 2
+				&& reservation.getExpiresAt().isAfter(Instant.now())));
+	}
+
+	@Test
+	void reserve_whenStockRunsOut_shouldThrowInsufficientStock() {
+		ReserveStockRequest request = new ReserveStockRequest(List.of(new ReservationLineRequest("SKU-A", 5)));
+
+		when(inventoryItemRepository.decrementStock("SKU-A", 5)).thenReturn(0);
+		when(inventoryItemRepository.existsBySku("SKU-A")).thenReturn(true);
+
+		assertThatThrownBy(() -> service.reserve(request))
+			.isInstanceOf(InsufficientStockException.class)
+			.hasMessageContaining("SKU-A");
+		verify(reservationRepository, never()).save(any());
+	}
+
+	@Test
+	void reserve_whenSkuUnknown_shouldThrowNotFound() {
+		ReserveStockRequest request = new ReserveStockRequest(List.of(new ReservationLineRequest("SKU-A", 5)));
+
+		when(inventoryItemRepository.decrementStock("SKU-A", 5)).thenReturn(0);
+		when(inventoryItemRepository.existsBySku("SKU-A")).thenReturn(false);
+
+		assertThatThrownBy(() -> service.reserve(request))
+			.isInstanceOf(NotFoundException.class);
+	}
+
+	@Test
+	void release_shouldReturnStockForEveryLine() {
+		UUID id = UUID.randomUUID();
+		StockReservation reservation = reservation(id, ReservationStatus.RELEASED);
+
+		when(reservationRepository.transition(eq(id), eq(ReservationStatus.RESERVED), eq(ReservationStatus.RELEASED), any()))
+			.thenReturn(1);
+		when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation));
+		when(inventoryItemRepository.incrementStock("SKU-A", 2)).thenReturn(1);
+
+		service.release(id);
+
+		verify(inventoryItemRepository).incrementStock("SKU-A", 2);
+		verify(itemEventPublisher).publish("SKU-A", ItemEventType.QUANTITY_CHANGED);
+	}
+
+	@Test
+	void reserve_onHotSku_shouldTakeStockFromItsStripes() {
+		ReserveStockRequest request = new ReserveStockRequest(List.of(new ReservationLineRequest("HOT-SKU", 2)));
+
+		when(hotSkuStock.isHot("HOT-SKU")).thenReturn(true);
+		when(hotSkuStock.take("HOT-SKU", 2)).thenReturn(true);
+		when(reservationRepository.save(any(StockReservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		service.reserve(request);
+
+		verify(inventoryItemRepository, never()).decrementStock(anyString(), anyInt());
+		verify(itemEventPublisher).publish("HOT-SKU", ItemEventType.QUANTITY_CHANGED);
+	}
+
+	@Test
+	void release_onHotSku_shouldReturnStockToItsStripes() {
+		UUID id = UUID.randomUUID();
+		StockReservation reservation = reservation(id, ReservationStatus.RELEASED);
+
+		when(reservationRepository.transition(eq(id), eq(ReservationStatus.RESERVED), eq(ReservationStatus.RELEASED), any()))
+			.thenReturn(1);
+		when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation));
+		when(hotSkuStock.isHot("SKU-A")).thenReturn(true);
+		when(hotSkuStock.give("SKU-A", 2)).thenReturn(1);
+
+		service.release(id);
+
+		verify(inventoryItemRepository, never()).incrementStock(anyString(), anyInt());
+		verify(itemEventPublisher).publish("SKU-A", ItemEventType.QUANTITY_CHANGED);
+	}
+
+	@Test
+	void release_whenAlreadyReleased_shouldNotReturnStockTwice() {
+		UUID id = UUID.randomUUID();
+
+		when(reservationRepository.transition(eq(id), eq(ReservationStatus.RESERVED), eq(ReservationStatus.RELEASED), any()))
+			.thenReturn(0);
+		when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation(id, ReservationStatus.RELEASED)));
+
+		service.release(id);
+
+		verify(inventoryItemRepository, never()).incrementStock(anyString(), anyInt());
+	}
+
+	@Test
+	void commit_whenAlreadyReleased_shouldThrowConflict() {
+		UUID id = UUID.randomUUID();
+
+		when(reservationRepository.transitionUnexpired(eq(id), eq(ReservationStatus.RESERVED), eq(ReservationStatus.COMMITTED), any()))
+			.thenReturn(0);
+		when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation(id, ReservationStatus.RELEASED)));
+
+		assertThatThrownBy(() -> service.commit(id))
+			.isInstanceOf(ConflictException.class);
+	}
+
+	@Test
+	void commit_whenAlreadyCommitted_shouldBeIdempotent() {
+		UUID id = UUID.randomUUID();
+		StockReservation reservation = reservation(id, ReservationStatus.COMMITTED);
+		ReservationResponse response = new ReservationResponse(id, ReservationStatus.COMMITTED, reservation.getExpiresAt(), List.of(), null, null);
+
+		when(reservationRepository.transitionUnexpired(eq(id), eq(ReservationStatus.RESERVED), eq(ReservationStatus.COMMITTED), any()))
+			.thenReturn(0);
+		when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation));
+		when(mapper.toResponse(reservation)).thenReturn(response);
+
+		assertThat(service.commit(id)).isEqualTo(response);
+	}
+
+	private static StockReservation reservation(UUID id, ReservationStatus status) {
+		StockReservation reservation = new StockReservation();
+		reservation.setId(id);
+		reservation.setStatus(status);
+		reservation.setExpiresAt(Instant.now().plusSeconds(60));
+		reservation.getLines().add(new ReservationLine("SKU-A", 2));
+		return reservation;
+	}
+}
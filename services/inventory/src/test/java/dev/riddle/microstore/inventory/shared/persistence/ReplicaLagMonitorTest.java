@@ -0,0 +1,88 @@
+package dev.riddle.microstore.inventory.shared.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+	@Mock
+	private JdbcTemplate replica;
+
+	private ReplicaLagMonitor monitor;
+
+	@BeforeEach
+	void setUp() {
+		monitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(5), new SimpleMeterRegistry());
+	}
+
+	@Test
+	void isUsable_beforeFirstCheck_shouldBeFalse() {
+		assertThat(monitor.isUsable()).isFalse();
+	}
+
+	@Test
+	void check_withLagWithinLimit_shouldMakeReplicaUsable() {
+		// Given
+		when(replica.queryForObject(anyString(), eq(Double.class))).thenReturn(0.4);
+
+		// When
+		monitor.check();
+
+		// Then
+		assertThat(monitor.isUsable()).isTrue();
+	}
+
+	@Test
+	void check_withLagOverLimit_shouldFallBackToPrimary() {
+		// Given
+		when(replica.queryForObject(anyString(), eq(Double.class))).thenReturn(0.4, 12.0);
+		monitor.check();
+
+		// When
+		monitor.check();
+
+		// Then
+		assertThat(monitor.isUsable()).isFalse();
+	}
+
+	@Test
+	void check_withNothingReplayedYet_shouldNotBeUsable() {
+		// Given
+		when(replica.queryForObject(anyString(), eq(Double.class))).thenReturn(null);
+
+		// When
+		monitor.check();
+
+		// Then
+		assertThat(monitor.isUsable()).isFalse();
+	}
+
+	@Test
+	void check_whenReplicaIsDown_shouldFallBackToPrimary() {
+		// Given
+		when(replica.queryForObject(anyString(), eq(Double.class)))
+				.thenReturn(0.4)
+				.thenThrow(new DataAccessResourceFailureException("Connection refused"));
+		monitor.check();
+
+		// When
+		monitor.check();
+
+		// Then
+		assertThat(monitor.isUsable()).isFalse();
+	}
+}
@@ -0,0 +1,113 @@
+package dev.riddle.microstore.inventory.shared.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+	@Mock
+	private DataSource primary;
+
+	@Mock
+	private DataSource replica;
+
+	@Mock
+	private ReplicaLagMonitor lagMonitor;
+
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		lenient().when(primary.getConnection()).thenAnswer(invocation -> connection());
+		lenient().when(replica.getConnection()).thenAnswer(invocation -> connection());
+
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+				new ReplicaRoutingDataSource(primary, replica, lagMonitor));
+		// Known up front, so the proxy does not borrow a connection to find out
+		dataSource.setDefaultAutoCommit(true);
+		dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+	}
+
+	@Test
+	void readOnlyTransaction_shouldUseReplica() throws SQLException {
+		// Given
+		when(lagMonitor.isUsable()).thenReturn(true);
+
+		// When
+		readOnly();
+
+		// Then
+		verify(replica).getConnection();
+		verify(primary, never()).getConnection();
+	}
+
+	@Test
+	void readWriteTransaction_shouldUsePrimary() throws SQLException {
+		// When
+		transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute("UPDATE inventory_item SET quantity = quantity"));
+
+		// Then
+		verify(primary).getConnection();
+		verify(replica, never()).getConnection();
+	}
+
+	@Test
+	void readOnlyTransaction_whenReplicaIsBehind_shouldUsePrimary() throws SQLException {
+		// Given
+		when(lagMonitor.isUsable()).thenReturn(false);
+
+		// When
+		readOnly();
+
+		// Then
+		verify(primary).getConnection();
+		verify(replica, never()).getConnection();
+	}
+
+	@Test
+	void readOnlyTransaction_withReadYourWrites_shouldUsePrimary() throws Exception {
+		// Given
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/inventory/SKU-1");
+		request.addHeader(ReadYourWritesFilter.HEADER, "true");
+
+		// When
+		new ReadYourWritesFilter().doFilter(request, new MockHttpServletResponse(), (req, res) -> readOnly());
+
+		// Then
+		verify(primary).getConnection();
+		verify(replica, never()).getConnection();
+		verifyNoInteractions(lagMonitor);
+	}
+
+	private void readOnly() {
+		transactionTemplate.setReadOnly(true);
+		transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+	}
+
+	private static Connection connection() throws SQLException {
+		Connection connection = mock(Connection.class);
+		when(connection.createStatement()).thenReturn(mock(Statement.class));
+		return connection;
+	}
+}
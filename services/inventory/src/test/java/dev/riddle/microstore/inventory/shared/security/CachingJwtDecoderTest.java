@@ -0,0 +1,114 @@
+package dev.riddle.microstore.inventory.shared.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+	@Mock
+	private JwtDecoder delegate;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private CachingJwtDecoder decoder;
+
+	@BeforeEach
+	void setUp() {
+		decoder = new CachingJwtDecoder(delegate, 100, meterRegistry);
+	}
+
+	@Test
+	void decode_sameTokenTwice_shouldVerifyOnce() {
+		// Given
+		Jwt jwt = jwt("token-1", Instant.now().plusSeconds(300));
+		when(delegate.decode("token-1")).thenReturn(jwt);
+
+		// When
+		decoder.decode("token-1");
+		Jwt second = decoder.decode("token-1");
+
+		// Then
+		assertThat(second).isSameAs(jwt);
+		verify(delegate, times(1)).decode("token-1");
+		assertThat(meterRegistry.get("security.jwt.verify").tag("outcome", "valid").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void decode_whenVerificationFails_shouldVerifyAgainNextTime() {
+		// Given
+		when(delegate.decode("forged")).thenThrow(new BadJwtException("Signature did not match"));
+
+		// When/Then
+		assertThatThrownBy(() -> decoder.decode("forged")).isInstanceOf(BadJwtException.class);
+		assertThatThrownBy(() -> decoder.decode("forged")).isInstanceOf(BadJwtException.class);
+		verify(delegate, times(2)).decode("forged");
+		assertThat(meterRegistry.get("security.jwt.verify").tag("outcome", "invalid").timer().count()).isEqualTo(2);
+	}
+
+	@Test
+	void decode_tokenWithinClockSkewAfterExpiry_shouldNotBeKept() {
+		// Given the validator still accepts it, but it has expired
+		when(delegate.decode("token-1")).thenReturn(jwt("token-1", Instant.now().minusSeconds(10)));
+
+		// When
+		decoder.decode("token-1");
+		decoder.decode("token-1");
+
+		// Then
+		verify(delegate, times(2)).decode("token-1");
+	}
+
+	@Test
+	void decode_tokenWithoutExpiry_shouldNotBeCached() {
+		// Given
+		when(delegate.decode("token-1")).thenReturn(jwt("token-1", null));
+
+		// When
+		decoder.decode("token-1");
+		decoder.decode("token-1");
+
+		// Then
+		verify(delegate, times(2)).decode("token-1");
+	}
+
+	@Test
+	void decode_differentTokens_shouldEachBeVerified() {
+		// Given
+		when(delegate.decode("token-1")).thenReturn(jwt("token-1", Instant.now().plusSeconds(300)));
+		when(delegate.decode("token-2")).thenReturn(jwt("token-2", Instant.now().plusSeconds(300)));
+
+		// When
+		Jwt first = decoder.decode("token-1");
+		Jwt second = decoder.decode("token-2");
+
+		// Then
+		assertThat(first.getTokenValue()).isEqualTo("token-1");
+		assertThat(second.getTokenValue()).isEqualTo("token-2");
+	}
+
+	private static Jwt jwt(String token, Instant expiresAt) {
+		Jwt.Builder builder = Jwt.withTokenValue(token)
+			.header("alg", "RS256")
+			.subject("orders-service")
+			.issuedAt(Instant.now().minusSeconds(60));
+		if (expiresAt != null)
+			builder.expiresAt(expiresAt);
+		return builder.build();
+	}
+}
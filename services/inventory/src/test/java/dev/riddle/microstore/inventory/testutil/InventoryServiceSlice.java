@@ -0,0 +1,36 @@
+package dev.riddle.microstore.inventory.testutil;
+
+import dev.riddle.microstore.inventory.inventory.event.ItemEventPublisher;
+import dev.riddle.microstore.inventory.inventory.item.HotSkuStock;
+import dev.riddle.microstore.inventory.inventory.item.InventoryService;
+import dev.riddle.microstore.inventory.inventory.item.ItemCountCache;
+import dev.riddle.microstore.inventory.inventory.item.ItemMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Adds {@link InventoryService} and everything it depends on to a {@code @DataJpaTest}, which
+ * only brings the repositories. Add the new dependency here when the service gains one.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({
+	InventoryService.class,
+	ItemMapperImpl.class,
+	ItemEventPublisher.class,
+	ItemCountCache.class,
+	HotSkuStock.class,
+	SimpleMeterRegistry.class
+})
+public @interface InventoryServiceSlice {
+}
@@ -0,0 +1,31 @@
+package dev.riddle.microstore.inventory.testutil;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps every statement Hibernate prepares, enable it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlRecorder implements StatementInspector {
+	private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+	@Override
+	public String inspect(String sql) {
+		statements.add(sql);
+		return sql;
+	}
+
+	public static void clear() {
+		statements.clear();
+	}
+
+	public static String lastSelect() {
+		return statements.reversed().stream()
+			.filter(sql -> sql.stripLeading().toLowerCase().startsWith("select"))
+			.findFirst()
+			.orElseThrow(() -> new IllegalStateException("No select statement was recorded"));
+	}
+}
@@ -0,0 +1,94 @@
+package dev.riddle.microstore.orders.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+
+/**
+ * Pooled Apache HttpClient 5 transport for calls to the inventory service.
+ * <p>
+ * The classic (blocking) HttpClient API that RestClient uses speaks HTTP/1.1 only, so
+ * connections are kept alive and reused from the pool instead of multiplexed.
+ */
+@Configuration
+public class InventoryHttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager inventoryConnectionManager(
+            @Value("${inventory.service.max-connections:100}") int maxConnections,
+            @Value("${inventory.service.max-connections-per-route:50}") int maxConnectionsPerRoute,
+            @Value("${inventory.service.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${inventory.service.read-timeout:PT5S}") Duration readTimeout,
+            @Value("${inventory.service.connection-time-to-live:PT5M}") Duration timeToLive,
+            MeterRegistry meterRegistry) {
+
+        PoolingHttpClientConnectionManager connectionManager = connectionManager(
+                maxConnections, maxConnectionsPerRoute, connectTimeout, readTimeout, timeToLive);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "inventory").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient inventoryHttpClient(
+            @Qualifier("inventoryConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Value("${inventory.service.pool-timeout:PT1S}") Duration poolTimeout,
+            @Value("${inventory.service.read-timeout:PT5S}") Duration readTimeout,
+            @Value("${inventory.service.idle-timeout:PT30S}") Duration idleTimeout) {
+
+        return httpClient(connectionManager, poolTimeout, readTimeout, idleTimeout);
+    }
+
+    @Bean
+    public ClientHttpRequestFactory inventoryRequestFactory(
+            @Qualifier("inventoryHttpClient") CloseableHttpClient inventoryHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(inventoryHttpClient);
+    }
+
+    static PoolingHttpClientConnectionManager connectionManager(
+            int maxConnections, int maxConnectionsPerRoute,
+            Duration connectTimeout, Duration readTimeout, Duration timeToLive) {
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        // Check connections that sat idle for a while before handing them out
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    static CloseableHttpClient httpClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            Duration poolTimeout, Duration readTimeout, Duration idleTimeout) {
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Fail fast instead of queueing behind a drained pool
+                        .setConnectionRequestTimeout(Timeout.of(poolTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .evictExpiredConnections()
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package dev.riddle.microstore.orders.idempotency;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An {@code Idempotency-Key} seen on order creation. Without a response the key is claimed by a
+ * request that is still running, with one the request completed and later ones replay it.
+ */
+@Entity
+@Table(name = "idempotency_key")
+@Getter
+@Setter
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "order_id")
+    private UUID orderId;
+
+    @Column(columnDefinition = "text")
+    private String response;
+
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private Instant createdAt;
+}
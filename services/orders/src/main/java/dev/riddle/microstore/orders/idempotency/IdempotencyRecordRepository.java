@@ -0,0 +1,44 @@
+package dev.riddle.microstore.orders.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims the key for the calling request. A claim left behind by a request that never completed
+     * (crashed instance) is taken over once it is older than {@code claimTimeoutSeconds}.
+     *
+     * @return 1 if the key is now claimed by the caller, 0 if it is taken or already completed
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_key AS existing (idempotency_key, request_hash, created_at)
+            VALUES (:key, :requestHash, localtimestamp)
+            ON CONFLICT (idempotency_key) DO UPDATE
+                SET request_hash = EXCLUDED.request_hash, created_at = EXCLUDED.created_at
+                WHERE existing.response IS NULL
+                  AND existing.created_at < localtimestamp - :claimTimeoutSeconds * INTERVAL '1 second'
+            """, nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("claimTimeoutSeconds") long claimTimeoutSeconds);
+
+    // The order is still pending in the session, it has to be written before order_id can reference it
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE IdempotencyRecord r SET r.orderId = :orderId, r.response = :response WHERE r.key = :key")
+    int complete(@Param("key") String key, @Param("orderId") UUID orderId, @Param("response") String response);
+
+    /**
+     * Gives up a claim whose request failed, so that a retry with the same key can run again.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.response IS NULL")
+    int release(@Param("key") String key);
+}
@@ -0,0 +1,216 @@
+package dev.riddle.microstore.orders.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.riddle.microstore.orders.order.OrderMapper;
+import dev.riddle.microstore.orders.order.OrderService;
+import dev.riddle.microstore.orders.order.dto.CreateOrderRequest;
+import dev.riddle.microstore.orders.order.dto.OrderResponse;
+import dev.riddle.microstore.orders.shared.error.BadRequestException;
+import dev.riddle.microstore.orders.shared.error.ConflictException;
+import dev.riddle.microstore.orders.shared.error.IdempotencyKeyReusedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Order creation keyed by the client's {@code Idempotency-Key}, so a retried request returns the
+ * original order instead of creating another one.
+ * <p>
+ * Completed keys are answered from a size-bounded in-memory cache, then from the
+ * {@code idempotency_key} table. A duplicate that arrives while the first request is still running
+ * on this instance waits for its outcome; on another instance it gets a 409 until the first completes.
+ * Reusing a key with a different request body is rejected with 422.
+ */
+@Service
+public class IdempotentOrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotentOrderService.class);
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final OrderService orderService;
+    private final OrderMapper orderMapper;
+    private final IdempotencyRecordRepository repository;
+    private final TransactionOperations transactionOperations;
+    private final ObjectMapper objectMapper;
+    private final long claimTimeoutSeconds;
+    private final Cache<String, CompletedRequest> recentKeys;
+    private final ConcurrentMap<String, CompletableFuture<CompletedRequest>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentOrderService(
+            OrderService orderService,
+            OrderMapper orderMapper,
+            IdempotencyRecordRepository repository,
+            TransactionOperations transactionOperations,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${orders.idempotency.cache-size:10000}") long cacheSize,
+            @Value("${orders.idempotency.cache-ttl:PT10M}") Duration cacheTtl,
+            @Value("${orders.idempotency.claim-timeout:PT1M}") Duration claimTimeout) {
+
+        this.orderService = orderService;
+        this.orderMapper = orderMapper;
+        this.repository = repository;
+        this.transactionOperations = transactionOperations;
+        this.objectMapper = objectMapper;
+        this.claimTimeoutSeconds = claimTimeout.toSeconds();
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recentKeys, "idempotency-keys");
+    }
+
+    /**
+     * Creates the order once per key.
+     *
+     * @param key the client's {@code Idempotency-Key}
+     * @param request the order to create
+     * @return the order, flagged as replayed when it was created by an earlier request
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     * @throws ConflictException if another instance is still working on the key
+     */
+    public IdempotentResponse createOrder(String key, CreateOrderRequest request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+
+        CompletedRequest recent = recentKeys.getIfPresent(key);
+        if (recent != null) {
+            return replay(key, recent, requestHash);
+        }
+
+        CompletableFuture<CompletedRequest> mine = new CompletableFuture<>();
+        CompletableFuture<CompletedRequest> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            // Same key is being worked on here, share its outcome instead of racing it
+            log.debug("Waiting for in-flight request with Idempotency-Key {}", key);
+            return replay(key, join(running), requestHash);
+        }
+
+        try {
+            Optional<CompletedRequest> stored = findCompleted(key);
+            CompletedRequest completed = stored.isPresent() ? stored.get() : execute(key, requestHash, request);
+            recentKeys.put(key, completed);
+            mine.complete(completed);
+            return stored.isPresent()
+                    ? replay(key, completed, requestHash)
+                    : new IdempotentResponse(completed.response(), false);
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private CompletedRequest execute(String key, String requestHash, CreateOrderRequest request) {
+        Integer claimed = transactionOperations.execute(status -> repository.claim(key, requestHash, claimTimeoutSeconds));
+        if (claimed == null || claimed == 0) {
+            // Completed or claimed by another instance since we looked
+            return findCompleted(key).orElseThrow(() ->
+                    new ConflictException("A request with Idempotency-Key " + key + " is still being processed"));
+        }
+
+        try {
+            // The response is stored in the transaction that stores the order, so both or neither exist
+            OrderResponse response = orderService.createOrder(request, order ->
+                    repository.complete(key, order.getId(), write(orderMapper.toResponse(order))));
+            return new CompletedRequest(requestHash, response);
+        } catch (RuntimeException ex) {
+            releaseQuietly(key);
+            throw ex;
+        }
+    }
+
+    private Optional<CompletedRequest> findCompleted(String key) {
+        return repository.findById(key)
+                .filter(record -> record.getResponse() != null)
+                .map(record -> new CompletedRequest(record.getRequestHash(), read(record.getResponse())));
+    }
+
+    private IdempotentResponse replay(String key, CompletedRequest completed, String requestHash) {
+        if (!completed.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(
+                    "Idempotency-Key " + key + " was already used for a different request");
+        }
+        log.debug("Replaying order {} for Idempotency-Key {}", completed.response().id(), key);
+        return new IdempotentResponse(completed.response(), true);
+    }
+
+    private void releaseQuietly(String key) {
+        try {
+            transactionOperations.executeWithoutResult(status -> repository.release(key));
+        } catch (RuntimeException ex) {
+            // The claim times out on its own, a retry can take it over then
+            log.warn("Failed to release Idempotency-Key {}", key, ex);
+        }
+    }
+
+    private String hash(CreateOrderRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not fingerprint order request", ex);
+        }
+    }
+
+    private String write(OrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize order response", ex);
+        }
+    }
+
+    private OrderResponse read(String response) {
+        try {
+            return objectMapper.readValue(response, OrderResponse.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read stored order response", ex);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private record CompletedRequest(String requestHash, OrderResponse response) {
+    }
+
+    /**
+     * @param response the order
+     * @param replayed whether the order was created by an earlier request with the same key
+     */
+    public record IdempotentResponse(OrderResponse response, boolean replayed) {
+    }
+}
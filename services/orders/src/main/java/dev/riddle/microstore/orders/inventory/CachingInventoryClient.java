@@ -0,0 +1,153 @@
+package dev.riddle.microstore.orders.inventory;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import dev.riddle.microstore.orders.inventory.dto.InventoryItemResponse;
+import dev.riddle.microstore.orders.inventory.dto.StockReservationRequest;
+import dev.riddle.microstore.orders.inventory.dto.StockReservationResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Read-through cache in front of {@link InventoryClientImpl}, enabled with {@code inventory.cache.enabled}.
+ * <p>
+ * Entries live for {@code inventory.cache.catalog-ttl}, which bounds how stale name and price can be.
+ * Cached items are handed out with a {@code null} quantity, so no stock decision is ever made on a
+ * cached level and the reservation stays the only stock gate. {@link #checkStockAvailability} always
+ * asks inventory, but conditionally when an entry is cached, so an unchanged item costs a bodiless 304.
+ * Concurrent misses for the same SKU share a single call.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "inventory.cache.enabled", havingValue = "true")
+public class CachingInventoryClient implements InventoryClient {
+
+    private final InventoryClientImpl delegate;
+    private final ExecutorService loader = Executors.newVirtualThreadPerTaskExecutor();
+    private final AsyncCache<String, CachedItem> cache;
+
+    @Autowired
+    public CachingInventoryClient(
+            InventoryClientImpl delegate,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.cache.maximum-size:10000}") long maximumSize,
+            @Value("${inventory.cache.catalog-ttl:PT10M}") Duration catalogTtl) {
+        this(delegate, meterRegistry, maximumSize, catalogTtl, Ticker.systemTicker());
+    }
+
+    CachingInventoryClient(
+            InventoryClientImpl delegate,
+            MeterRegistry meterRegistry,
+            long maximumSize,
+            Duration catalogTtl,
+            Ticker ticker) {
+
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(catalogTtl)
+                .executor(loader)
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "inventory-items");
+    }
+
+    @Override
+    public InventoryItemResponse getItemBySku(String sku) {
+        return view(join(cache.get(sku, key -> fetched(delegate.getItemBySku(key, null)))));
+    }
+
+    @Override
+    public Map<String, InventoryItemResponse> getItemsBySkus(Collection<String> skus) {
+        Map<String, CachedItem> cached = join(cache.getAll(new LinkedHashSet<>(skus), (missing, executor) ->
+                CompletableFuture.supplyAsync(() -> {
+                    Map<String, CachedItem> loaded = new LinkedHashMap<>();
+                    delegate.getItemsBySkus(List.copyOf(missing))
+                            .forEach((sku, item) -> loaded.put(sku, fetched(new VersionedItem(item, null))));
+                    return loaded;
+                }, executor)));
+
+        Map<String, InventoryItemResponse> items = new LinkedHashMap<>();
+        cached.forEach((sku, entry) -> items.put(sku, view(entry)));
+        return items;
+    }
+
+    @Override
+    public boolean checkStockAvailability(String sku, int quantity) {
+        // Never decide on a cached quantity, but keep the fresh read for the next lookup
+        CachedItem cached = cache.synchronous().getIfPresent(sku);
+        VersionedItem current = delegate.getItemBySku(sku, cached == null ? null : cached.versioned());
+        cache.put(sku, CompletableFuture.completedFuture(fetched(current)));
+        return current.item().quantity() >= quantity;
+    }
+
+    @Override
+    public StockReservationResponse reserveStock(List<StockReservationRequest> items) {
+        StockReservationResponse reservation = delegate.reserveStock(items);
+        // Reserved quantities are no longer what the cache holds
+        cache.synchronous().invalidateAll(items.stream().map(StockReservationRequest::sku).toList());
+        return reservation;
+    }
+
+    @Override
+    public void commitReservation(UUID reservationId) {
+        delegate.commitReservation(reservationId);
+    }
+
+    @Override
+    public void releaseReservation(UUID reservationId) {
+        delegate.releaseReservation(reservationId);
+    }
+
+    private CachedItem fetched(VersionedItem versioned) {
+        return versioned.item() == null ? null : new CachedItem(versioned);
+    }
+
+    private InventoryItemResponse view(CachedItem entry) {
+        if (entry == null) {
+            return null;
+        }
+        // Name and price are still good, the quantity may already be gone
+        InventoryItemResponse item = entry.versioned().item();
+        return new InventoryItemResponse(item.sku(), item.name(), item.description(), item.priceInCents(), null);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loader.shutdownNow();
+    }
+
+    private record CachedItem(VersionedItem versioned) {
+    }
+}
@@ -0,0 +1,168 @@
+package dev.riddle.microstore.orders.inventory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2ClientCredentialsGrantRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the client-credentials access token used to call the inventory service.
+ * <p>
+ * Request threads read the current token from a volatile field without locking. The token is
+ * refreshed in the background {@code inventory.service.token-refresh-skew} before it expires, or
+ * halfway through its lifetime if it lives no longer than the skew, and only one refresh ever
+ * runs at a time. A request thread only waits when there is no valid token at all, i.e. on the
+ * very first call or after the auth server was unreachable for longer than the skew.
+ */
+@Component
+public class ClientCredentialsTokenProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientCredentialsTokenProvider.class);
+
+    static final String CLIENT_REGISTRATION_ID = "orders-service";
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+    private static final Duration MIN_REFRESH_DELAY = Duration.ofSeconds(1);
+
+    private final ClientRegistrationRepository clientRegistrationRepository;
+    private final OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenResponseClient;
+    private final Duration refreshSkew;
+    private final Counter hits;
+    private final Counter refreshes;
+    private final Counter failures;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("inventory-token-refresh").factory());
+
+    private volatile OAuth2AccessToken current;
+    private final AtomicReference<CompletableFuture<OAuth2AccessToken>> inFlight = new AtomicReference<>();
+
+    public ClientCredentialsTokenProvider(
+            ClientRegistrationRepository clientRegistrationRepository,
+            OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenResponseClient,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.service.token-refresh-skew:PT60S}") Duration refreshSkew) {
+
+        this.clientRegistrationRepository = clientRegistrationRepository;
+        this.tokenResponseClient = tokenResponseClient;
+        this.refreshSkew = refreshSkew;
+        this.hits = Counter.builder("orders.inventory.token")
+                .description("Access token requests served from the cached token")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.refreshes = Counter.builder("orders.inventory.token")
+                .description("Access tokens fetched from the auth server")
+                .tag("result", "refresh")
+                .register(meterRegistry);
+        this.failures = Counter.builder("orders.inventory.token")
+                .description("Failed access token fetches")
+                .tag("result", "failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a valid access token value, fetching one only if none is held yet.
+     */
+    public String getTokenValue() {
+        OAuth2AccessToken token = current;
+        if (isUsable(token)) {
+            hits.increment();
+            return token.getTokenValue();
+        }
+
+        try {
+            return refresh().join().getTokenValue();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Starts a refresh unless one is already running, and returns the running one.
+     */
+    CompletableFuture<OAuth2AccessToken> refresh() {
+        CompletableFuture<OAuth2AccessToken> running = inFlight.get();
+        if (running != null) {
+            return running;
+        }
+
+        CompletableFuture<OAuth2AccessToken> refresh = new CompletableFuture<>();
+        if (!inFlight.compareAndSet(null, refresh)) {
+            return inFlight.get();
+        }
+
+        scheduler.execute(() -> {
+            try {
+                OAuth2AccessToken token = fetch();
+                current = token;
+                refreshes.increment();
+                scheduleRefresh(token);
+                refresh.complete(token);
+            } catch (RuntimeException ex) {
+                failures.increment();
+                log.warn("Failed to fetch access token for {}", CLIENT_REGISTRATION_ID, ex);
+                // Keep trying in the background while the old token is still good
+                if (isUsable(current)) {
+                    scheduler.schedule(this::refresh, RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+                }
+                refresh.completeExceptionally(ex);
+            } finally {
+                inFlight.set(null);
+            }
+        });
+        return refresh;
+    }
+
+    private OAuth2AccessToken fetch() {
+        ClientRegistration registration = clientRegistrationRepository.findByRegistrationId(CLIENT_REGISTRATION_ID);
+        if (registration == null) {
+            throw new IllegalStateException("Missing client registration: " + CLIENT_REGISTRATION_ID);
+        }
+        return tokenResponseClient
+                .getTokenResponse(new OAuth2ClientCredentialsGrantRequest(registration))
+                .getAccessToken();
+    }
+
+    private void scheduleRefresh(OAuth2AccessToken token) {
+        if (token.getExpiresAt() == null) {
+            return;
+        }
+        Duration lifetime = Duration.between(Instant.now(), token.getExpiresAt());
+        Duration delay = lifetime.minus(refreshSkew);
+        // A token that lives no longer than the skew is refreshed halfway, never in a tight loop
+        if (!delay.isPositive()) {
+            delay = lifetime.dividedBy(2);
+        }
+        if (delay.compareTo(MIN_REFRESH_DELAY) < 0) {
+            delay = MIN_REFRESH_DELAY;
+        }
+        scheduler.schedule(this::refresh, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static boolean isUsable(OAuth2AccessToken token) {
+        return token != null && (token.getExpiresAt() == null || Instant.now().isBefore(token.getExpiresAt()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
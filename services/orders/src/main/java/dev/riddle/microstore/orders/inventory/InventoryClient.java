@@ -1,6 +1,13 @@
 package dev.riddle.microstore.orders.inventory;
 
 import dev.riddle.microstore.orders.inventory.dto.InventoryItemResponse;
+import dev.riddle.microstore.orders.inventory.dto.StockReservationRequest;
+import dev.riddle.microstore.orders.inventory.dto.StockReservationResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Client interface for communicating with the Inventory service.
@@ -11,18 +18,52 @@ public interface InventoryClient {
      * Fetches inventory item by SKU.
      * 
      * @param sku the SKU to look up
-     * @return the inventory item details
+     * @return the inventory item details, with a {@code null} quantity if the current value is not known
      * @throws dev.riddle.microstore.orders.shared.error.NotFoundException if item not found
      */
     InventoryItemResponse getItemBySku(String sku);
 
     /**
-     * Checks if sufficient stock is available.
+     * Fetches several inventory items in as few round trips as possible.
+     * SKUs unknown to the inventory service are absent from the result.
+     * As with {@link #getItemBySku}, quantities may be {@code null}.
+     * 
+     * @param skus the SKUs to look up, duplicates are ignored
+     * @return the found items keyed by SKU
+     */
+    Map<String, InventoryItemResponse> getItemsBySkus(Collection<String> skus);
+
+    /**
+     * Checks if sufficient stock is available, always against the current quantity.
      * 
      * @param sku the SKU to check
      * @param quantity the desired quantity
      * @return true if sufficient stock is available
      */
     boolean checkStockAvailability(String sku, int quantity);
-}
 
+    /**
+     * Atomically takes stock for every line, either all lines are reserved or none are.
+     * The reservation holds the stock until it is committed, released or expires.
+     * 
+     * @param items the SKUs and quantities to reserve
+     * @return the created reservation
+     * @throws dev.riddle.microstore.orders.shared.error.InsufficientStockException if any line cannot be covered
+     * @throws dev.riddle.microstore.orders.shared.error.NotFoundException if any SKU is unknown
+     */
+    StockReservationResponse reserveStock(List<StockReservationRequest> items);
+
+    /**
+     * Makes a reservation permanent, the reserved stock is gone for good.
+     * 
+     * @param reservationId the reservation to commit
+     */
+    void commitReservation(UUID reservationId);
+
+    /**
+     * Gives the reserved stock back to the inventory.
+     * 
+     * @param reservationId the reservation to release
+     */
+    void releaseReservation(UUID reservationId);
+}
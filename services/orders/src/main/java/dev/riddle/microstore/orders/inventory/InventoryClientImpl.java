@@ -1,46 +1,61 @@
 package dev.riddle.microstore.orders.inventory;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.riddle.microstore.orders.inventory.dto.InventoryItemResponse;
+import dev.riddle.microstore.orders.inventory.dto.ReserveStockRequest;
+import dev.riddle.microstore.orders.inventory.dto.StockReservationRequest;
+import dev.riddle.microstore.orders.inventory.dto.StockReservationResponse;
+import dev.riddle.microstore.orders.shared.error.InsufficientStockException;
 import dev.riddle.microstore.orders.shared.error.NotFoundException;
+import dev.riddle.microstore.orders.shared.error.ReservationConflictException;
+import dev.riddle.microstore.orders.shared.error.ReservationNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
-import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
-import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
 import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 @Component
 public class InventoryClientImpl implements InventoryClient {
 
     private static final Logger log = LoggerFactory.getLogger(InventoryClientImpl.class);
     
     private final RestClient restClient;
-    private final OAuth2AuthorizedClientManager authorizedClientManager;
-    private static final String CLIENT_REGISTRATION_ID = "orders-service";
+    // Matches the per-request cap of the inventory batch endpoint
+    static final int MAX_BATCH_SIZE = 100;
+    private static final ParameterizedTypeReference<List<InventoryItemResponse>> ITEM_LIST =
+            new ParameterizedTypeReference<>() {};
+    private static final ObjectMapper PROBLEM_READER = new ObjectMapper();
 
     public InventoryClientImpl(
             @Value("${inventory.service.url}") String inventoryServiceUrl,
-            OAuth2AuthorizedClientManager authorizedClientManager) {
-        
-        this.authorizedClientManager = authorizedClientManager;
+            ClientCredentialsTokenProvider tokenProvider,
+            @Qualifier("inventoryRequestFactory") ClientHttpRequestFactory requestFactory) {
         
         this.restClient = RestClient.builder()
                 .baseUrl(inventoryServiceUrl)
+                .requestFactory(requestFactory)
                 .requestInterceptor((request, body, execution) -> {
-                    // Get OAuth2 access token
-                    var authorizeRequest = OAuth2AuthorizeRequest
-                            .withClientRegistrationId(CLIENT_REGISTRATION_ID)
-                            .principal("orders-service")
-                            .build();
-                    
-                    var authorizedClient = authorizedClientManager.authorize(authorizeRequest);
-                    
-                    if (authorizedClient != null && authorizedClient.getAccessToken() != null) {
-                        request.getHeaders().setBearerAuth(authorizedClient.getAccessToken().getTokenValue());
-                    }
-                    
+                    // Cached token, refreshed in the background before it expires
+                    request.getHeaders().setBearerAuth(tokenProvider.getTokenValue());
                     return execution.execute(request, body);
                 })
                 .defaultStatusHandler(HttpStatusCode::is4xxClientError, (request, response) -> {
@@ -53,12 +68,91 @@ public class InventoryClientImpl implements InventoryClient {
 
     @Override
     public InventoryItemResponse getItemBySku(String sku) {
+        return getItemBySku(sku, null).item();
+    }
+
+    /**
+     * Conditional variant of {@link #getItemBySku(String)}. With a cached copy the request carries its
+     * ETag, and if inventory answers 304 the copy is handed back instead of a freshly read body.
+     *
+     * @param sku the SKU to look up
+     * @param cached the copy held by the caller, or {@code null}
+     * @return the current item, which is {@code cached} itself when it is still up to date
+     */
+    VersionedItem getItemBySku(String sku, VersionedItem cached) {
         log.debug("Fetching inventory item: {}", sku);
-        
-        return restClient.get()
-                .uri("/api/inventory/{sku}", sku)
+
+        RestClient.RequestHeadersSpec<?> request = restClient.get().uri("/api/inventory/{sku}", sku);
+        if (cached != null && cached.eTag() != null) {
+            request.ifNoneMatch(cached.eTag());
+        }
+
+        ResponseEntity<InventoryItemResponse> response = request.retrieve().toEntity(InventoryItemResponse.class);
+        if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return cached;
+        }
+        return new VersionedItem(response.getBody(), response.getHeaders().getETag());
+    }
+
+    @Override
+    public Map<String, InventoryItemResponse> getItemsBySkus(Collection<String> skus) {
+        List<String> distinctSkus = new ArrayList<>(new LinkedHashSet<>(skus));
+        log.debug("Fetching {} inventory items in batch", distinctSkus.size());
+
+        Map<String, InventoryItemResponse> items = new HashMap<>();
+        for (int from = 0; from < distinctSkus.size(); from += MAX_BATCH_SIZE) {
+            List<String> chunk = distinctSkus.subList(from, Math.min(from + MAX_BATCH_SIZE, distinctSkus.size()));
+
+            List<InventoryItemResponse> found = restClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/inventory/batch")
+                            .queryParam("skus", chunk.toArray())
+                            .build())
+                    .retrieve()
+                    .body(ITEM_LIST);
+
+            if (found != null) {
+                found.forEach(item -> items.put(item.sku(), item));
+            }
+        }
+
+        return items;
+    }
+
+    @Override
+    public StockReservationResponse reserveStock(List<StockReservationRequest> items) {
+        log.debug("Reserving stock for {} order lines", items.size());
+
+        return restClient.post()
+                .uri("/api/inventory/reservations")
+                .body(new ReserveStockRequest(items))
                 .retrieve()
-                .body(InventoryItemResponse.class);
+                .onStatus(status -> status.isSameCodeAs(HttpStatus.CONFLICT), (request, response) -> {
+                    throw new InsufficientStockException(problemDetail(response, "Insufficient stock to reserve order items"));
+                })
+                .onStatus(status -> status.isSameCodeAs(HttpStatus.NOT_FOUND), (request, response) -> {
+                    throw new NotFoundException(problemDetail(response, "Inventory item not found"));
+                })
+                .onStatus(HttpStatusCode::isError, InventoryClientImpl::fail)
+                .body(StockReservationResponse.class);
+    }
+
+    @Override
+    public void commitReservation(UUID reservationId) {
+        log.debug("Committing stock reservation: {}", reservationId);
+
+        settle(restClient.post().uri("/api/inventory/reservations/{id}/commit", reservationId).retrieve(),
+                reservationId, "committed")
+                .toBodilessEntity();
+    }
+
+    @Override
+    public void releaseReservation(UUID reservationId) {
+        log.debug("Releasing stock reservation: {}", reservationId);
+
+        settle(restClient.post().uri("/api/inventory/reservations/{id}/release", reservationId).retrieve(),
+                reservationId, "released")
+                .toBodilessEntity();
     }
 
     @Override
@@ -73,5 +167,33 @@ public class InventoryClientImpl implements InventoryClient {
         
         return available;
     }
-}
 
+    /**
+     * Error handling for commit and release. Every non-2xx answer fails the call, a reservation
+     * taken as settled when inventory refused it would let the stock go back on sale.
+     */
+    private static RestClient.ResponseSpec settle(RestClient.ResponseSpec spec, UUID reservationId, String action) {
+        return spec
+                .onStatus(status -> status.isSameCodeAs(HttpStatus.CONFLICT), (request, response) -> {
+                    throw new ReservationConflictException(problemDetail(response,
+                            "Stock reservation " + reservationId + " can no longer be " + action));
+                })
+                .onStatus(status -> status.isSameCodeAs(HttpStatus.NOT_FOUND), (request, response) -> {
+                    throw new ReservationNotFoundException("Stock reservation " + reservationId + " does not exist");
+                })
+                .onStatus(HttpStatusCode::isError, InventoryClientImpl::fail);
+    }
+
+    // Overrides the lenient default handler, which lets 4xx other than 404 through
+    private static void fail(HttpRequest request, ClientHttpResponse response) throws IOException {
+        new DefaultResponseErrorHandler().handleError(request.getURI(), request.getMethod(), response);
+    }
+
+    private static String problemDetail(ClientHttpResponse response, String fallback) {
+        try {
+            return PROBLEM_READER.readTree(response.getBody()).path("detail").asText(fallback);
+        } catch (IOException ex) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package dev.riddle.microstore.orders.inventory;
+
+import dev.riddle.microstore.orders.inventory.dto.InventoryItemResponse;
+import dev.riddle.microstore.orders.shared.error.InventoryUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fans the inventory lookups of one order out over virtual threads.
+ * <p>
+ * SKUs are split into chunks of {@code inventory.lookup.chunk-size}. A chunk size of 1 looks
+ * every SKU up on its own, larger chunks go through the batch endpoint. At most
+ * {@code inventory.lookup.max-concurrency} calls are in flight across all orders, and an
+ * order gives up once {@code inventory.lookup.deadline} has passed.
+ */
+@Component
+public class InventoryLookupExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryLookupExecutor.class);
+
+    private final InventoryClient inventoryClient;
+    private final Semaphore permits;
+    private final int chunkSize;
+    private final Duration deadline;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public InventoryLookupExecutor(
+            InventoryClient inventoryClient,
+            @Value("${inventory.lookup.max-concurrency:16}") int maxConcurrency,
+            @Value("${inventory.lookup.chunk-size:100}") int chunkSize,
+            @Value("${inventory.lookup.deadline:PT5S}") Duration deadline) {
+
+        if (maxConcurrency < 1 || chunkSize < 1 || chunkSize > InventoryClientImpl.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Invalid inventory lookup settings: max-concurrency="
+                    + maxConcurrency + ", chunk-size=" + chunkSize);
+        }
+        this.inventoryClient = inventoryClient;
+        this.permits = new Semaphore(maxConcurrency);
+        this.chunkSize = chunkSize;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Looks up every SKU concurrently.
+     *
+     * @param skus the SKUs of the order, duplicates are ignored
+     * @return the found items keyed by SKU in request order, unknown SKUs are absent
+     * @throws dev.riddle.microstore.orders.shared.error.NotFoundException if a single-SKU lookup gets a 404
+     * @throws InventoryUnavailableException if the lookups do not finish before the deadline
+     */
+    public Map<String, InventoryItemResponse> lookup(Collection<String> skus) {
+        List<String> distinctSkus = new ArrayList<>(new LinkedHashSet<>(skus));
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+
+        List<Future<Map<String, InventoryItemResponse>>> futures = new ArrayList<>();
+        for (int from = 0; from < distinctSkus.size(); from += chunkSize) {
+            List<String> chunk = List.copyOf(distinctSkus.subList(from, Math.min(from + chunkSize, distinctSkus.size())));
+            futures.add(executor.submit(() -> fetch(chunk)));
+        }
+
+        Map<String, InventoryItemResponse> found = new HashMap<>();
+        try {
+            for (Future<Map<String, InventoryItemResponse>> future : futures) {
+                found.putAll(future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+        } catch (TimeoutException ex) {
+            throw new InventoryUnavailableException("Inventory lookup did not finish within " + deadline, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InventoryUnavailableException("Interrupted while looking up inventory", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new InventoryUnavailableException("Inventory lookup failed", ex.getCause());
+        } finally {
+            // Stop whatever is still running once the first failure or the deadline is hit
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        // Hand the items back in request order
+        Map<String, InventoryItemResponse> items = new LinkedHashMap<>();
+        for (String sku : distinctSkus) {
+            InventoryItemResponse item = found.get(sku);
+            if (item != null) {
+                items.put(sku, item);
+            }
+        }
+        return items;
+    }
+
+    private Map<String, InventoryItemResponse> fetch(List<String> chunk) throws InterruptedException {
+        permits.acquire();
+        try {
+            log.debug("Looking up {} inventory items", chunk.size());
+            if (chunkSize == 1) {
+                InventoryItemResponse item = inventoryClient.getItemBySku(chunk.getFirst());
+                return item == null ? Map.of() : Map.of(item.sku(), item);
+            }
+            return inventoryClient.getItemsBySkus(chunk);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,9 @@
+package dev.riddle.microstore.orders.inventory;
+
+import dev.riddle.microstore.orders.inventory.dto.InventoryItemResponse;
+
+/**
+ * An inventory item together with the ETag it was served with, so it can be revalidated later.
+ */
+record VersionedItem(InventoryItemResponse item, String eTag) {
+}
@@ -0,0 +1,8 @@
+package dev.riddle.microstore.orders.inventory.dto;
+
+import java.util.List;
+
+public record ReserveStockRequest(
+        List<StockReservationRequest> items
+) {
+}
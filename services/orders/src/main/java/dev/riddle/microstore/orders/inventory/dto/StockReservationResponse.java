@@ -0,0 +1,11 @@
+package dev.riddle.microstore.orders.inventory.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record StockReservationResponse(
+        UUID id,
+        String status,
+        Instant expiresAt
+) {
+}
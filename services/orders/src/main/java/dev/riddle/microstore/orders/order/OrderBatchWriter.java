@@ -0,0 +1,254 @@
+package dev.riddle.microstore.orders.order;
+
+import dev.riddle.microstore.orders.shared.error.WriteQueueFullException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Group commit for new orders, enabled with {@code orders.group-commit.enabled}.
+ * <p>
+ * Callers hand their order to a bounded queue and block until it is stored. A single writer thread
+ * takes up to {@code max-batch-size} orders, waiting at most {@code max-wait} for the batch to fill,
+ * and stores them in one transaction, so concurrent requests share one commit and the inserts go out
+ * as JDBC batches. If a batch fails, its orders are retried one transaction each so that one bad
+ * order does not fail the others. When the queue is full the caller gets a
+ * {@link WriteQueueFullException} straight away, and the same when its order is not stored within
+ * {@code write-timeout} or the writer is shutting down.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.group-commit.enabled", havingValue = "true")
+public class OrderBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderBatchWriter.class);
+
+    private final OrderRepository orderRepository;
+    private final TransactionOperations transactionOperations;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Duration retryAfter;
+    private final Duration writeTimeout;
+    private final DistributionSummary batchSizes;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public OrderBatchWriter(
+            OrderRepository orderRepository,
+            TransactionOperations transactionOperations,
+            MeterRegistry meterRegistry,
+            @Value("${orders.group-commit.queue-capacity:1000}") int queueCapacity,
+            @Value("${orders.group-commit.max-batch-size:50}") int maxBatchSize,
+            @Value("${orders.group-commit.max-wait:PT0.002S}") Duration maxWait,
+            @Value("${orders.group-commit.retry-after:PT1S}") Duration retryAfter,
+            @Value("${orders.group-commit.write-timeout:PT10S}") Duration writeTimeout) {
+
+        this.orderRepository = orderRepository;
+        this.transactionOperations = transactionOperations;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfter = retryAfter;
+        this.writeTimeout = writeTimeout;
+        this.batchSizes = DistributionSummary.builder("orders.group-commit.batch.size")
+                .description("Orders stored per group commit")
+                .register(meterRegistry);
+        meterRegistry.gauge("orders.group-commit.queue.size", queue, BlockingQueue::size);
+
+        this.writer = Thread.ofPlatform().name("order-batch-writer").daemon().start(this::run);
+    }
+
+    /**
+     * Stores the order together with other orders waiting at the same time and returns once the
+     * transaction has committed. {@code onPersisted} runs inside that transaction.
+     *
+     * @throws WriteQueueFullException if the writer is too far behind to take the order, does not
+     *                                 store it within {@code write-timeout} or is shutting down
+     */
+    public Order write(Order order, Consumer<Order> onPersisted) {
+        PendingWrite pending = new PendingWrite(order, onPersisted, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new WriteQueueFullException("Too many orders are waiting to be stored", retryAfter);
+        }
+        if (!running && queue.remove(pending)) {
+            // Shutdown started while offering, the writer may have drained the queue already
+            throw shuttingDown();
+        }
+
+        try {
+            return pending.stored().get(writeTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Storing the order failed", ex.getCause());
+        } catch (TimeoutException ex) {
+            return abandon(pending, new WriteQueueFullException(
+                    "Order was not stored within " + writeTimeout, retryAfter));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return abandon(pending, new IllegalStateException("Interrupted while storing the order", ex));
+        }
+    }
+
+    /**
+     * Fails the write unless the writer completed it in the meantime. An abandoned order is skipped
+     * if it is still queued, and taken back out if its batch was already being stored.
+     */
+    private Order abandon(PendingWrite pending, RuntimeException failure) {
+        if (pending.stored().completeExceptionally(failure)) {
+            queue.remove(pending);
+            throw failure;
+        }
+        try {
+            return pending.stored().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                writeBatch(collectBatch(first));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException ex) {
+                // writeBatch completes every future itself, this only keeps the thread alive
+                log.error("Order batch writer failed", ex);
+            }
+        }
+        running = false;
+        rejectQueued();
+    }
+
+    private void rejectQueued() {
+        List<PendingWrite> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (PendingWrite pending : left) {
+            pending.stored().completeExceptionally(shuttingDown());
+        }
+    }
+
+    private WriteQueueFullException shuttingDown() {
+        return new WriteQueueFullException("Order writer is shutting down", retryAfter);
+    }
+
+    private List<PendingWrite> collectBatch(PendingWrite first) throws InterruptedException {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + maxWaitNanos;
+
+        while (batch.size() < maxBatchSize) {
+            // Take whatever is already waiting, then give late arrivals until the deadline
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        // Callers that timed out while their order was queued no longer want it stored
+        batch.removeIf(pending -> pending.stored().isDone());
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        try {
+            List<Order> saved = transactionOperations.execute(status -> batch.stream().map(this::save).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), saved.get(i));
+            }
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                batch.getFirst().stored().completeExceptionally(ex);
+                return;
+            }
+            log.warn("Group commit of {} orders failed, storing them one by one", batch.size(), ex);
+            for (PendingWrite pending : batch) {
+                writeAlone(pending);
+            }
+        }
+    }
+
+    private void writeAlone(PendingWrite pending) {
+        if (pending.stored().isDone()) {
+            return;
+        }
+        // Ids were handed out in the rolled back transaction, let the retry insert afresh
+        pending.order().setId(null);
+        pending.order().getItems().forEach(item -> item.setId(null));
+        try {
+            complete(pending, transactionOperations.execute(status -> save(pending)));
+        } catch (RuntimeException ex) {
+            pending.stored().completeExceptionally(ex);
+        }
+    }
+
+    private void complete(PendingWrite pending, Order saved) {
+        if (pending.stored().complete(saved)) {
+            return;
+        }
+        // The caller gave up and released its stock reservation, so the order must not stay
+        log.warn("Order {} was stored after its caller stopped waiting, removing it", saved.getId());
+        try {
+            transactionOperations.executeWithoutResult(status -> orderRepository.deleteById(saved.getId()));
+        } catch (RuntimeException ex) {
+            log.error("Failed to remove abandoned order {}", saved.getId(), ex);
+        }
+    }
+
+    private Order save(PendingWrite pending) {
+        Order saved = orderRepository.save(pending.order());
+        pending.onPersisted().accept(saved);
+        return saved;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Orders already queued are still written, new ones are turned away
+        running = false;
+        writer.join(Duration.ofSeconds(10));
+        // Whatever the writer did not get to in time fails instead of leaving its caller waiting
+        rejectQueued();
+    }
+
+    private record PendingWrite(Order order, Consumer<Order> onPersisted, CompletableFuture<Order> stored) {
+    }
+}
@@ -1,31 +1,52 @@
 package dev.riddle.microstore.orders.order;
 
+import dev.riddle.microstore.orders.idempotency.IdempotentOrderService;
+import dev.riddle.microstore.orders.idempotency.IdempotentOrderService.IdempotentResponse;
 import dev.riddle.microstore.orders.order.dto.CreateOrderRequest;
 import dev.riddle.microstore.orders.order.dto.OrderResponse;
+import dev.riddle.microstore.orders.shared.paging.CursorPageResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final IdempotentOrderService idempotentOrderService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, IdempotentOrderService idempotentOrderService) {
         this.orderService = orderService;
+        this.idempotentOrderService = idempotentOrderService;
     }
 
+    /**
+     * With an {@code Idempotency-Key} header a retry of the same request returns the original order,
+     * marked with {@code Idempotent-Replayed: true}, instead of creating another one.
+     */
     @PostMapping
     @PreAuthorize("hasAuthority('SCOPE_inventory.write')")
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        OrderResponse response = orderService.createOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+
+        if (idempotencyKey == null) {
+            OrderResponse response = orderService.createOrder(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+
+        IdempotentResponse result = idempotentOrderService.createOrder(idempotencyKey, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replayed()))
+                .body(result.response());
     }
 
     @GetMapping("/{orderId}")
@@ -35,16 +56,18 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Orders newest first, a page at a time. Pass {@code nextCursor} of a page as {@code cursor} to get
+     * the next one. Summaries leave out the items, {@code detail=true} includes them.
+     */
     @GetMapping
     @PreAuthorize("hasAuthority('SCOPE_inventory.read')")
-    public ResponseEntity<List<OrderResponse>> getAllOrders(
-            @RequestParam(required = false) String customerEmail) {
-        
-        List<OrderResponse> orders = customerEmail != null
-                ? orderService.getOrdersByCustomerEmail(customerEmail)
-                : orderService.getAllOrders();
-        
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<CursorPageResponse<?>> listOrders(
+            OrderListingFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean detail) {
+
+        return ResponseEntity.ok(orderService.listOrders(filter, cursor, size, detail));
     }
 }
-
@@ -0,0 +1,31 @@
+package dev.riddle.microstore.orders.order;
+
+import dev.riddle.microstore.orders.shared.error.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last order of a page, newest first. The id breaks ties between orders
+ * created in the same microsecond. Handed out as an opaque token.
+ */
+public record OrderCursor(Instant createdAt, UUID id) {
+
+    String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            return new OrderCursor(Instant.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package dev.riddle.microstore.orders.order;
 
+import dev.riddle.microstore.orders.shared.persistence.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -15,7 +17,8 @@ import java.util.UUID;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
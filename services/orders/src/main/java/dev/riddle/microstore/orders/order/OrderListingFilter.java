@@ -0,0 +1,17 @@
+package dev.riddle.microstore.orders.order;
+
+import java.time.Instant;
+
+/**
+ * Optional filters of the order listing, bound from query parameters.
+ *
+ * @param createdFrom inclusive lower bound of {@code createdAt}
+ * @param createdTo   exclusive upper bound of {@code createdAt}
+ */
+public record OrderListingFilter(
+        String customerEmail,
+        OrderStatus status,
+        Instant createdFrom,
+        Instant createdTo
+) {
+}
@@ -0,0 +1,24 @@
+package dev.riddle.microstore.orders.order;
+
+import dev.riddle.microstore.orders.order.dto.OrderSummaryResponse;
+
+import java.util.List;
+
+/**
+ * Keyset listing of orders, newest first, mixed into {@link OrderRepository}.
+ */
+public interface OrderListingRepository {
+
+    /**
+     * Reads only the {@code orders} table, the items are never touched.
+     *
+     * @param after the last order of the previous page, or {@code null} for the first page
+     */
+    List<OrderSummaryResponse> findSummaries(OrderListingFilter filter, OrderCursor after, int limit);
+
+    /**
+     * Finds the page with the same keyset query, then loads those orders with their items in one
+     * fetch join. Paging the fetch join itself would make Hibernate page in memory.
+     */
+    List<Order> findWithItems(OrderListingFilter filter, OrderCursor after, int limit);
+}
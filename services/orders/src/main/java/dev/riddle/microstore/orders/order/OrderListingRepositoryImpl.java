@@ -0,0 +1,93 @@
+package dev.riddle.microstore.orders.order;
+
+import dev.riddle.microstore.orders.order.dto.OrderSummaryResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+class OrderListingRepositoryImpl implements OrderListingRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderSummaryResponse> findSummaries(OrderListingFilter filter, OrderCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSummaryResponse> query = cb.createQuery(OrderSummaryResponse.class);
+        Root<Order> order = query.from(Order.class);
+
+        query.select(cb.construct(OrderSummaryResponse.class,
+                        order.get("id"),
+                        order.get("customerName"),
+                        order.get("customerEmail"),
+                        order.get("status"),
+                        order.get("totalAmountInCents"),
+                        order.get("createdAt")))
+                .where(predicates(cb, order, filter, after))
+                .orderBy(cb.desc(order.get("createdAt")), cb.desc(order.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Order> findWithItems(OrderListingFilter filter, OrderCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<Order> order = query.from(Order.class);
+
+        query.select(order.get("id"))
+                .where(predicates(cb, order, filter, after))
+                .orderBy(cb.desc(order.get("createdAt")), cb.desc(order.get("id")));
+
+        List<UUID> ids = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, Order> orders = entityManager.createQuery(
+                        "SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids", Order.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        // The IN query has no order, put the page back in keyset order
+        return ids.stream().map(orders::get).toList();
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<Order> order, OrderListingFilter filter, OrderCursor after) {
+        List<Predicate> predicates = new ArrayList<>();
+        Path<Instant> createdAt = order.get("createdAt");
+
+        if (filter.customerEmail() != null) {
+            predicates.add(cb.equal(order.get("customerEmail"), filter.customerEmail()));
+        }
+        if (filter.status() != null) {
+            predicates.add(cb.equal(order.get("status"), filter.status()));
+        }
+        if (filter.createdFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(createdAt, filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            predicates.add(cb.lessThan(createdAt, filter.createdTo()));
+        }
+        if (after != null) {
+            Path<UUID> id = order.get("id");
+            predicates.add(cb.or(
+                    cb.lessThan(createdAt, after.createdAt()),
+                    cb.and(cb.equal(createdAt, after.createdAt()), cb.lessThan(id, after.id()))));
+        }
+
+        return predicates.toArray(Predicate[]::new);
+    }
+}
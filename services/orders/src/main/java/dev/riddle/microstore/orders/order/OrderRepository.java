@@ -1,14 +1,22 @@
 package dev.riddle.microstore.orders.order;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
-    List<Order> findByCustomerEmailOrderByCreatedAtDesc(String customerEmail);
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderListingRepository {
+
+    /**
+     * The order with its items in a single query, for reads that map the whole order.
+     */
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(UUID id);
+
     List<Order> findByStatus(OrderStatus status);
 }
 
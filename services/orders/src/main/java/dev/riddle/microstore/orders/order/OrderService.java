@@ -1,39 +1,78 @@
 package dev.riddle.microstore.orders.order;
 
 import dev.riddle.microstore.orders.inventory.InventoryClient;
+import dev.riddle.microstore.orders.inventory.InventoryLookupExecutor;
 import dev.riddle.microstore.orders.inventory.dto.InventoryItemResponse;
+import dev.riddle.microstore.orders.inventory.dto.StockReservationRequest;
+import dev.riddle.microstore.orders.inventory.dto.StockReservationResponse;
 import dev.riddle.microstore.orders.order.dto.CreateOrderRequest;
 import dev.riddle.microstore.orders.order.dto.OrderItemRequest;
 import dev.riddle.microstore.orders.order.dto.OrderResponse;
+import dev.riddle.microstore.orders.order.dto.OrderSummaryResponse;
+import dev.riddle.microstore.orders.shared.error.BadRequestException;
 import dev.riddle.microstore.orders.shared.error.InsufficientStockException;
 import dev.riddle.microstore.orders.shared.error.NotFoundException;
+import dev.riddle.microstore.orders.shared.paging.CursorPageResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 public class OrderService {
 
     private static final Logger log = LoggerFactory.getLogger(OrderService.class);
 
+    static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
     private final InventoryClient inventoryClient;
+    private final InventoryLookupExecutor inventoryLookupExecutor;
+    private final TransactionOperations transactionOperations;
+    private final ObjectProvider<OrderBatchWriter> orderBatchWriter;
+    private final MeterRegistry meterRegistry;
 
     public OrderService(OrderRepository orderRepository, 
                        OrderMapper orderMapper,
-                       InventoryClient inventoryClient) {
+                       InventoryClient inventoryClient,
+                       InventoryLookupExecutor inventoryLookupExecutor,
+                       TransactionOperations transactionOperations,
+                       ObjectProvider<OrderBatchWriter> orderBatchWriter,
+                       MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
         this.orderMapper = orderMapper;
         this.inventoryClient = inventoryClient;
+        this.inventoryLookupExecutor = inventoryLookupExecutor;
+        this.transactionOperations = transactionOperations;
+        this.orderBatchWriter = orderBatchWriter;
+        this.meterRegistry = meterRegistry;
     }
 
-    @Transactional
+    /**
+     * Creates an order in phases so that no database connection is held while waiting on inventory.
+     * Lookup and reservation run without a transaction, the transaction only persists the order,
+     * and the reservation is committed once the order is stored.
+     */
     public OrderResponse createOrder(CreateOrderRequest request) {
+        return createOrder(request, order -> { });
+    }
+
+    /**
+     * As {@link #createOrder(CreateOrderRequest)}, with {@code onPersisted} called inside the transaction
+     * that stores the order. Whatever it writes is committed or rolled back together with the order.
+     */
+    public OrderResponse createOrder(CreateOrderRequest request, Consumer<Order> onPersisted) {
         log.info("Creating order for customer: {}", request.customerEmail());
 
         // Create order entity
@@ -42,28 +81,88 @@ public class OrderService {
         order.setCustomerEmail(request.customerEmail());
         order.setStatus(OrderStatus.PENDING);
 
+        // Fetch every referenced item from inventory concurrently, merged back in request order
+        Map<String, InventoryItemResponse> inventoryItems = timed("lookup", () -> inventoryLookupExecutor.lookup(
+                request.items().stream().map(OrderItemRequest::sku).toList()));
+
         // Process each order item
         for (OrderItemRequest itemRequest : request.items()) {
-            processOrderItem(order, itemRequest);
+            processOrderItem(order, itemRequest, inventoryItems.get(itemRequest.sku()));
         }
 
-        // Recalculate total and save
+        // Take the stock atomically in inventory, the lookup above is only a fast pre-check
+        StockReservationResponse reservation = timed("reserve", () -> inventoryClient.reserveStock(request.items().stream()
+                .map(item -> new StockReservationRequest(item.sku(), item.quantity()))
+                .toList()));
+
+        // Recalculate total and save, the only part that needs a connection
         order.recalculateTotal();
         order.setStatus(OrderStatus.CONFIRMED);
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder;
+        try {
+            savedOrder = timed("persist", () -> persist(order, onPersisted));
+        } catch (RuntimeException ex) {
+            releaseQuietly(reservation.id());
+            throw ex;
+        }
+
+        try {
+            timed("commit", () -> {
+                inventoryClient.commitReservation(reservation.id());
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            // Without a committed reservation the order is not backed by stock, take it back out
+            transactionOperations.executeWithoutResult(status -> orderRepository.deleteById(savedOrder.getId()));
+            releaseQuietly(reservation.id());
+            throw ex;
+        }
 
         log.info("Order created successfully: {}", savedOrder.getId());
         return orderMapper.toResponse(savedOrder);
     }
 
-    private void processOrderItem(Order order, OrderItemRequest itemRequest) {
+    /**
+     * Stores the order in its own transaction, or through the group commit writer when it is enabled.
+     */
+    private Order persist(Order order, Consumer<Order> onPersisted) {
+        OrderBatchWriter writer = orderBatchWriter.getIfAvailable();
+        if (writer != null) {
+            return writer.write(order, onPersisted);
+        }
+        return transactionOperations.execute(status -> {
+            Order saved = orderRepository.save(order);
+            onPersisted.accept(saved);
+            return saved;
+        });
+    }
+
+    private <T> T timed(String phase, Supplier<T> action) {
+        return Timer.builder("orders.create.phase")
+                .description("Time spent in each phase of order creation")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(action);
+    }
+
+    private void releaseQuietly(UUID reservationId) {
+        try {
+            inventoryClient.releaseReservation(reservationId);
+        } catch (RuntimeException ex) {
+            // The reservation expires on its own, so the stock comes back either way
+            log.warn("Failed to release stock reservation {}", reservationId, ex);
+        }
+    }
+
+    private void processOrderItem(Order order, OrderItemRequest itemRequest, InventoryItemResponse inventoryItem) {
         log.debug("Processing order item: {}", itemRequest.sku());
 
-        // Fetch item details from inventory service
-        InventoryItemResponse inventoryItem = inventoryClient.getItemBySku(itemRequest.sku());
+        if (inventoryItem == null) {
+            throw new NotFoundException("Inventory item not found: " + itemRequest.sku());
+        }
 
-        // Check stock availability
-        if (!inventoryClient.checkStockAvailability(itemRequest.sku(), itemRequest.quantity())) {
+        // Fail fast on a fresh quantity; cached items carry none and the reservation decides
+        if (inventoryItem.quantity() != null && inventoryItem.quantity() < itemRequest.quantity()) {
             throw new InsufficientStockException(
                     "Insufficient stock for SKU: " + itemRequest.sku() +
                     ". Available: " + inventoryItem.quantity() +
@@ -84,24 +183,37 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(UUID orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new NotFoundException("Order not found: " + orderId));
         return orderMapper.toResponse(order);
     }
 
+    /**
+     * One page of orders, newest first. Summaries come from the {@code orders} table alone, with
+     * {@code detail} the page's items are loaded in a single additional query.
+     */
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrdersByCustomerEmail(String email) {
-        return orderRepository.findByCustomerEmailOrderByCreatedAtDesc(email)
-                .stream()
-                .map(orderMapper::toResponse)
-                .toList();
-    }
+    public CursorPageResponse<?> listOrders(OrderListingFilter filter, String cursor, int size, boolean detail) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        OrderCursor after = cursor == null || cursor.isBlank() ? null : OrderCursor.decode(cursor);
+
+        // One extra row tells whether there is a next page
+        if (detail) {
+            List<Order> orders = orderRepository.findWithItems(filter, after, size + 1);
+            List<Order> page = orders.size() > size ? orders.subList(0, size) : orders;
+            String nextCursor = orders.size() > size
+                    ? new OrderCursor(page.getLast().getCreatedAt(), page.getLast().getId()).encode()
+                    : null;
+            return new CursorPageResponse<>(page.stream().map(orderMapper::toResponse).toList(), size, nextCursor);
+        }
 
-    @Transactional(readOnly = true)
-    public List<OrderResponse> getAllOrders() {
-        return orderRepository.findAll()
-                .stream()
-                .map(orderMapper::toResponse)
-                .toList();
+        List<OrderSummaryResponse> orders = orderRepository.findSummaries(filter, after, size + 1);
+        List<OrderSummaryResponse> page = orders.size() > size ? orders.subList(0, size) : orders;
+        String nextCursor = orders.size() > size
+                ? new OrderCursor(page.getLast().createdAt(), page.getLast().id()).encode()
+                : null;
+        return new CursorPageResponse<>(page, size, nextCursor);
     }
 }
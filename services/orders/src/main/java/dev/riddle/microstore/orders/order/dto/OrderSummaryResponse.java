@@ -0,0 +1,19 @@
+package dev.riddle.microstore.orders.order.dto;
+
+import dev.riddle.microstore.orders.order.OrderStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An order without its items, read straight from the {@code orders} table.
+ */
+public record OrderSummaryResponse(
+        UUID id,
+        String customerName,
+        String customerEmail,
+        OrderStatus status,
+        Integer totalAmountInCents,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,7 @@
+package dev.riddle.microstore.orders.shared.error;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package dev.riddle.microstore.orders.shared.error;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
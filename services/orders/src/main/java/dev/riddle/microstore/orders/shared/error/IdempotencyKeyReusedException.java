@@ -0,0 +1,7 @@
+package dev.riddle.microstore.orders.shared.error;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
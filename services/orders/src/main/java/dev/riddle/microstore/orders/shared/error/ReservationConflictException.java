@@ -0,0 +1,11 @@
+package dev.riddle.microstore.orders.shared.error;
+
+/**
+ * Inventory refused to commit or release a stock reservation, because it expired or was already
+ * settled the other way.
+ */
+public class ReservationConflictException extends ConflictException {
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+}
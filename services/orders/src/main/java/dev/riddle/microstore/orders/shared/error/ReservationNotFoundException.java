@@ -0,0 +1,10 @@
+package dev.riddle.microstore.orders.shared.error;
+
+/**
+ * Inventory does not know the stock reservation, it expired and was cleaned up or never existed.
+ */
+public class ReservationNotFoundException extends ReservationConflictException {
+    public ReservationNotFoundException(String message) {
+        super(message);
+    }
+}
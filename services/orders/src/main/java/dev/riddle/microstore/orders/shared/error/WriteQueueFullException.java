@@ -0,0 +1,16 @@
+package dev.riddle.microstore.orders.shared.error;
+
+import java.time.Duration;
+
+public class WriteQueueFullException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public WriteQueueFullException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
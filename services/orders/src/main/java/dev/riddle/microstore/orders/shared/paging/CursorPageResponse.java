@@ -0,0 +1,13 @@
+package dev.riddle.microstore.orders.shared.paging;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing, {@code nextCursor} is {@code null} on the last page.
+ */
+public record CursorPageResponse<T>(
+        List<T> content,
+        int pageSize,
+        String nextCursor
+) {
+}
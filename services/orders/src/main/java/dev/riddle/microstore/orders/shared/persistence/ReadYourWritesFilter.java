@@ -0,0 +1,41 @@
+package dev.riddle.microstore.orders.shared.persistence;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Keeps every read of a request on the primary when it carries {@code Read-Your-Writes: true}, for
+ * clients that read back what they have just written and cannot wait for the replica to catch up.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Read-Your-Writes";
+
+    private static final ThreadLocal<Boolean> REQUESTED = new ThreadLocal<>();
+
+    public static boolean isRequested() {
+        return Boolean.TRUE.equals(REQUESTED.get());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!Boolean.parseBoolean(request.getHeader(HEADER))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        REQUESTED.set(true);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            REQUESTED.remove();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package dev.riddle.microstore.orders.shared.persistence;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to the read replica, everything
+ * else to the primary. Reads fall back to the primary while the replica is too far behind and when
+ * the request asked to read its own writes.
+ * <p>
+ * The read-only flag is only known once the transaction has started, so this has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that picks the target
+ * when the first statement runs.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean replica = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWritesFilter.isRequested()
+                && lagMonitor.isUsable();
+        return replica ? Target.REPLICA : Target.PRIMARY;
+    }
+}
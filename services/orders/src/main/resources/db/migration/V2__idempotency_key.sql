@@ -0,0 +1,9 @@
+-- Idempotency-Key of POST /api/orders, a row is claimed before the order is created
+-- and completed with the response in the same transaction that stores the order
+CREATE TABLE idempotency_key (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    order_id UUID REFERENCES orders(id) ON DELETE CASCADE,
+    response TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,24 @@
+package dev.riddle.microstore.orders.config;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+
+/**
+ * The inventory transport with the settings {@link InventoryHttpClientConfig} uses, for tests that
+ * build the client without an application context. Each factory owns a connection pool, call
+ * {@link HttpComponentsClientHttpRequestFactory#destroy()} when done with it.
+ */
+public final class InventoryRequestFactories {
+
+    private InventoryRequestFactories() {
+    }
+
+    public static HttpComponentsClientHttpRequestFactory create(Duration connectTimeout, Duration readTimeout) {
+        PoolingHttpClientConnectionManager connectionManager = InventoryHttpClientConfig.connectionManager(
+                100, 50, connectTimeout, readTimeout, Duration.ofMinutes(5));
+        return new HttpComponentsClientHttpRequestFactory(InventoryHttpClientConfig.httpClient(
+                connectionManager, Duration.ofSeconds(1), readTimeout, Duration.ofSeconds(30)));
+    }
+}
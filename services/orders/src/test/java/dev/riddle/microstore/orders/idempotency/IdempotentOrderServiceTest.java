@@ -0,0 +1,243 @@
+package dev.riddle.microstore.orders.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.riddle.microstore.orders.idempotency.IdempotentOrderService.IdempotentResponse;
+import dev.riddle.microstore.orders.order.Order;
+import dev.riddle.microstore.orders.order.OrderMapper;
+import dev.riddle.microstore.orders.order.OrderService;
+import dev.riddle.microstore.orders.order.OrderStatus;
+import dev.riddle.microstore.orders.order.dto.CreateOrderRequest;
+import dev.riddle.microstore.orders.order.dto.OrderItemRequest;
+import dev.riddle.microstore.orders.order.dto.OrderResponse;
+import dev.riddle.microstore.orders.shared.error.ConflictException;
+import dev.riddle.microstore.orders.shared.error.IdempotencyKeyReusedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentOrderServiceTest {
+
+    private static final String KEY = "retry-1";
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private IdempotentOrderService idempotentOrderService;
+
+    @BeforeEach
+    void setUp() {
+        idempotentOrderService = newService();
+    }
+
+    @Test
+    void createOrder_firstRequest_shouldStoreResponseWithOrder() throws Exception {
+        // Given
+        CreateOrderRequest request = request(2);
+        OrderResponse created = response();
+        when(repository.findById(KEY)).thenReturn(Optional.empty());
+        when(repository.claim(eq(KEY), anyString(), eq(60L))).thenReturn(1);
+        stubCreate(request, created);
+
+        // When
+        IdempotentResponse result = idempotentOrderService.createOrder(KEY, request);
+
+        // Then
+        assertThat(result.replayed()).isFalse();
+        assertThat(result.response()).isEqualTo(created);
+        verify(repository).complete(KEY, created.id(), objectMapper.writeValueAsString(created));
+        verify(repository, never()).release(any());
+    }
+
+    @Test
+    void createOrder_retry_shouldReplayFromCacheWithoutCreatingAgain() {
+        // Given
+        CreateOrderRequest request = request(2);
+        OrderResponse created = response();
+        when(repository.findById(KEY)).thenReturn(Optional.empty());
+        when(repository.claim(eq(KEY), anyString(), anyLong())).thenReturn(1);
+        stubCreate(request, created);
+        idempotentOrderService.createOrder(KEY, request);
+
+        // When
+        IdempotentResponse result = idempotentOrderService.createOrder(KEY, request(2));
+
+        // Then
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.response()).isEqualTo(created);
+        verify(orderService, times(1)).createOrder(eq(request), any());
+        verify(repository, times(1)).findById(KEY);
+    }
+
+    @Test
+    void createOrder_withStoredResponse_shouldReplayWithoutCreating() throws Exception {
+        // Given the key was completed by another instance
+        CreateOrderRequest request = request(2);
+        OrderResponse created = response();
+        when(repository.findById(KEY)).thenReturn(Optional.empty());
+        when(repository.claim(eq(KEY), anyString(), anyLong())).thenReturn(1);
+        stubCreate(request, created);
+        idempotentOrderService.createOrder(KEY, request);
+
+        ArgumentCaptor<String> requestHash = ArgumentCaptor.forClass(String.class);
+        verify(repository).claim(eq(KEY), requestHash.capture(), anyLong());
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setKey(KEY);
+        record.setRequestHash(requestHash.getValue());
+        record.setOrderId(created.id());
+        record.setResponse(objectMapper.writeValueAsString(created));
+        when(repository.findById(KEY)).thenReturn(Optional.of(record));
+
+        IdempotentOrderService otherInstance = newService();
+
+        // When
+        IdempotentResponse result = otherInstance.createOrder(KEY, request);
+
+        // Then
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.response()).isEqualTo(created);
+        verify(orderService, times(1)).createOrder(eq(request), any());
+    }
+
+    @Test
+    void createOrder_withKeyReusedForDifferentRequest_shouldBeRejected() {
+        // Given
+        CreateOrderRequest request = request(2);
+        when(repository.findById(KEY)).thenReturn(Optional.empty());
+        when(repository.claim(eq(KEY), anyString(), anyLong())).thenReturn(1);
+        stubCreate(request, response());
+        idempotentOrderService.createOrder(KEY, request);
+
+        // When/Then
+        assertThatThrownBy(() -> idempotentOrderService.createOrder(KEY, request(3)))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        verify(orderService, times(1)).createOrder(any(), any());
+    }
+
+    @Test
+    void createOrder_withConcurrentDuplicates_shouldCreateOnce() throws Exception {
+        // Given
+        CreateOrderRequest request = request(2);
+        OrderResponse created = response();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findById(KEY)).thenReturn(Optional.empty());
+        when(repository.claim(eq(KEY), anyString(), anyLong())).thenReturn(1);
+        when(orderService.createOrder(eq(request), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return created;
+        });
+
+        // When
+        Future<IdempotentResponse> first;
+        Future<IdempotentResponse> duplicate;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            first = executor.submit(() -> idempotentOrderService.createOrder(KEY, request));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            duplicate = executor.submit(() -> idempotentOrderService.createOrder(KEY, request(2)));
+            Thread.sleep(100);
+            release.countDown();
+        }
+
+        // Then
+        assertThat(first.get().replayed()).isFalse();
+        assertThat(duplicate.get().replayed()).isTrue();
+        assertThat(duplicate.get().response()).isEqualTo(created);
+        verify(orderService, times(1)).createOrder(any(), any());
+        verify(repository, times(1)).claim(any(), any(), anyLong());
+    }
+
+    @Test
+    void createOrder_whenCreationFails_shouldReleaseKeyForRetry() {
+        // Given
+        CreateOrderRequest request = request(2);
+        OrderResponse created = response();
+        when(repository.findById(KEY)).thenReturn(Optional.empty());
+        when(repository.claim(eq(KEY), anyString(), anyLong())).thenReturn(1);
+        when(orderService.createOrder(eq(request), any()))
+                .thenThrow(new IllegalStateException("inventory down"))
+                .thenReturn(created);
+
+        // When
+        assertThatThrownBy(() -> idempotentOrderService.createOrder(KEY, request))
+                .isInstanceOf(IllegalStateException.class);
+        IdempotentResponse retry = idempotentOrderService.createOrder(KEY, request);
+
+        // Then
+        verify(repository).release(KEY);
+        assertThat(retry.replayed()).isFalse();
+        assertThat(retry.response()).isEqualTo(created);
+    }
+
+    @Test
+    void createOrder_whenClaimedByAnotherInstance_shouldConflict() {
+        // Given
+        when(repository.findById(KEY)).thenReturn(Optional.empty());
+        when(repository.claim(eq(KEY), anyString(), anyLong())).thenReturn(0);
+
+        // When/Then
+        assertThatThrownBy(() -> idempotentOrderService.createOrder(KEY, request(2)))
+                .isInstanceOf(ConflictException.class);
+        verify(orderService, never()).createOrder(any(), any());
+    }
+
+    private IdempotentOrderService newService() {
+        return new IdempotentOrderService(orderService, orderMapper, repository,
+                TransactionOperations.withoutTransaction(), objectMapper, new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(10), Duration.ofMinutes(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubCreate(CreateOrderRequest request, OrderResponse created) {
+        Order order = new Order();
+        order.setId(created.id());
+        when(orderMapper.toResponse(order)).thenReturn(created);
+        when(orderService.createOrder(eq(request), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, Consumer.class).accept(order);
+            return created;
+        });
+    }
+
+    private static CreateOrderRequest request(int quantity) {
+        return new CreateOrderRequest("John Doe", "john@example.com", List.of(new OrderItemRequest("TEST-SKU", quantity)));
+    }
+
+    private static OrderResponse response() {
+        return new OrderResponse(UUID.randomUUID(), "John Doe", "john@example.com", OrderStatus.CONFIRMED,
+                3998, List.of(), Instant.parse("2025-03-01T10:15:30Z"), Instant.parse("2025-03-01T10:15:30Z"));
+    }
+}
@@ -49,16 +49,41 @@ class OrderCreationIT {
     @Test
     void shouldCreateOrderWhenStockIsAvailable() {
         // Given - Mock inventory service response
-        stubFor(get(urlEqualTo("/api/inventory/TEST-SKU"))
+        stubFor(get(urlPathEqualTo("/api/inventory/batch"))
+                .withQueryParam("skus", equalTo("TEST-SKU"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                [
+                                    {
+                                        "sku": "TEST-SKU",
+                                        "name": "Test Product",
+                                        "description": "Test Description",
+                                        "priceInCents": 1999,
+                                        "quantity": 100
+                                    }
+                                ]
+                                """)));
+
+        stubFor(post(urlEqualTo("/api/inventory/reservations"))
+                .willReturn(aResponse()
+                        .withStatus(201)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {
+                                    "id": "5f0c6a4e-3b1e-4f43-9a8e-0d5a3b1c2d4e",
+                                    "status": "RESERVED",
+                                    "expiresAt": "2030-01-01T00:00:00Z"
+                                }
+                                """)));
+        stubFor(post(urlEqualTo("/api/inventory/reservations/5f0c6a4e-3b1e-4f43-9a8e-0d5a3b1c2d4e/commit"))
                 .willReturn(aResponse()
                         .withHeader("Content-Type", "application/json")
                         .withBody("""
                                 {
-                                    "sku": "TEST-SKU",
-                                    "name": "Test Product",
-                                    "description": "Test Description",
-                                    "priceInCents": 1999,
-                                    "quantity": 100
+                                    "id": "5f0c6a4e-3b1e-4f43-9a8e-0d5a3b1c2d4e",
+                                    "status": "COMMITTED",
+                                    "expiresAt": "2030-01-01T00:00:00Z"
                                 }
                                 """)));
 
@@ -78,5 +103,6 @@ class OrderCreationIT {
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().customerName()).isEqualTo("John Doe");
         assertThat(response.getBody().items()).hasSize(1);
+        verify(postRequestedFor(urlEqualTo("/api/inventory/reservations/5f0c6a4e-3b1e-4f43-9a8e-0d5a3b1c2d4e/commit")));
     }
 }
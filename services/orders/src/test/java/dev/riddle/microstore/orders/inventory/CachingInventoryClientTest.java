@@ -0,0 +1,202 @@
+package dev.riddle.microstore.orders.inventory;
+
+import dev.riddle.microstore.orders.inventory.dto.InventoryItemResponse;
+import dev.riddle.microstore.orders.shared.error.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingInventoryClientTest {
+
+    @Mock
+    private InventoryClientImpl delegate;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private CachingInventoryClient cachingClient;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachingClient = new CachingInventoryClient(delegate, meterRegistry, 100,
+                Duration.ofMinutes(10), nanos::get);
+    }
+
+    @Test
+    void getItemBySku_shouldServeRepeatedLookupsFromCache() {
+        // Given
+        when(delegate.getItemBySku("SKU-A", null)).thenReturn(versioned(item("SKU-A", 10), 1));
+
+        // When
+        cachingClient.getItemBySku("SKU-A");
+        InventoryItemResponse result = cachingClient.getItemBySku("SKU-A");
+
+        // Then
+        assertThat(result.name()).isEqualTo("Product SKU-A");
+        verify(delegate, times(1)).getItemBySku("SKU-A", null);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getItemBySku_shouldKeepCatalogButNeverHandOutQuantity() {
+        // Given
+        when(delegate.getItemBySku("SKU-A", null)).thenReturn(versioned(item("SKU-A", 10), 1));
+
+        // When
+        InventoryItemResponse first = cachingClient.getItemBySku("SKU-A");
+        InventoryItemResponse result = cachingClient.getItemBySku("SKU-A");
+
+        // Then
+        assertThat(result.name()).isEqualTo("Product SKU-A");
+        assertThat(result.priceInCents()).isEqualTo(1000);
+        assertThat(first.quantity()).isNull();
+        assertThat(result.quantity()).isNull();
+        verify(delegate, times(1)).getItemBySku("SKU-A", null);
+    }
+
+    @Test
+    void getItemsBySkus_withStaleCachedQuantity_shouldNotHandItOut() {
+        // Given SKU-A was cached with 1 left and has been restocked since
+        when(delegate.getItemsBySkus(List.of("SKU-A"))).thenReturn(Map.of("SKU-A", item("SKU-A", 1)));
+        cachingClient.getItemsBySkus(List.of("SKU-A"));
+
+        // When
+        Map<String, InventoryItemResponse> result = cachingClient.getItemsBySkus(List.of("SKU-A"));
+
+        // Then the order path cannot reject 5 on the old level, the reservation decides
+        assertThat(result.get("SKU-A").quantity()).isNull();
+        verify(delegate, times(1)).getItemsBySkus(any());
+    }
+
+    @Test
+    void getItemBySku_afterCatalogTtl_shouldFetchAgain() {
+        // Given
+        when(delegate.getItemBySku("SKU-A", null)).thenReturn(versioned(item("SKU-A", 10), 1));
+        cachingClient.getItemBySku("SKU-A");
+
+        // When
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+        cachingClient.getItemBySku("SKU-A");
+
+        // Then
+        verify(delegate, times(2)).getItemBySku("SKU-A", null);
+    }
+
+    @Test
+    void getItemBySku_withConcurrentMisses_shouldShareOneCall() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getItemBySku("SKU-A", null)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return versioned(item("SKU-A", 10), 1);
+        });
+
+        // When
+        List<Future<InventoryItemResponse>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                futures.add(executor.submit(() -> cachingClient.getItemBySku("SKU-A")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+        }
+
+        // Then
+        for (Future<InventoryItemResponse> future : futures) {
+            assertThat(future.get().sku()).isEqualTo("SKU-A");
+        }
+        verify(delegate, times(1)).getItemBySku("SKU-A", null);
+    }
+
+    @Test
+    void getItemBySku_whenNotFound_shouldPropagateAndNotCache() {
+        // Given
+        when(delegate.getItemBySku("MISSING", null)).thenThrow(new NotFoundException("Inventory item not found"));
+
+        // When/Then
+        assertThatThrownBy(() -> cachingClient.getItemBySku("MISSING")).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> cachingClient.getItemBySku("MISSING")).isInstanceOf(NotFoundException.class);
+        verify(delegate, times(2)).getItemBySku("MISSING", null);
+    }
+
+    @Test
+    void getItemsBySkus_shouldOnlyFetchMissingSkus() {
+        // Given
+        when(delegate.getItemBySku("SKU-A", null)).thenReturn(versioned(item("SKU-A", 10), 1));
+        cachingClient.getItemBySku("SKU-A");
+        when(delegate.getItemsBySkus(any())).thenReturn(Map.of("SKU-B", item("SKU-B", 5)));
+
+        // When
+        Map<String, InventoryItemResponse> result = cachingClient.getItemsBySkus(List.of("SKU-A", "SKU-B", "UNKNOWN"));
+
+        // Then
+        assertThat(result.keySet()).containsExactly("SKU-A", "SKU-B");
+        verify(delegate).getItemsBySkus(argThat(skus -> skus.size() == 2 && !skus.contains("SKU-A")));
+    }
+
+    @Test
+    void checkStockAvailability_shouldAlwaysAskInventory() {
+        // Given
+        VersionedItem cached = versioned(item("SKU-A", 10), 1);
+        VersionedItem refreshed = versioned(item("SKU-A", 1), 2);
+        when(delegate.getItemBySku("SKU-A", null)).thenReturn(cached);
+        when(delegate.getItemBySku("SKU-A", cached)).thenReturn(refreshed);
+        when(delegate.getItemBySku("SKU-A", refreshed)).thenReturn(refreshed);
+        cachingClient.getItemBySku("SKU-A");
+
+        // When
+        boolean available = cachingClient.checkStockAvailability("SKU-A", 5);
+        boolean availableAgain = cachingClient.checkStockAvailability("SKU-A", 1);
+
+        // Then the fresh read replaced the cached copy
+        assertThat(available).isFalse();
+        assertThat(availableAgain).isTrue();
+        verify(delegate).getItemBySku("SKU-A", cached);
+        verify(delegate).getItemBySku("SKU-A", refreshed);
+    }
+
+    @Test
+    void checkStockAvailability_whenNotModified_shouldRefreshCachedQuantity() {
+        // Given
+        VersionedItem cached = versioned(item("SKU-A", 10), 1);
+        when(delegate.getItemBySku("SKU-A", null)).thenReturn(cached);
+        // Inventory answered 304, the client hands the cached copy back
+        when(delegate.getItemBySku("SKU-A", cached)).thenReturn(cached);
+        cachingClient.getItemBySku("SKU-A");
+
+        // When
+        boolean available = cachingClient.checkStockAvailability("SKU-A", 5);
+
+        // Then
+        assertThat(available).isTrue();
+        verify(delegate, times(1)).getItemBySku("SKU-A", null);
+    }
+
+    private static InventoryItemResponse item(String sku, int quantity) {
+        return new InventoryItemResponse(sku, "Product " + sku, null, 1000, quantity);
+    }
+
+    private static VersionedItem versioned(InventoryItemResponse item, long version) {
+        return new VersionedItem(item, "\"" + version + "\"");
+    }
+}
@@ -0,0 +1,147 @@
+package dev.riddle.microstore.orders.inventory;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.client.endpoint.RestClientClientCredentialsTokenResponseClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@WireMockTest
+class ClientCredentialsTokenProviderTest {
+
+    private InMemoryClientRegistrationRepository registrationRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private ClientCredentialsTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp(WireMockRuntimeInfo wmRuntimeInfo) {
+        ClientRegistration registration = ClientRegistration
+                .withRegistrationId("orders-service")
+                .clientId("orders-service")
+                .clientSecret("secret")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .tokenUri(wmRuntimeInfo.getHttpBaseUrl() + "/oauth2/token")
+                .build();
+
+        registrationRepository = new InMemoryClientRegistrationRepository(registration);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (tokenProvider != null) {
+            tokenProvider.shutdown();
+        }
+    }
+
+    @Test
+    void getTokenValue_fromManyThreads_shouldFetchTokenOnce() throws Exception {
+        // Given
+        stubToken("token-1", 3600, 200);
+        tokenProvider = tokenProvider(Duration.ofSeconds(60));
+
+        // When
+        List<String> tokens = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                futures.add(executor.submit(tokenProvider::getTokenValue));
+            }
+            for (Future<String> future : futures) {
+                tokens.add(future.get());
+            }
+        }
+        for (int i = 0; i < 50; i++) {
+            tokens.add(tokenProvider.getTokenValue());
+        }
+
+        // Then
+        assertThat(tokens).hasSize(100).containsOnly("token-1");
+        verify(1, postRequestedFor(urlEqualTo("/oauth2/token")));
+        assertThat(counter("refresh")).isEqualTo(1);
+        assertThat(counter("hit")).isGreaterThanOrEqualTo(50);
+    }
+
+    @Test
+    void getTokenValue_beforeExpiry_shouldRefreshInBackgroundWithoutBlocking() throws Exception {
+        // Given - the token is due for refresh one and a half seconds after it was issued
+        stubToken("token-1", 4, 0);
+        tokenProvider = tokenProvider(Duration.ofMillis(2_500));
+        assertThat(tokenProvider.getTokenValue()).isEqualTo("token-1");
+
+        stubToken("token-2", 3600, 1_000);
+
+        // When - the slow refresh is running
+        Thread.sleep(1_700);
+        long start = System.nanoTime();
+        String duringRefresh = tokenProvider.getTokenValue();
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Then
+        assertThat(duringRefresh).isEqualTo("token-1");
+        assertThat(elapsedMs).isLessThan(200);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!"token-2".equals(tokenProvider.getTokenValue()) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(tokenProvider.getTokenValue()).isEqualTo("token-2");
+        verify(2, postRequestedFor(urlEqualTo("/oauth2/token")));
+    }
+
+    @Test
+    void getTokenValue_withTokenShorterThanSkew_shouldNotRefreshInALoop() throws Exception {
+        // Given - a token that expires well within the refresh skew
+        stubToken("short-lived", 2, 0);
+        tokenProvider = tokenProvider(Duration.ofSeconds(60));
+
+        // When
+        assertThat(tokenProvider.getTokenValue()).isEqualTo("short-lived");
+        Thread.sleep(2_500);
+
+        // Then - refreshed once a second at most, not as fast as the auth server answers
+        int fetches = findAll(postRequestedFor(urlEqualTo("/oauth2/token"))).size();
+        assertThat(fetches).isBetween(2, 4);
+    }
+
+    private ClientCredentialsTokenProvider tokenProvider(Duration refreshSkew) {
+        return new ClientCredentialsTokenProvider(
+                registrationRepository,
+                new RestClientClientCredentialsTokenResponseClient(),
+                meterRegistry,
+                refreshSkew);
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("orders.inventory.token").tag("result", result).counter().count();
+    }
+
+    private static void stubToken(String token, int expiresIn, int delayMs) {
+        stubFor(post(urlEqualTo("/oauth2/token"))
+                .willReturn(aResponse()
+                        .withFixedDelay(delayMs)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {
+                                  "access_token": "%s",
+                                  "token_type": "Bearer",
+                                  "expires_in": %d
+                                }
+                                """.formatted(token, expiresIn))));
+    }
+}
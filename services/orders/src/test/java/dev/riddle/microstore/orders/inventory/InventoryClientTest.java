@@ -2,15 +2,31 @@ package dev.riddle.microstore.orders.inventory;
 
 import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import dev.riddle.microstore.orders.config.InventoryRequestFactories;
 import dev.riddle.microstore.orders.inventory.dto.InventoryItemResponse;
+import dev.riddle.microstore.orders.inventory.dto.StockReservationRequest;
+import dev.riddle.microstore.orders.inventory.dto.StockReservationResponse;
+import dev.riddle.microstore.orders.shared.error.InsufficientStockException;
 import dev.riddle.microstore.orders.shared.error.NotFoundException;
+import dev.riddle.microstore.orders.shared.error.ReservationConflictException;
+import dev.riddle.microstore.orders.shared.error.ReservationNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
-import org.springframework.security.oauth2.client.InMemoryOAuth2AuthorizedClientService;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.security.oauth2.client.endpoint.RestClientClientCredentialsTokenResponseClient;
 import org.springframework.security.oauth2.client.registration.ClientRegistration;
 import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -19,7 +35,9 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 @WireMockTest
 class InventoryClientTest {
 
+    private HttpComponentsClientHttpRequestFactory requestFactory;
     private InventoryClient inventoryClient;
+    private ClientCredentialsTokenProvider tokenProvider;
     private String baseUrl;
 
     @BeforeEach
@@ -50,15 +68,19 @@ class InventoryClientTest {
                 .tokenUri(tokenUri)
                 .build();
 
-        InMemoryClientRegistrationRepository registrationRepository =
-                new InMemoryClientRegistrationRepository(registration);
-        InMemoryOAuth2AuthorizedClientService authorizedClientService =
-                new InMemoryOAuth2AuthorizedClientService(registrationRepository);
-        AuthorizedClientServiceOAuth2AuthorizedClientManager authorizedClientManager =
-                new AuthorizedClientServiceOAuth2AuthorizedClientManager(
-                        registrationRepository, authorizedClientService);
+        tokenProvider = new ClientCredentialsTokenProvider(
+                new InMemoryClientRegistrationRepository(registration),
+                new RestClientClientCredentialsTokenResponseClient(),
+                new SimpleMeterRegistry(),
+                Duration.ofSeconds(60));
+
+        requestFactory = InventoryRequestFactories.create(Duration.ofSeconds(2), Duration.ofSeconds(5));
+        inventoryClient = new InventoryClientImpl(baseUrl, tokenProvider, requestFactory);
+    }
 
-        inventoryClient = new InventoryClientImpl(baseUrl, authorizedClientManager);
+    @AfterEach
+    void tearDown() throws Exception {
+        requestFactory.destroy();
     }
 
     @Test
@@ -91,6 +113,55 @@ class InventoryClientTest {
         verify(getRequestedFor(urlEqualTo("/api/inventory/" + sku)));
     }
 
+    @Test
+    void getItemBySku_withCachedCopy_shouldSendIfNoneMatchAndReuseCopyOn304() {
+        // Given
+        String sku = "TEST-SKU";
+        stubFor(get(urlEqualTo("/api/inventory/" + sku))
+                .withHeader("If-None-Match", equalTo("\"3\""))
+                .willReturn(aResponse()
+                        .withStatus(304)
+                        .withHeader("ETag", "\"3\"")));
+        VersionedItem cached = new VersionedItem(
+                new InventoryItemResponse(sku, "Test Product", null, 1999, 100), "\"3\"");
+
+        // When
+        VersionedItem result = ((InventoryClientImpl) inventoryClient).getItemBySku(sku, cached);
+
+        // Then
+        assertThat(result).isSameAs(cached);
+        verify(getRequestedFor(urlEqualTo("/api/inventory/" + sku)).withHeader("If-None-Match", equalTo("\"3\"")));
+    }
+
+    @Test
+    void getItemBySku_withStaleCachedCopy_shouldReturnNewItemAndETag() {
+        // Given
+        String sku = "TEST-SKU";
+        stubFor(get(urlEqualTo("/api/inventory/" + sku))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"4\"")
+                        // WireMock would otherwise gzip the body and rewrite the tag to "4--gzip"
+                        .withGzipDisabled(true)
+                        .withBody("""
+                                {
+                                    "sku": "TEST-SKU",
+                                    "name": "Test Product",
+                                    "priceInCents": 1999,
+                                    "quantity": 99
+                                }
+                                """)));
+        VersionedItem cached = new VersionedItem(
+                new InventoryItemResponse(sku, "Test Product", null, 1999, 100), "\"3\"");
+
+        // When
+        VersionedItem result = ((InventoryClientImpl) inventoryClient).getItemBySku(sku, cached);
+
+        // Then
+        assertThat(result.item().quantity()).isEqualTo(99);
+        assertThat(result.eTag()).isEqualTo("\"4\"");
+    }
+
     @Test
     void getItemBySku_whenItemNotFound_shouldThrowException() {
         // Given
@@ -151,4 +222,224 @@ class InventoryClientTest {
         // Then
         assertThat(result).isFalse();
     }
+
+    @Test
+    void getItemsBySkus_shouldFetchAllItemsInOneRequest() {
+        // Given
+        stubFor(get(urlPathEqualTo("/api/inventory/batch"))
+                .withQueryParam("skus", havingExactly("SKU-A", "SKU-B"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                [
+                                    {"sku": "SKU-A", "name": "A", "priceInCents": 100, "quantity": 1},
+                                    {"sku": "SKU-B", "name": "B", "priceInCents": 200, "quantity": 2}
+                                ]
+                                """)));
+
+        // When
+        Map<String, InventoryItemResponse> result = inventoryClient.getItemsBySkus(List.of("SKU-A", "SKU-B", "SKU-A"));
+
+        // Then
+        assertThat(result).containsOnlyKeys("SKU-A", "SKU-B");
+        assertThat(result.get("SKU-B").priceInCents()).isEqualTo(200);
+
+        verify(1, getRequestedFor(urlPathEqualTo("/api/inventory/batch")));
+    }
+
+    @Test
+    void getItemsBySkus_whenSkuUnknown_shouldLeaveItOut() {
+        // Given
+        stubFor(get(urlPathEqualTo("/api/inventory/batch"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                [
+                                    {"sku": "SKU-A", "name": "A", "priceInCents": 100, "quantity": 1}
+                                ]
+                                """)));
+
+        // When
+        Map<String, InventoryItemResponse> result = inventoryClient.getItemsBySkus(List.of("SKU-A", "UNKNOWN"));
+
+        // Then
+        assertThat(result).containsOnlyKeys("SKU-A");
+    }
+
+    @Test
+    void reserveStock_shouldPostAllLinesInOneRequest() {
+        // Given
+        stubFor(post(urlEqualTo("/api/inventory/reservations"))
+                .withRequestBody(equalToJson("""
+                        {"items": [{"sku": "SKU-A", "quantity": 1}, {"sku": "SKU-B", "quantity": 2}]}
+                        """))
+                .willReturn(aResponse()
+                        .withStatus(201)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {
+                                    "id": "5f0c6a4e-3b1e-4f43-9a8e-0d5a3b1c2d4e",
+                                    "status": "RESERVED",
+                                    "expiresAt": "2030-01-01T00:00:00Z"
+                                }
+                                """)));
+
+        // When
+        StockReservationResponse result = inventoryClient.reserveStock(List.of(
+                new StockReservationRequest("SKU-A", 1),
+                new StockReservationRequest("SKU-B", 2)));
+
+        // Then
+        assertThat(result.id()).hasToString("5f0c6a4e-3b1e-4f43-9a8e-0d5a3b1c2d4e");
+        assertThat(result.status()).isEqualTo("RESERVED");
+    }
+
+    @Test
+    void reserveStock_whenConflict_shouldThrowInsufficientStock() {
+        // Given
+        stubFor(post(urlEqualTo("/api/inventory/reservations"))
+                .willReturn(aResponse()
+                        .withStatus(409)
+                        .withHeader("Content-Type", "application/problem+json")
+                        .withBody("""
+                                {
+                                    "title": "Insufficient Stock",
+                                    "status": 409,
+                                    "detail": "Insufficient stock for SKU SKU-A, requested 5"
+                                }
+                                """)));
+
+        // When/Then
+        assertThatThrownBy(() -> inventoryClient.reserveStock(List.of(new StockReservationRequest("SKU-A", 5))))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("SKU-A");
+    }
+
+    @Test
+    void commitReservation_whenConflict_shouldThrowReservationConflict() {
+        // Given the reservation expired before the order was stored
+        UUID reservationId = UUID.randomUUID();
+        stubFor(post(urlEqualTo("/api/inventory/reservations/" + reservationId + "/commit"))
+                .willReturn(aResponse()
+                        .withStatus(409)
+                        .withHeader("Content-Type", "application/problem+json")
+                        .withBody("""
+                                {
+                                    "title": "Conflict",
+                                    "status": 409,
+                                    "detail": "Reservation is RELEASED and can no longer be committed"
+                                }
+                                """)));
+
+        // When/Then
+        assertThatThrownBy(() -> inventoryClient.commitReservation(reservationId))
+                .isInstanceOf(ReservationConflictException.class)
+                .hasMessageContaining("RELEASED");
+    }
+
+    @Test
+    void commitReservation_whenInventoryFails_shouldThrow() {
+        // Given
+        UUID reservationId = UUID.randomUUID();
+        stubFor(post(urlEqualTo("/api/inventory/reservations/" + reservationId + "/commit"))
+                .willReturn(aResponse().withStatus(503)));
+
+        // When/Then
+        assertThatThrownBy(() -> inventoryClient.commitReservation(reservationId))
+                .isInstanceOf(HttpServerErrorException.class);
+    }
+
+    @Test
+    void commitReservation_whenRejectedWithOtherClientError_shouldThrow() {
+        // Given
+        UUID reservationId = UUID.randomUUID();
+        stubFor(post(urlEqualTo("/api/inventory/reservations/" + reservationId + "/commit"))
+                .willReturn(aResponse().withStatus(403)));
+
+        // When/Then
+        assertThatThrownBy(() -> inventoryClient.commitReservation(reservationId))
+                .isInstanceOf(HttpClientErrorException.Forbidden.class);
+    }
+
+    @Test
+    void commitReservation_whenReservationUnknown_shouldThrowReservationNotFound() {
+        // Given
+        UUID reservationId = UUID.randomUUID();
+        stubFor(post(urlEqualTo("/api/inventory/reservations/" + reservationId + "/commit"))
+                .willReturn(aResponse().withStatus(404)));
+
+        // When/Then
+        assertThatThrownBy(() -> inventoryClient.commitReservation(reservationId))
+                .isInstanceOf(ReservationNotFoundException.class)
+                .hasMessageContaining(reservationId.toString());
+    }
+
+    @Test
+    void releaseReservation_whenConflict_shouldThrowReservationConflict() {
+        // Given
+        UUID reservationId = UUID.randomUUID();
+        stubFor(post(urlEqualTo("/api/inventory/reservations/" + reservationId + "/release"))
+                .willReturn(aResponse().withStatus(409)));
+
+        // When/Then
+        assertThatThrownBy(() -> inventoryClient.releaseReservation(reservationId))
+                .isInstanceOf(ReservationConflictException.class)
+                .hasMessageContaining(reservationId.toString());
+    }
+
+    @Test
+    void releaseReservation_whenInventoryFails_shouldThrow() {
+        // Given
+        UUID reservationId = UUID.randomUUID();
+        stubFor(post(urlEqualTo("/api/inventory/reservations/" + reservationId + "/release"))
+                .willReturn(aResponse().withStatus(500)));
+
+        // When/Then
+        assertThatThrownBy(() -> inventoryClient.releaseReservation(reservationId))
+                .isInstanceOf(HttpServerErrorException.class);
+    }
+
+    @Test
+    void releaseReservation_whenRejectedWithOtherClientError_shouldThrow() {
+        // Given
+        UUID reservationId = UUID.randomUUID();
+        stubFor(post(urlEqualTo("/api/inventory/reservations/" + reservationId + "/release"))
+                .willReturn(aResponse().withStatus(400)));
+
+        // When/Then
+        assertThatThrownBy(() -> inventoryClient.releaseReservation(reservationId))
+                .isInstanceOf(HttpClientErrorException.BadRequest.class);
+    }
+
+    @Test
+    void reserveStock_whenRejectedWithOtherClientError_shouldThrowInsteadOfReturningNothing() {
+        // Given
+        stubFor(post(urlEqualTo("/api/inventory/reservations"))
+                .willReturn(aResponse().withStatus(422)));
+
+        // When/Then
+        assertThatThrownBy(() -> inventoryClient.reserveStock(List.of(new StockReservationRequest("SKU-A", 5))))
+                .isInstanceOf(HttpClientErrorException.UnprocessableEntity.class);
+    }
+
+    @Test
+    void getItemBySku_whenInventoryIsSlow_shouldFailWithReadTimeout() throws Exception {
+        // Given
+        stubFor(get(urlEqualTo("/api/inventory/SLOW-SKU"))
+                .willReturn(aResponse()
+                        .withFixedDelay(1_000)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{}")));
+        HttpComponentsClientHttpRequestFactory impatientFactory =
+                InventoryRequestFactories.create(Duration.ofSeconds(1), Duration.ofMillis(200));
+        InventoryClient impatientClient = new InventoryClientImpl(baseUrl, tokenProvider, impatientFactory);
+
+        // When/Then
+        try {
+            assertThatThrownBy(() -> impatientClient.getItemBySku("SLOW-SKU"))
+                    .isInstanceOf(ResourceAccessException.class);
+        } finally {
+            impatientFactory.destroy();
+        }
+    }
 }
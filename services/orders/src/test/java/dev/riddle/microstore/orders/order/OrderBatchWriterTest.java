@@ -0,0 +1,226 @@
+package dev.riddle.microstore.orders.order;
+
+import dev.riddle.microstore.orders.shared.error.WriteQueueFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderBatchWriterTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private final CountingTransactions transactions = new CountingTransactions();
+
+    private OrderBatchWriter writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    @Test
+    void write_withConcurrentCallers_shouldShareTransactions() throws Exception {
+        // Given
+        writer = writer(100, 50, Duration.ofMillis(50));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+
+        // When
+        List<Future<Order>> stored = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                stored.add(executor.submit(() -> writer.write(new Order(), order -> { })));
+            }
+        }
+
+        // Then
+        for (Future<Order> order : stored) {
+            assertThat(order.get().getId()).isNotNull();
+        }
+        verify(orderRepository, times(20)).save(any(Order.class));
+        assertThat(transactions.count.get()).isLessThan(20);
+    }
+
+    @Test
+    void write_shouldRunCallbackInsideTheTransaction() {
+        // Given
+        writer = writer(10, 50, Duration.ZERO);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+        AtomicInteger activeWhenCalled = new AtomicInteger();
+
+        // When
+        writer.write(new Order(), order -> activeWhenCalled.set(transactions.active.get()));
+
+        // Then
+        assertThat(activeWhenCalled.get()).isEqualTo(1);
+    }
+
+    @Test
+    void write_whenBatchFails_shouldOnlyFailTheBadOrder() throws Exception {
+        // Given
+        writer = writer(100, 50, Duration.ofMillis(50));
+        Order bad = new Order();
+        bad.setCustomerEmail("bad@example.com");
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            if (order == bad) {
+                throw new IllegalStateException("constraint violated");
+            }
+            return withId(order);
+        });
+
+        // When
+        Future<Order> good;
+        Future<Order> failed;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            good = executor.submit(() -> writer.write(new Order(), order -> { }));
+            failed = executor.submit(() -> writer.write(bad, order -> { }));
+        }
+
+        // Then
+        assertThat(good.get().getId()).isNotNull();
+        assertThatThrownBy(failed::get).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void write_whenQueueIsFull_shouldRejectRightAway() throws Exception {
+        // Given the writer is stuck on the first order and the queue holds one more
+        writer = writer(1, 1, Duration.ZERO);
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            saving.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return withId(invocation.getArgument(0));
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> writer.write(new Order(), order -> { }));
+            assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.submit(() -> writer.write(new Order(), order -> { }));
+            Thread.sleep(100);
+
+            // When/Then
+            assertThatThrownBy(() -> writer.write(new Order(), order -> { }))
+                    .isInstanceOf(WriteQueueFullException.class)
+                    .extracting(ex -> ((WriteQueueFullException) ex).getRetryAfter())
+                    .isEqualTo(Duration.ofSeconds(1));
+            release.countDown();
+        }
+    }
+
+    @Test
+    void write_afterShutdown_shouldBeRejected() throws InterruptedException {
+        // Given
+        writer = writer(10, 50, Duration.ZERO);
+        writer.shutdown();
+
+        // When/Then
+        assertThatThrownBy(() -> writer.write(new Order(), order -> { }))
+                .isInstanceOf(WriteQueueFullException.class);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void write_whenQueuedTooLong_shouldGiveUpAndNotStoreTheOrder() throws Exception {
+        // Given the writer is stuck on the first order
+        writer = writer(10, 1, Duration.ZERO, Duration.ofMillis(200));
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            saving.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return withId(invocation.getArgument(0));
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> writer.write(new Order(), order -> { }));
+            assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // When
+            assertThatThrownBy(() -> writer.write(new Order(), order -> { }))
+                    .isInstanceOf(WriteQueueFullException.class);
+            release.countDown();
+        }
+
+        // Then the writer skips the abandoned order once it gets to it
+        verify(orderRepository, after(300).times(1)).save(any(Order.class));
+    }
+
+    @Test
+    void write_whenStoredAfterCallerGaveUp_shouldRemoveTheOrder() throws Exception {
+        // Given
+        writer = writer(10, 1, Duration.ZERO, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        UUID id = UUID.randomUUID();
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            Order order = invocation.getArgument(0);
+            order.setId(id);
+            return order;
+        });
+
+        // When
+        assertThatThrownBy(() -> writer.write(new Order(), order -> { }))
+                .isInstanceOf(WriteQueueFullException.class);
+        release.countDown();
+
+        // Then
+        verify(orderRepository, timeout(1000)).deleteById(id);
+    }
+
+    private OrderBatchWriter writer(int queueCapacity, int maxBatchSize, Duration maxWait) {
+        return writer(queueCapacity, maxBatchSize, maxWait, Duration.ofSeconds(5));
+    }
+
+    private OrderBatchWriter writer(int queueCapacity, int maxBatchSize, Duration maxWait, Duration writeTimeout) {
+        return new OrderBatchWriter(orderRepository, transactions, new SimpleMeterRegistry(),
+                queueCapacity, maxBatchSize, maxWait, Duration.ofSeconds(1), writeTimeout);
+    }
+
+    private static Order withId(Order order) {
+        order.setId(UUID.randomUUID());
+        return order;
+    }
+
+    private static class CountingTransactions implements TransactionOperations {
+        final AtomicInteger count = new AtomicInteger();
+        final AtomicInteger active = new AtomicInteger();
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            count.incrementAndGet();
+            active.incrementAndGet();
+            try {
+                TransactionStatus status = new SimpleTransactionStatus();
+                return action.doInTransaction(status);
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+    }
+}
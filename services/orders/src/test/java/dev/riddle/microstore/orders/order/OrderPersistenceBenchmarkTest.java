@@ -0,0 +1,163 @@
+package dev.riddle.microstore.orders.order;
+
+import dev.riddle.microstore.orders.shared.persistence.UuidV7Generator;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order inserts per second for 1, 10 and 100 line orders, one statement per row against the
+ * configured JDBC batching, and the primary key index built from random against UUIDv7 keys.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Every order commits on its own, as it does in OrderService
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+class OrderPersistenceBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(OrderPersistenceBenchmarkTest.class);
+
+    private static final int ORDER_LINES_PER_RUN = 50_000;
+    private static final int INDEX_ROWS = 1_000_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("orders-test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        // Use Testcontainers-provided JDBC URL (mapped host/port, via TESTCONTAINERS_HOST_OVERRIDE).
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    OrderPersistenceBenchmarkTest(OrderRepository orderRepository, EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate) {
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Test
+    void orderInserts_batchedShouldBeatOneStatementPerRow() {
+        double unbatchedLargeOrders = 0;
+        double batchedLargeOrders = 0;
+
+        for (int lines : new int[] {1, 10, 100}) {
+            // Batch size 1 is what the service did before hibernate.jdbc.batch_size was set
+            double unbatched = ordersPerSecond(lines, 1);
+            double batched = ordersPerSecond(lines, null);
+            log.info("{}-line orders: {} orders/s one INSERT per row, {} orders/s batched ({}x)",
+                    lines, Math.round(unbatched), Math.round(batched), String.format("%.1f", batched / unbatched));
+
+            if (lines == 100) {
+                unbatchedLargeOrders = unbatched;
+                batchedLargeOrders = batched;
+            }
+        }
+
+        assertThat(batchedLargeOrders).isGreaterThan(unbatchedLargeOrders);
+    }
+
+    @Test
+    void primaryKeyIndex_uuidV7ShouldStaySmallerThanRandom() {
+        long randomNanos = fillTable("uuid_bench_random", UUID::randomUUID);
+        long v7Nanos = fillTable("uuid_bench_v7", UuidV7Generator::next);
+
+        Long randomIndexBytes = jdbcTemplate.queryForObject("SELECT pg_relation_size('uuid_bench_random_pkey')", Long.class);
+        Long v7IndexBytes = jdbcTemplate.queryForObject("SELECT pg_relation_size('uuid_bench_v7_pkey')", Long.class);
+        log.info("{} keys: random {} rows/s, index {} MB; UUIDv7 {} rows/s, index {} MB",
+                INDEX_ROWS,
+                Math.round(INDEX_ROWS / (randomNanos / 1e9)), randomIndexBytes / (1024 * 1024),
+                Math.round(INDEX_ROWS / (v7Nanos / 1e9)), v7IndexBytes / (1024 * 1024));
+
+        // Appending fills leaf pages completely, random keys keep splitting them half full
+        assertThat(v7IndexBytes).isLessThan(randomIndexBytes);
+    }
+
+    private double ordersPerSecond(int lines, Integer batchSize) {
+        int orders = ORDER_LINES_PER_RUN / lines;
+        persist(lines, Math.max(orders / 10, 10), batchSize);
+
+        long start = System.nanoTime();
+        persist(lines, orders, batchSize);
+        return orders / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private void persist(int lines, int orders, Integer batchSize) {
+        for (int i = 0; i < orders; i++) {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (batchSize != null) {
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                }
+                orderRepository.save(order(lines));
+            });
+        }
+    }
+
+    private long fillTable(String table, Supplier<UUID> ids) {
+        jdbcTemplate.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, filler INT NOT NULL)");
+
+        long start = System.nanoTime();
+        for (int from = 0; from < INDEX_ROWS; from += 1000) {
+            List<Object[]> rows = new ArrayList<>(1000);
+            for (int i = from; i < from + 1000; i++) {
+                rows.add(new Object[] {ids.get(), i});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (id, filler) VALUES (?, ?)", rows);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Order order(int lines) {
+        Order order = new Order();
+        order.setCustomerName("Benchmark");
+        order.setCustomerEmail("benchmark@example.com");
+        order.setStatus(OrderStatus.CONFIRMED);
+        for (int line = 0; line < lines; line++) {
+            OrderItem item = new OrderItem();
+            item.setSku("SKU-" + line);
+            item.setProductName("Product " + line);
+            item.setQuantity(1);
+            item.setUnitPriceInCents(500);
+            item.calculateSubtotal();
+            order.addItem(item);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,140 @@
+package dev.riddle.microstore.orders.order;
+
+import dev.riddle.microstore.orders.order.dto.OrderResponse;
+import dev.riddle.microstore.orders.order.dto.OrderSummaryResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestConstructor;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Statement counts are asserted so that an N+1 on the read paths fails the build
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(OrderMapperImpl.class)
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+class OrderReadQueryTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("orders-test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        // Use Testcontainers-provided JDBC URL (mapped host/port, via TESTCONTAINERS_HOST_OVERRIDE).
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    private static final OrderListingFilter NO_FILTER = new OrderListingFilter(null, null, null, null);
+
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final TestEntityManager entityManager;
+    private final Statistics statistics;
+
+    OrderReadQueryTest(OrderRepository orderRepository, OrderMapper orderMapper,
+                               TestEntityManager entityManager, EntityManagerFactory entityManagerFactory) {
+        this.orderRepository = orderRepository;
+        this.orderMapper = orderMapper;
+        this.entityManager = entityManager;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            orderRepository.save(order("customer" + (i % 2) + "@example.com", i % 2 == 0 ? OrderStatus.CONFIRMED : OrderStatus.CANCELLED));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void findSummaries_shouldWalkAllPagesInKeysetOrder() {
+        List<UUID> expected = orderRepository.findSummaries(NO_FILTER, null, 10).stream()
+                .map(OrderSummaryResponse::id)
+                .toList();
+
+        List<UUID> walked = new ArrayList<>();
+        OrderCursor after = null;
+        List<OrderSummaryResponse> page;
+        do {
+            page = orderRepository.findSummaries(NO_FILTER, after, 2);
+            page.forEach(order -> walked.add(order.id()));
+            after = page.isEmpty() ? null : new OrderCursor(page.getLast().createdAt(), page.getLast().id());
+        } while (page.size() == 2);
+
+        assertThat(expected).hasSize(5);
+        assertThat(walked).isEqualTo(expected);
+    }
+
+    @Test
+    void findSummaries_shouldFilterAndNeverLoadItems() {
+        List<OrderSummaryResponse> confirmed = orderRepository.findSummaries(
+                new OrderListingFilter("customer0@example.com", OrderStatus.CONFIRMED, null, null), null, 10);
+
+        assertThat(confirmed).hasSize(3).allMatch(order -> order.status() == OrderStatus.CONFIRMED);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void findWithItems_shouldLoadAndMapPageInTwoQueries() {
+        List<OrderResponse> orders = orderRepository.findWithItems(NO_FILTER, null, 3).stream()
+                .map(orderMapper::toResponse)
+                .toList();
+
+        assertThat(orders).hasSize(3).allSatisfy(order -> assertThat(order.items()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findWithItemsById_shouldLoadAndMapOrderInOneQuery() {
+        UUID id = orderRepository.findSummaries(NO_FILTER, null, 1).getFirst().id();
+        statistics.clear();
+
+        OrderResponse order = orderMapper.toResponse(orderRepository.findWithItemsById(id).orElseThrow());
+
+        assertThat(order.items()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static Order order(String email, OrderStatus status) {
+        Order order = new Order();
+        order.setCustomerName("Customer");
+        order.setCustomerEmail(email);
+        order.setStatus(status);
+        for (String sku : List.of("SKU-A", "SKU-B")) {
+            OrderItem item = new OrderItem();
+            item.setSku(sku);
+            item.setProductName("Product " + sku);
+            item.setQuantity(1);
+            item.setUnitPriceInCents(500);
+            item.calculateSubtotal();
+            order.addItem(item);
+        }
+        return order;
+    }
+}
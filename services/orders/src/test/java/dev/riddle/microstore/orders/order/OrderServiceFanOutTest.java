@@ -0,0 +1,191 @@
+package dev.riddle.microstore.orders.order;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import dev.riddle.microstore.orders.config.InventoryRequestFactories;
+import dev.riddle.microstore.orders.inventory.ClientCredentialsTokenProvider;
+import dev.riddle.microstore.orders.inventory.InventoryClient;
+import dev.riddle.microstore.orders.inventory.InventoryClientImpl;
+import dev.riddle.microstore.orders.inventory.InventoryLookupExecutor;
+import dev.riddle.microstore.orders.inventory.dto.InventoryItemResponse;
+import dev.riddle.microstore.orders.order.dto.CreateOrderRequest;
+import dev.riddle.microstore.orders.order.dto.OrderItemRequest;
+import dev.riddle.microstore.orders.shared.error.InsufficientStockException;
+import dev.riddle.microstore.orders.shared.error.InventoryUnavailableException;
+import dev.riddle.microstore.orders.shared.error.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.security.oauth2.client.endpoint.RestClientClientCredentialsTokenResponseClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the real inventory client against WireMock to check the concurrent lookups of
+ * {@link InventoryLookupExecutor} and how their failures surface from {@link OrderService}.
+ */
+@WireMockTest
+class OrderServiceFanOutTest {
+
+    private static final int DELAY_MS = 300;
+
+    private HttpComponentsClientHttpRequestFactory requestFactory;
+    private InventoryClient inventoryClient;
+
+    @BeforeEach
+    void setUp(WireMockRuntimeInfo wmRuntimeInfo) {
+        String baseUrl = wmRuntimeInfo.getHttpBaseUrl();
+
+        stubFor(post(urlEqualTo("/oauth2/token"))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {
+                      "access_token": "test-token",
+                      "token_type": "Bearer",
+                      "expires_in": 3600,
+                      "scope": "inventory.read inventory.write"
+                    }
+                    """)));
+
+        ClientRegistration registration = ClientRegistration
+                .withRegistrationId("orders-service")
+                .clientId("orders-service")
+                .clientSecret("secret")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .tokenUri(baseUrl + "/oauth2/token")
+                .build();
+
+        ClientCredentialsTokenProvider tokenProvider = new ClientCredentialsTokenProvider(
+                new InMemoryClientRegistrationRepository(registration),
+                new RestClientClientCredentialsTokenResponseClient(),
+                new SimpleMeterRegistry(),
+                Duration.ofSeconds(60));
+
+        requestFactory = InventoryRequestFactories.create(Duration.ofSeconds(2), Duration.ofSeconds(5));
+        inventoryClient = new InventoryClientImpl(baseUrl, tokenProvider, requestFactory);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        requestFactory.destroy();
+    }
+
+    @Test
+    void lookup_perItem_shouldTakeSlowestCallNotSumOfCalls() {
+        // Given
+        List<String> skus = List.of("SKU-1", "SKU-2", "SKU-3", "SKU-4", "SKU-5", "SKU-6");
+        skus.forEach(sku -> stubItem(sku, 10, DELAY_MS));
+        InventoryLookupExecutor executor = new InventoryLookupExecutor(inventoryClient, 8, 1, Duration.ofSeconds(5));
+
+        // When
+        long start = System.nanoTime();
+        Map<String, InventoryItemResponse> result = executor.lookup(skus);
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Then
+        assertThat(result.keySet()).containsExactlyElementsOf(skus);
+        assertThat(elapsedMs).isLessThan(DELAY_MS * skus.size() / 2L);
+        verify(skus.size(), getRequestedFor(urlPathMatching("/api/inventory/SKU-.*")));
+    }
+
+    @Test
+    void lookup_shouldNotExceedConcurrencyCap() {
+        // Given
+        List<String> skus = List.of("SKU-1", "SKU-2", "SKU-3", "SKU-4");
+        skus.forEach(sku -> stubItem(sku, 10, DELAY_MS));
+        InventoryLookupExecutor executor = new InventoryLookupExecutor(inventoryClient, 2, 1, Duration.ofSeconds(5));
+
+        // When
+        long start = System.nanoTime();
+        executor.lookup(skus);
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Then - two waves of two calls
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(2L * DELAY_MS);
+    }
+
+    @Test
+    void lookup_whenDeadlinePasses_shouldThrowInventoryUnavailable() {
+        // Given
+        stubItem("SKU-1", 10, 2_000);
+        InventoryLookupExecutor executor = new InventoryLookupExecutor(inventoryClient, 8, 1, Duration.ofMillis(200));
+
+        // When/Then
+        assertThatThrownBy(() -> executor.lookup(List.of("SKU-1")))
+                .isInstanceOf(InventoryUnavailableException.class);
+    }
+
+    @Test
+    void createOrder_whenOneItemIsMissing_shouldThrowNotFound() {
+        // Given
+        stubItem("SKU-1", 10, DELAY_MS);
+        stubFor(get(urlEqualTo("/api/inventory/MISSING"))
+                .willReturn(aResponse()
+                        .withStatus(404)));
+        OrderService orderService = orderService(new InventoryLookupExecutor(inventoryClient, 8, 1, Duration.ofSeconds(5)));
+
+        // When/Then
+        assertThatThrownBy(() -> orderService.createOrder(order(
+                new OrderItemRequest("SKU-1", 1),
+                new OrderItemRequest("MISSING", 1))))
+                .isInstanceOf(NotFoundException.class);
+
+        verify(0, postRequestedFor(urlEqualTo("/api/inventory/reservations")));
+    }
+
+    @Test
+    void createOrder_withInsufficientStock_shouldThrowInsufficientStock() {
+        // Given
+        stubItem("SKU-1", 10, DELAY_MS);
+        stubItem("SKU-2", 1, DELAY_MS);
+        OrderService orderService = orderService(new InventoryLookupExecutor(inventoryClient, 8, 1, Duration.ofSeconds(5)));
+
+        // When/Then
+        assertThatThrownBy(() -> orderService.createOrder(order(
+                new OrderItemRequest("SKU-1", 1),
+                new OrderItemRequest("SKU-2", 5))))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("SKU-2");
+
+        verify(0, postRequestedFor(urlEqualTo("/api/inventory/reservations")));
+    }
+
+    private OrderService orderService(InventoryLookupExecutor executor) {
+        return new OrderService(mock(OrderRepository.class), mock(OrderMapper.class), inventoryClient, executor,
+                TransactionOperations.withoutTransaction(), mock(ObjectProvider.class), new SimpleMeterRegistry());
+    }
+
+    private static CreateOrderRequest order(OrderItemRequest... items) {
+        return new CreateOrderRequest("John Doe", "john@example.com", List.of(items));
+    }
+
+    private static void stubItem(String sku, int quantity, int delayMs) {
+        stubFor(get(urlEqualTo("/api/inventory/" + sku))
+                .willReturn(aResponse()
+                        .withFixedDelay(delayMs)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {
+                                    "sku": "%s",
+                                    "name": "Product %s",
+                                    "priceInCents": 1000,
+                                    "quantity": %d
+                                }
+                                """.formatted(sku, sku, quantity))));
+    }
+}
@@ -1,25 +1,40 @@
 package dev.riddle.microstore.orders.order;
 
 import dev.riddle.microstore.orders.inventory.InventoryClient;
+import dev.riddle.microstore.orders.inventory.InventoryLookupExecutor;
 import dev.riddle.microstore.orders.inventory.dto.InventoryItemResponse;
+import dev.riddle.microstore.orders.inventory.dto.StockReservationRequest;
+import dev.riddle.microstore.orders.inventory.dto.StockReservationResponse;
 import dev.riddle.microstore.orders.order.dto.CreateOrderRequest;
 import dev.riddle.microstore.orders.order.dto.OrderItemRequest;
 import dev.riddle.microstore.orders.order.dto.OrderResponse;
+import dev.riddle.microstore.orders.order.dto.OrderSummaryResponse;
+import dev.riddle.microstore.orders.shared.error.BadRequestException;
 import dev.riddle.microstore.orders.shared.error.InsufficientStockException;
 import dev.riddle.microstore.orders.shared.error.NotFoundException;
+import dev.riddle.microstore.orders.shared.error.ReservationConflictException;
+import dev.riddle.microstore.orders.shared.error.WriteQueueFullException;
+import dev.riddle.microstore.orders.shared.paging.CursorPageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,9 +49,21 @@ class OrderServiceTest {
     @Mock
     private InventoryClient inventoryClient;
 
-    @InjectMocks
+    @Mock
+    private ObjectProvider<OrderBatchWriter> orderBatchWriter;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private OrderService orderService;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        InventoryLookupExecutor lookupExecutor = new InventoryLookupExecutor(inventoryClient, 4, 100, Duration.ofSeconds(5));
+        orderService = new OrderService(orderRepository, orderMapper, inventoryClient, lookupExecutor,
+                TransactionOperations.withoutTransaction(), orderBatchWriter, meterRegistry);
+    }
+
     @Test
     void createOrder_withSufficientStock_shouldSucceed() {
         // Given
@@ -54,8 +81,10 @@ class OrderServiceTest {
                 10
         );
 
-        when(inventoryClient.getItemBySku("TEST-SKU")).thenReturn(inventoryItem);
-        when(inventoryClient.checkStockAvailability("TEST-SKU", 2)).thenReturn(true);
+        StockReservationResponse reservation = reservation();
+
+        when(inventoryClient.getItemsBySkus(List.of("TEST-SKU"))).thenReturn(Map.of("TEST-SKU", inventoryItem));
+        when(inventoryClient.reserveStock(List.of(new StockReservationRequest("TEST-SKU", 2)))).thenReturn(reservation);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             order.setId(UUID.randomUUID());
@@ -81,8 +110,224 @@ class OrderServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.status()).isEqualTo(OrderStatus.CONFIRMED);
         verify(orderRepository).save(any(Order.class));
-        verify(inventoryClient).getItemBySku("TEST-SKU");
-        verify(inventoryClient).checkStockAvailability("TEST-SKU", 2);
+        verify(inventoryClient).getItemsBySkus(List.of("TEST-SKU"));
+        verify(inventoryClient, never()).getItemBySku(any());
+        verify(inventoryClient).commitReservation(reservation.id());
+        verify(inventoryClient, never()).releaseReservation(any());
+        assertThat(meterRegistry.get("orders.create.phase").tag("phase", "persist").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void createOrder_withCachedItemWithoutQuantity_shouldLeaveStockCheckToReservation() {
+        // Given the cached client knows name and price, not the current stock
+        CreateOrderRequest request = new CreateOrderRequest(
+                "John Doe",
+                "john@example.com",
+                List.of(new OrderItemRequest("TEST-SKU", 5))
+        );
+        InventoryItemResponse cachedItem = new InventoryItemResponse("TEST-SKU", "Test Product", "Description", 1999, null);
+        StockReservationResponse reservation = reservation();
+
+        when(inventoryClient.getItemsBySkus(List.of("TEST-SKU"))).thenReturn(Map.of("TEST-SKU", cachedItem));
+        when(inventoryClient.reserveStock(List.of(new StockReservationRequest("TEST-SKU", 5)))).thenReturn(reservation);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(UUID.randomUUID());
+            return order;
+        });
+
+        // When
+        orderService.createOrder(request);
+
+        // Then
+        verify(inventoryClient).reserveStock(List.of(new StockReservationRequest("TEST-SKU", 5)));
+        verify(orderRepository).save(any(Order.class));
+        verify(inventoryClient).commitReservation(reservation.id());
+    }
+
+    @Test
+    void createOrder_withGroupCommit_shouldStoreThroughBatchWriter() {
+        // Given
+        CreateOrderRequest request = new CreateOrderRequest(
+                "John Doe",
+                "john@example.com",
+                List.of(new OrderItemRequest("TEST-SKU", 2))
+        );
+        InventoryItemResponse inventoryItem = new InventoryItemResponse("TEST-SKU", "Test Product", "Description", 1999, 10);
+        StockReservationResponse reservation = reservation();
+        OrderBatchWriter writer = mock(OrderBatchWriter.class);
+
+        when(inventoryClient.getItemsBySkus(List.of("TEST-SKU"))).thenReturn(Map.of("TEST-SKU", inventoryItem));
+        when(inventoryClient.reserveStock(any())).thenReturn(reservation);
+        when(orderBatchWriter.getIfAvailable()).thenReturn(writer);
+        when(writer.write(any(Order.class), any())).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(UUID.randomUUID());
+            return order;
+        });
+
+        // When
+        orderService.createOrder(request);
+
+        // Then
+        verify(writer).write(any(Order.class), any());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(inventoryClient).commitReservation(reservation.id());
+    }
+
+    @Test
+    void createOrder_whenWriteQueueIsFull_shouldReleaseReservation() {
+        // Given
+        CreateOrderRequest request = new CreateOrderRequest(
+                "John Doe",
+                "john@example.com",
+                List.of(new OrderItemRequest("TEST-SKU", 2))
+        );
+        InventoryItemResponse inventoryItem = new InventoryItemResponse("TEST-SKU", "Test Product", "Description", 1999, 10);
+        StockReservationResponse reservation = reservation();
+        OrderBatchWriter writer = mock(OrderBatchWriter.class);
+
+        when(inventoryClient.getItemsBySkus(List.of("TEST-SKU"))).thenReturn(Map.of("TEST-SKU", inventoryItem));
+        when(inventoryClient.reserveStock(any())).thenReturn(reservation);
+        when(orderBatchWriter.getIfAvailable()).thenReturn(writer);
+        when(writer.write(any(Order.class), any()))
+                .thenThrow(new WriteQueueFullException("Too many orders are waiting to be stored", Duration.ofSeconds(1)));
+
+        // When/Then
+        assertThatThrownBy(() -> orderService.createOrder(request))
+                .isInstanceOf(WriteQueueFullException.class);
+        verify(inventoryClient).releaseReservation(reservation.id());
+        verify(inventoryClient, never()).commitReservation(any());
+    }
+
+    @Test
+    void createOrder_whenCommitFails_shouldRemoveOrderAndReleaseReservation() {
+        // Given
+        CreateOrderRequest request = new CreateOrderRequest(
+                "John Doe",
+                "john@example.com",
+                List.of(new OrderItemRequest("TEST-SKU", 2))
+        );
+
+        InventoryItemResponse inventoryItem = new InventoryItemResponse(
+                "TEST-SKU",
+                "Test Product",
+                "Description",
+                1999,
+                10
+        );
+        StockReservationResponse reservation = reservation();
+        UUID orderId = UUID.randomUUID();
+
+        when(inventoryClient.getItemsBySkus(List.of("TEST-SKU"))).thenReturn(Map.of("TEST-SKU", inventoryItem));
+        when(inventoryClient.reserveStock(any())).thenReturn(reservation);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(orderId);
+            return order;
+        });
+        doThrow(new IllegalStateException("inventory down")).when(inventoryClient).commitReservation(reservation.id());
+
+        // When/Then
+        assertThatThrownBy(() -> orderService.createOrder(request))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(orderRepository).deleteById(orderId);
+        verify(inventoryClient).releaseReservation(reservation.id());
+    }
+
+    @Test
+    void createOrder_whenReservationExpiredBeforeCommit_shouldRemoveOrder() {
+        // Given the reservation expired while the order was being stored
+        CreateOrderRequest request = new CreateOrderRequest(
+                "John Doe",
+                "john@example.com",
+                List.of(new OrderItemRequest("TEST-SKU", 2))
+        );
+
+        InventoryItemResponse inventoryItem = new InventoryItemResponse(
+                "TEST-SKU",
+                "Test Product",
+                "Description",
+                1999,
+                10
+        );
+        StockReservationResponse reservation = reservation();
+        UUID orderId = UUID.randomUUID();
+
+        when(inventoryClient.getItemsBySkus(List.of("TEST-SKU"))).thenReturn(Map.of("TEST-SKU", inventoryItem));
+        when(inventoryClient.reserveStock(any())).thenReturn(reservation);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(orderId);
+            return order;
+        });
+        doThrow(new ReservationConflictException("Reservation is RELEASED and can no longer be committed")).when(inventoryClient).commitReservation(reservation.id());
+
+        // When/Then
+        assertThatThrownBy(() -> orderService.createOrder(request))
+                .isInstanceOf(ReservationConflictException.class);
+
+        verify(orderRepository).deleteById(orderId);
+        verify(inventoryClient).releaseReservation(reservation.id());
+    }
+
+    @Test
+    void createOrder_whenSaveFails_shouldReleaseReservation() {
+        // Given
+        CreateOrderRequest request = new CreateOrderRequest(
+                "John Doe",
+                "john@example.com",
+                List.of(new OrderItemRequest("TEST-SKU", 2))
+        );
+
+        InventoryItemResponse inventoryItem = new InventoryItemResponse(
+                "TEST-SKU",
+                "Test Product",
+                "Description",
+                1999,
+                10
+        );
+        StockReservationResponse reservation = reservation();
+
+        when(inventoryClient.getItemsBySkus(List.of("TEST-SKU"))).thenReturn(Map.of("TEST-SKU", inventoryItem));
+        when(inventoryClient.reserveStock(any())).thenReturn(reservation);
+        when(orderRepository.save(any(Order.class))).thenThrow(new IllegalStateException("database down"));
+
+        // When/Then
+        assertThatThrownBy(() -> orderService.createOrder(request))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(inventoryClient).releaseReservation(reservation.id());
+        verify(inventoryClient, never()).commitReservation(any());
+    }
+
+    @Test
+    void createOrder_whenReservationRejected_shouldNotSave() {
+        // Given
+        CreateOrderRequest request = new CreateOrderRequest(
+                "John Doe",
+                "john@example.com",
+                List.of(new OrderItemRequest("TEST-SKU", 2))
+        );
+
+        InventoryItemResponse inventoryItem = new InventoryItemResponse(
+                "TEST-SKU",
+                "Test Product",
+                "Description",
+                1999,
+                10
+        );
+
+        when(inventoryClient.getItemsBySkus(List.of("TEST-SKU"))).thenReturn(Map.of("TEST-SKU", inventoryItem));
+        when(inventoryClient.reserveStock(any())).thenThrow(new InsufficientStockException("Insufficient stock for SKU: TEST-SKU"));
+
+        // When/Then
+        assertThatThrownBy(() -> orderService.createOrder(request))
+                .isInstanceOf(InsufficientStockException.class);
+
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(inventoryClient, never()).releaseReservation(any());
     }
 
     @Test
@@ -102,8 +347,7 @@ class OrderServiceTest {
                 10
         );
 
-        when(inventoryClient.getItemBySku("TEST-SKU")).thenReturn(inventoryItem);
-        when(inventoryClient.checkStockAvailability("TEST-SKU", 20)).thenReturn(false);
+        when(inventoryClient.getItemsBySkus(List.of("TEST-SKU"))).thenReturn(Map.of("TEST-SKU", inventoryItem));
 
         // When/Then
         assertThatThrownBy(() -> orderService.createOrder(request))
@@ -111,17 +355,100 @@ class OrderServiceTest {
                 .hasMessageContaining("Insufficient stock");
 
         verify(orderRepository, never()).save(any(Order.class));
+        verify(inventoryClient, never()).reserveStock(any());
+    }
+
+    @Test
+    void createOrder_withUnknownSku_shouldThrowNotFound() {
+        // Given
+        CreateOrderRequest request = new CreateOrderRequest(
+                "John Doe",
+                "john@example.com",
+                List.of(new OrderItemRequest("TEST-SKU", 1), new OrderItemRequest("UNKNOWN-SKU", 1))
+        );
+
+        InventoryItemResponse inventoryItem = new InventoryItemResponse(
+                "TEST-SKU",
+                "Test Product",
+                "Description",
+                1999,
+                10
+        );
+
+        when(inventoryClient.getItemsBySkus(List.of("TEST-SKU", "UNKNOWN-SKU")))
+                .thenReturn(Map.of("TEST-SKU", inventoryItem));
+
+        // When/Then
+        assertThatThrownBy(() -> orderService.createOrder(request))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("UNKNOWN-SKU");
+
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(inventoryClient, never()).reserveStock(any());
     }
 
     @Test
     void getOrderById_whenNotFound_shouldThrowException() {
         // Given
         UUID orderId = UUID.randomUUID();
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.empty());
 
         // When/Then
         assertThatThrownBy(() -> orderService.getOrderById(orderId))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Order not found");
     }
+
+    @Test
+    void listOrders_shouldReturnSummariesWithCursorToNextPage() {
+        // Given
+        OrderListingFilter filter = new OrderListingFilter(null, OrderStatus.CONFIRMED, null, null);
+        List<OrderSummaryResponse> rows = List.of(summary(Instant.parse("2025-03-02T00:00:00Z")),
+                summary(Instant.parse("2025-03-01T00:00:00Z")), summary(Instant.parse("2025-02-28T00:00:00Z")));
+        when(orderRepository.findSummaries(filter, null, 3)).thenReturn(rows);
+
+        // When
+        CursorPageResponse<?> page = orderService.listOrders(filter, null, 2, false);
+
+        // Then
+        assertThat(page.content()).isEqualTo(rows.subList(0, 2));
+        OrderCursor next = OrderCursor.decode(page.nextCursor());
+        assertThat(next).isEqualTo(new OrderCursor(rows.get(1).createdAt(), rows.get(1).id()));
+        verify(orderRepository, never()).findWithItems(any(), any(), anyInt());
+    }
+
+    @Test
+    void listOrders_onLastPage_shouldHaveNoCursor() {
+        // Given
+        OrderListingFilter filter = new OrderListingFilter(null, null, null, null);
+        OrderCursor after = new OrderCursor(Instant.parse("2025-03-01T00:00:00.123456Z"), UUID.randomUUID());
+        when(orderRepository.findWithItems(filter, after, 21)).thenReturn(List.of(new Order()));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(null);
+
+        // When
+        CursorPageResponse<?> page = orderService.listOrders(filter, after.encode(), 20, true);
+
+        // Then
+        assertThat(page.content()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void listOrders_withInvalidCursorOrSize_shouldBeRejected() {
+        OrderListingFilter filter = new OrderListingFilter(null, null, null, null);
+
+        assertThatThrownBy(() -> orderService.listOrders(filter, "not-a-cursor", 20, false))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> orderService.listOrders(filter, null, 101, false))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static OrderSummaryResponse summary(Instant createdAt) {
+        return new OrderSummaryResponse(UUID.randomUUID(), "John Doe", "john@example.com",
+                OrderStatus.CONFIRMED, 1000, createdAt);
+    }
+
+    private static StockReservationResponse reservation() {
+        return new StockReservationResponse(UUID.randomUUID(), "RESERVED", Instant.now().plusSeconds(300));
+    }
 }
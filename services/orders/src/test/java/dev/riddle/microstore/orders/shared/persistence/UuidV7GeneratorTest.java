@@ -0,0 +1,46 @@
+package dev.riddle.microstore.orders.shared.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void next_shouldBeVersion7WithRfcVariant() {
+        UUID id = UuidV7Generator.next();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void next_shouldCarryCurrentUnixMillis() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        // More than 4096 ids in one millisecond may borrow from the next one
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after + 1);
+    }
+
+    @Test
+    void next_shouldBeUniqueAndAscendingAsUnsignedBytes() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(UuidV7Generator.next());
+        }
+
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            // Postgres compares uuids bytewise, the first 8 bytes alone have to be ascending
+            assertThat(Long.compareUnsigned(ids.get(i).getMostSignificantBits(), ids.get(i - 1).getMostSignificantBits()))
+                    .isPositive();
+        }
+    }
+}